@@ -0,0 +1,23 @@
+package de.muenchen.oss.swim.dispatcher.adapter.in.rest;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Row of the protocol csv export, additional properties are exported as json.
+ */
+@JsonPropertyOrder({ "id", "useCase", "protocolName", "fileName", "pageCount", "department", "boxId", "paginationId", "documentType", "cooAddress",
+        "additionalProperties", "createdAt" })
+record CsvProtocolExportEntry(
+        String id,
+        String useCase,
+        String protocolName,
+        String fileName,
+        Integer pageCount,
+        String department,
+        String boxId,
+        String paginationId,
+        String documentType,
+        String cooAddress,
+        String additionalProperties,
+        String createdAt) {
+}
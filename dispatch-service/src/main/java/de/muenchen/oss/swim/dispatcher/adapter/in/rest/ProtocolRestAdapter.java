@@ -0,0 +1,150 @@
+package de.muenchen.oss.swim.dispatcher.adapter.in.rest;
+
+import de.muenchen.oss.swim.dispatcher.application.port.in.ProtocolQueryInPort;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolCursor;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolPage;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolQuery;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.StoredProtocolEntry;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.csv.CsvMapper;
+import tools.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Read-only api for querying stored protocol entries.
+ * Enabled via {@code swim.protocol-api-enabled}.
+ */
+@RestController
+@RequestMapping("/protocols")
+@RequiredArgsConstructor
+@ConditionalOnBooleanProperty("swim.protocol-api-enabled")
+public class ProtocolRestAdapter {
+    private static final String CURSOR_DELIMITER = "|";
+    private static final String CSV_CONTENT_TYPE = "text/csv";
+
+    private final ProtocolQueryInPort protocolQueryInPort;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Query stored protocol entries, ordered by creation time.
+     *
+     * @param useCase Name of the use case, optional.
+     * @param protocolName Name of the protocol, optional.
+     * @param department Department of the entries, optional.
+     * @param boxId Box id of the entries, optional.
+     * @param createdFrom Min creation time (inclusive), optional.
+     * @param createdTo Max creation time (exclusive), optional.
+     * @param cursor Cursor of the previous page, see {@link ProtocolPageResponse#nextCursor()}.
+     * @param limit Max number of entries to return.
+     * @return Page of matching entries.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProtocolPageResponse> findProtocolEntries(
+            @RequestParam(required = false) final String useCase,
+            @RequestParam(required = false) final String protocolName,
+            @RequestParam(required = false) final String department,
+            @RequestParam(required = false) final String boxId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdTo,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) final int limit) {
+        final ProtocolQuery query = new ProtocolQuery(useCase, protocolName, department, boxId, createdFrom, createdTo);
+        final ProtocolPage page = protocolQueryInPort.findProtocolEntries(query, decodeCursor(cursor), limit);
+        return ResponseEntity.ok(new ProtocolPageResponse(page.entries(), encodeCursor(page.next())));
+    }
+
+    /**
+     * Export stored protocol entries as csv, ordered by creation time.
+     * The entries are streamed to the client while they are loaded.
+     *
+     * @param useCase Name of the use case, optional.
+     * @param protocolName Name of the protocol, optional.
+     * @param department Department of the entries, optional.
+     * @param boxId Box id of the entries, optional.
+     * @param createdFrom Min creation time (inclusive), optional.
+     * @param createdTo Max creation time (exclusive), optional.
+     * @return The matching entries as csv.
+     */
+    @GetMapping(value = "export", produces = CSV_CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportProtocolEntries(
+            @RequestParam(required = false) final String useCase,
+            @RequestParam(required = false) final String protocolName,
+            @RequestParam(required = false) final String department,
+            @RequestParam(required = false) final String boxId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdTo) {
+        final ProtocolQuery query = new ProtocolQuery(useCase, protocolName, department, boxId, createdFrom, createdTo);
+        final CsvMapper csvMapper = new CsvMapper();
+        final CsvSchema schema = csvMapper.schemaFor(CsvProtocolExportEntry.class).withHeader();
+        final StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = csvMapper.writer(schema).writeValues(outputStream)) {
+                protocolQueryInPort.exportProtocolEntries(query, entry -> writer.write(this.toCsv(entry)));
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"protocol.csv\"")
+                .contentType(MediaType.parseMediaType(CSV_CONTENT_TYPE))
+                .body(body);
+    }
+
+    private CsvProtocolExportEntry toCsv(final StoredProtocolEntry entry) {
+        return new CsvProtocolExportEntry(
+                entry.id(), entry.useCase(), entry.protocolName(), entry.fileName(), entry.pageCount(), entry.department(), entry.boxId(),
+                entry.paginationId(), entry.documentType(), entry.cooAddress(),
+                entry.additionalProperties() != null ? jsonMapper.writeValueAsString(entry.additionalProperties()) : null,
+                entry.createdAt().toString());
+    }
+
+    private static String encodeCursor(final ProtocolCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        final String value = cursor.createdAt() + CURSOR_DELIMITER + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProtocolCursor decodeCursor(final String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int delimiter = value.indexOf(CURSOR_DELIMITER);
+            if (delimiter == -1) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+            return new ProtocolCursor(LocalDateTime.parse(value.substring(0, delimiter)), value.substring(delimiter + 1));
+        } catch (final IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Page of protocol entries.
+     *
+     * @param entries The entries of the page.
+     * @param nextCursor Cursor for loading the next page, null if this is the last page.
+     */
+    public record ProtocolPageResponse(List<StoredProtocolEntry> entries, String nextCursor) {
+    }
+}
@@ -0,0 +1,49 @@
+package de.muenchen.oss.swim.dispatcher.adapter.in.schedule;
+
+import de.muenchen.oss.swim.dispatcher.application.port.in.DispatchOutboxInPort;
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Triggers the relay of the dispatch outbox, if
+ * {@link SwimDispatcherProperties#isDispatchOutboxEnabled()}.
+ * The relay runs on an own thread, so it isn't delayed by dispatch runs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchOutboxRelayAdapter {
+    private final SwimDispatcherProperties swimDispatcherProperties;
+    private final DispatchOutboxInPort dispatchOutboxInPort;
+    private final ScheduledExecutorService relayExecutor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("dispatch-outbox-relay").daemon().factory());
+
+    @PostConstruct
+    /* default */ void start() {
+        if (!swimDispatcherProperties.isDispatchOutboxEnabled()) {
+            return;
+        }
+        final long interval = swimDispatcherProperties.getDispatchOutboxRelayInterval().toMillis();
+        relayExecutor.scheduleWithFixedDelay(this::relayDispatchEvents, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    /* default */ void shutdown() {
+        relayExecutor.shutdownNow();
+    }
+
+    private void relayDispatchEvents() {
+        try {
+            dispatchOutboxInPort.relayDispatchEvents();
+        } catch (final RuntimeException e) {
+            log.error("Relaying dispatch outbox failed", e);
+        }
+    }
+}
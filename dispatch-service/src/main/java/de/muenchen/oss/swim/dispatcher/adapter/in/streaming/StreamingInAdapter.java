@@ -1,25 +1,43 @@
 package de.muenchen.oss.swim.dispatcher.adapter.in.streaming;
 
+import de.muenchen.oss.swim.dispatcher.application.port.in.DispatcherInPort;
 import de.muenchen.oss.swim.dispatcher.application.port.in.ErrorHandlerInPort;
 import de.muenchen.oss.swim.dispatcher.application.port.in.MarkFileFinishedInPort;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.domain.exception.PresignedUrlException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.UseCaseException;
 import de.muenchen.oss.swim.dispatcher.domain.model.ErrorDetails;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileEventError;
 import de.muenchen.oss.swim.dispatcher.domain.model.PresignedFile;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.BucketNotificationEvent;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.DispatchHeaders;
 import de.muenchen.oss.swim.dispatcher.domain.model.streaming.FileEvent;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class StreamingInAdapter {
+    private static final String UNKNOWN_DESTINATION = "unknown";
+
     private final MarkFileFinishedInPort markFileFinishedInPort;
     private final ErrorHandlerInPort errorHandlerInPort;
+    private final DispatcherInPort dispatcherInPort;
+    private final DispatchMeter dispatchMeter;
 
     @Bean
     protected Consumer<Message<FileEvent>> finished() {
@@ -27,9 +45,8 @@ public class StreamingInAdapter {
             final FileEvent event = fileEventMessage.getPayload();
             final String useCase = event.useCase();
             try {
-                for (final PresignedFile file : event.files()) {
-                    markFileFinishedInPort.markFileFinished(useCase, file.presignedUrl());
-                }
+                markFileFinishedInPort.markFilesFinished(useCase, event.files().stream().map(PresignedFile::presignedUrl).toList());
+                this.recordEndToEndDuration(useCase, fileEventMessage.getHeaders());
             } catch (PresignedUrlException | UseCaseException e) {
                 throw new RuntimeException(e);
             }
@@ -48,6 +65,102 @@ public class StreamingInAdapter {
         };
     }
 
+    /**
+     * Batch variant of {@link #finished()}, requires the binding to be in batch mode.
+     * Events which can't be finished are handled like events from the dlq, so the other events of
+     * the batch aren't redelivered.
+     *
+     * @return Consumer for batches of finished events.
+     */
+    @Bean
+    protected Consumer<Message<List<FileEvent>>> finishedBatch() {
+        return fileEventsMessage -> {
+            final List<FileEvent> events = fileEventsMessage.getPayload();
+            final Map<Integer, Throwable> failures = markFileFinishedInPort.markEventsFinished(events);
+            final List<Map<String, Object>> headers = this.batchHeader(fileEventsMessage.getHeaders(), KafkaHeaders.BATCH_CONVERTED_HEADERS);
+            for (int i = 0; i < events.size() && i < headers.size(); i++) {
+                if (!failures.containsKey(i)) {
+                    this.recordEndToEndDuration(events.get(i).useCase(), headers.get(i));
+                }
+            }
+            if (failures.isEmpty()) {
+                return;
+            }
+            final List<String> topics = this.batchHeader(fileEventsMessage.getHeaders(), KafkaHeaders.RECEIVED_TOPIC);
+            final List<FileEventError> errors = failures.entrySet().stream()
+                    .map(i -> new FileEventError(events.get(i.getKey()), this.errorDetailsFromException(
+                            i.getKey() < topics.size() ? topics.get(i.getKey()) : null, i.getValue())))
+                    .toList();
+            errorHandlerInPort.handleErrors(errors);
+        };
+    }
+
+    /**
+     * Batch variant of {@link #dlq()}, requires the binding to be in batch mode.
+     *
+     * @return Consumer for batches of dlq events.
+     */
+    @Bean
+    protected Consumer<Message<List<FileEvent>>> dlqBatch() {
+        return fileEventsMessage -> {
+            final List<FileEvent> events = fileEventsMessage.getPayload();
+            final List<Map<String, Object>> headers = this.batchHeader(fileEventsMessage.getHeaders(), KafkaHeaders.BATCH_CONVERTED_HEADERS);
+            final List<FileEventError> errors = new ArrayList<>();
+            for (int i = 0; i < events.size(); i++) {
+                final Map<String, Object> eventHeaders = i < headers.size() ? headers.get(i) : Map.of();
+                errors.add(new FileEventError(events.get(i), this.errorDetailsFromHeaders(eventHeaders)));
+            }
+            errorHandlerInPort.handleErrors(errors);
+        };
+    }
+
+    @Bean
+    protected Consumer<Message<BucketNotificationEvent>> bucketEvent() {
+        return bucketEventMessage -> {
+            final BucketNotificationEvent event = bucketEventMessage.getPayload();
+            if (event.records() == null) {
+                return;
+            }
+            for (final BucketNotificationEvent.Record eventRecord : event.records()) {
+                // only handle created or tagged objects
+                if (eventRecord.eventName() == null || !eventRecord.eventName().startsWith(BucketNotificationEvent.EVENT_NAME_OBJECT_CREATED_PREFIX)) {
+                    continue;
+                }
+                final String bucket = eventRecord.s3().bucket().name();
+                final String path = URLDecoder.decode(eventRecord.s3().object().key(), StandardCharsets.UTF_8);
+                dispatcherInPort.triggerFileDispatching(bucket, path);
+            }
+        };
+    }
+
+    /**
+     * Record the latency between dispatching an event and receiving the finished event, based on the
+     * {@link DispatchHeaders} carried through by the handler service.
+     * Events without the headers (e.g. from handler services not yet carrying them) are skipped.
+     *
+     * @param useCase The use case of the event.
+     * @param headers The headers of the finished event.
+     */
+    protected void recordEndToEndDuration(final String useCase, final Map<String, Object> headers) {
+        final String dispatchTime = this.resolveHeaderToString(headers, DispatchHeaders.DISPATCH_TIME);
+        if (dispatchTime == null) {
+            return;
+        }
+        final Instant dispatchedAt;
+        try {
+            dispatchedAt = Instant.ofEpochMilli(Long.parseLong(dispatchTime));
+        } catch (final NumberFormatException e) {
+            log.warn("Invalid dispatch time header {} for use case {}", dispatchTime, useCase);
+            return;
+        }
+        final String destination = this.resolveHeaderToString(headers, DispatchHeaders.DISPATCH_DESTINATION);
+        // clocks of the instances may differ slightly
+        final Duration duration = Duration.between(dispatchedAt, Instant.now());
+        dispatchMeter.recordEndToEndDuration(useCase, destination == null ? UNKNOWN_DESTINATION : destination,
+                duration.isNegative() ? Duration.ZERO : duration);
+        log.debug("Finished dispatch {} of use case {} after {}", this.resolveHeaderToString(headers, DispatchHeaders.DISPATCH_ID), useCase, duration);
+    }
+
     protected ErrorDetails errorDetailsFromHeaders(final Map<String, Object> headers) {
         return new ErrorDetails(
                 this.resolveByteHeaderToString(headers, "x-original-topic"),
@@ -56,6 +169,42 @@ public class StreamingInAdapter {
                 this.resolveByteHeaderToString(headers, "x-exception-stacktrace"));
     }
 
+    protected ErrorDetails errorDetailsFromException(final String source, final Throwable e) {
+        return new ErrorDetails(
+                source,
+                e.getClass().getName(),
+                e.getMessage(),
+                ExceptionUtils.getStackTrace(e));
+    }
+
+    /**
+     * Get a header of a batch, which contains one value per record.
+     *
+     * @param headers The headers of the batch message.
+     * @param key The key of the header.
+     * @return The values of the header, empty if not present.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> List<T> batchHeader(final Map<String, Object> headers, final String key) {
+        final Object values = headers.get(key);
+        return values instanceof List<?> list ? (List<T>) list : List.of();
+    }
+
+    /**
+     * Resolve a header which is either raw bytes or was already converted to a string.
+     *
+     * @param headers The headers to resolve the value from.
+     * @param key The key of the header.
+     * @return The value of the header, null if not present.
+     */
+    protected String resolveHeaderToString(final Map<String, Object> headers, final String key) {
+        final Object val = headers.get(key);
+        if (val instanceof String string) {
+            return string;
+        }
+        return val instanceof byte[] ? this.resolveByteHeaderToString(headers, key) : null;
+    }
+
     protected String resolveByteHeaderToString(final Map<String, Object> headers, final String key) {
         final byte[] val = (byte[]) headers.get(key);
         if (val == null) {
@@ -1,24 +1,156 @@
 package de.muenchen.oss.swim.dispatcher.adapter.out.db;
 
 import de.muenchen.oss.swim.dispatcher.application.port.out.StoreProtocolOutPort;
+import de.muenchen.oss.swim.dispatcher.domain.exception.ProtocolException;
 import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolEntry;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class DbAdapter implements StoreProtocolOutPort {
-    private final ProtocolRepository protocolRepository;
-    private final DbProtocolMapper dbProtocolMapper;
+    private static final String CREATE_STAGING = """
+            CREATE TEMPORARY TABLE protocol_staging (
+                seq BIGINT NOT NULL, file_name VARCHAR NOT NULL, page_count INT NOT NULL, department VARCHAR, box_id VARCHAR, pagination_id VARCHAR,
+                document_type VARCHAR, coo_address VARCHAR, additional_properties jsonb
+            ) ON COMMIT DROP""";
+    private static final String COPY_STAGING = """
+            COPY protocol_staging (seq, file_name, page_count, department, box_id, pagination_id, document_type, coo_address, additional_properties)
+            FROM STDIN WITH (FORMAT csv)""";
+    /**
+     * Upsert staged entries, only rows with changed values are written.
+     * For file names listed multiple times the last entry wins.
+     */
+    private static final String UPSERT_PROTOCOL = """
+            INSERT INTO protocol (id, use_case, protocol_name, file_name, page_count, department, box_id, pagination_id, document_type, coo_address,
+                additional_properties, created_at)
+            SELECT DISTINCT ON (file_name) gen_random_uuid()::varchar, :useCase, :protocolName, file_name, page_count, department, box_id, pagination_id,
+                document_type, coo_address, additional_properties, :createdAt
+            FROM protocol_staging
+            ORDER BY file_name, seq DESC
+            ON CONFLICT (use_case, protocol_name, file_name) DO UPDATE SET
+                page_count = EXCLUDED.page_count, department = EXCLUDED.department, box_id = EXCLUDED.box_id, pagination_id = EXCLUDED.pagination_id,
+                document_type = EXCLUDED.document_type, coo_address = EXCLUDED.coo_address, additional_properties = EXCLUDED.additional_properties
+            WHERE (protocol.page_count, protocol.department, protocol.box_id, protocol.pagination_id, protocol.document_type, protocol.coo_address,
+                protocol.additional_properties) IS DISTINCT FROM (EXCLUDED.page_count, EXCLUDED.department, EXCLUDED.box_id, EXCLUDED.pagination_id,
+                EXCLUDED.document_type, EXCLUDED.coo_address, EXCLUDED.additional_properties)""";
+    private static final String DELETE_STALE = """
+            DELETE FROM protocol p
+            WHERE p.use_case = :useCase AND p.protocol_name = :protocolName
+            AND NOT EXISTS (SELECT 1 FROM protocol_staging s WHERE s.file_name = p.file_name)""";
+    /**
+     * Number of entries which are buffered before they are written to the database.
+     */
+    private static final int COPY_BATCH_SIZE = 1000;
 
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Replace the stored entries of a protocol in a single transaction.
+     * The entries are loaded via PostgreSQL {@code COPY FROM STDIN} into a temporary staging table in
+     * batches of {@link #COPY_BATCH_SIZE}. They are then upserted against the unique constraint on
+     * use case, protocol name and file name, and entries no longer in the protocol are deleted.
+     * Unchanged rows aren't written, so reprocessing a protocol causes only few writes and readers
+     * never see a partially stored protocol.
+     */
     @Override
-    public void storeProtocol(final String useCase, final String protocolName, final List<ProtocolEntry> entries) {
-        protocolRepository.saveAll(dbProtocolMapper.toDb(useCase, protocolName, entries));
+    @Transactional
+    public long storeProtocol(final String useCase, final String protocolName, final Stream<ProtocolEntry> entries) {
+        final Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copyIn = null;
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+            }
+            copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+            final StringBuilder batch = new StringBuilder();
+            final Iterator<ProtocolEntry> iterator = entries.iterator();
+            long count = 0;
+            while (iterator.hasNext()) {
+                this.appendRow(batch, count, iterator.next());
+                count++;
+                if (count % COPY_BATCH_SIZE == 0) {
+                    this.writeBatch(copyIn, batch);
+                }
+            }
+            this.writeBatch(copyIn, batch);
+            copyIn.endCopy();
+            // merge into protocol table
+            final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("useCase", useCase)
+                    .addValue("protocolName", protocolName)
+                    .addValue("createdAt", LocalDateTime.now());
+            final int upserted = jdbcTemplate.update(UPSERT_PROTOCOL, parameters);
+            final int deleted = jdbcTemplate.update(DELETE_STALE, parameters);
+            log.debug("Stored protocol {} of use case {}: {} entries, {} inserted or changed, {} deleted", protocolName, useCase, count, upserted, deleted);
+            return count;
+        } catch (final SQLException e) {
+            final String message = String.format("Error while storing protocol %s of use case %s", protocolName, useCase);
+            throw new ProtocolException(message, e);
+        } finally {
+            cancelCopy(copyIn);
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
     }
 
-    @Override
-    public void deleteProtocol(final String useCase, final String protocolName) {
-        protocolRepository.deleteAllByUseCaseAndProtocolName(useCase, protocolName);
+    private void writeBatch(final CopyIn copyIn, final StringBuilder batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        final byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        batch.setLength(0);
+    }
+
+    private void appendRow(final StringBuilder batch, final long seq, final ProtocolEntry entry) {
+        final String additionalProperties = entry.additionalProperties() != null ? jsonMapper.writeValueAsString(entry.additionalProperties()) : null;
+        batch.append(seq).append(',');
+        appendValue(batch, entry.fileName()).append(',');
+        appendValue(batch, entry.pageCount() != null ? entry.pageCount().toString() : null).append(',');
+        appendValue(batch, entry.department()).append(',');
+        appendValue(batch, entry.boxId()).append(',');
+        appendValue(batch, entry.paginationId()).append(',');
+        appendValue(batch, entry.documentType()).append(',');
+        appendValue(batch, entry.cooAddress()).append(',');
+        appendValue(batch, additionalProperties).append('\n');
+    }
+
+    /**
+     * Append a csv value, null is written unquoted so it is stored as NULL.
+     */
+    private static StringBuilder appendValue(final StringBuilder batch, final String value) {
+        if (value == null) {
+            return batch;
+        }
+        return batch.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void cancelCopy(final CopyIn copyIn) {
+        if (copyIn != null && copyIn.isActive()) {
+            try {
+                copyIn.cancelCopy();
+            } catch (final SQLException e) {
+                // connection is rolled back anyway
+            }
+        }
     }
 }
@@ -0,0 +1,157 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.db;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.DispatchOutboxOutPort;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxEntry;
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxFile;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+@Service
+@RequiredArgsConstructor
+public class DispatchOutboxAdapter implements DispatchOutboxOutPort {
+    private static final String INSERT_ENTRY = """
+            INSERT INTO dispatch_outbox (use_case, destination, multi, message_key, created_at)
+            VALUES (:useCase, :destination, :multi, :messageKey, :createdAt)
+            RETURNING id""";
+    private static final String INSERT_FILE = """
+            INSERT INTO dispatch_outbox_file (outbox_id, position, bucket, object_key, metadata_key)
+            VALUES (:outboxId, :position, :bucket, :objectKey, :metadataKey)
+            ON CONFLICT (bucket, object_key) DO NOTHING""";
+    private static final String CLAIM_ENTRIES = """
+            UPDATE dispatch_outbox SET claimed_until = now() + make_interval(secs => :seconds)
+            WHERE id IN (
+                SELECT id FROM dispatch_outbox
+                WHERE claimed_until IS NULL OR claimed_until < now()
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, use_case, destination, multi, message_key, attempts""";
+    private static final String SELECT_FILES = """
+            SELECT outbox_id, bucket, object_key, metadata_key FROM dispatch_outbox_file
+            WHERE outbox_id IN (:ids)
+            ORDER BY outbox_id, position""";
+    private static final String COUNT_PENDING_FILES = """
+            SELECT count(*) FROM dispatch_outbox_file f
+            JOIN dispatch_outbox o ON o.id = f.outbox_id
+            WHERE o.destination = :destination""";
+    private static final String DELETE_ENTRIES = """
+            DELETE FROM dispatch_outbox WHERE id IN (:ids)""";
+    private static final String EXTEND_CLAIMS = """
+            UPDATE dispatch_outbox SET claimed_until = now() + make_interval(secs => :seconds)
+            WHERE id IN (:ids)""";
+    private static final String RETRY_ENTRY = """
+            UPDATE dispatch_outbox SET attempts = attempts + 1, claimed_until = now() + make_interval(secs => :seconds)
+            WHERE id = :id""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public boolean enqueue(final String useCase, final String destination, final boolean multi, final String messageKey,
+            final List<DispatchOutboxFile> files) {
+        final Long id = jdbcTemplate.queryForObject(INSERT_ENTRY, new MapSqlParameterSource()
+                .addValue("useCase", useCase)
+                .addValue("destination", destination)
+                .addValue("multi", multi)
+                .addValue("messageKey", messageKey)
+                .addValue("createdAt", OffsetDateTime.now(ZoneOffset.UTC)), Long.class);
+        final SqlParameterSource[] parameters = new SqlParameterSource[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            final DispatchOutboxFile file = files.get(i);
+            parameters[i] = new MapSqlParameterSource()
+                    .addValue("outboxId", id)
+                    .addValue("position", i)
+                    .addValue("bucket", file.file().bucket())
+                    .addValue("objectKey", file.file().path())
+                    .addValue("metadataKey", file.metadataFile() == null ? null : file.metadataFile().path());
+        }
+        // a file which is already part of a pending event isn't inserted
+        final boolean allInserted = Arrays.stream(jdbcTemplate.batchUpdate(INSERT_FILE, parameters)).allMatch(i -> i != 0);
+        if (!allInserted) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        return allInserted;
+    }
+
+    @Override
+    @Transactional
+    public List<DispatchOutboxEntry> claimEntries(final int limit, final Duration claimDuration) {
+        final List<ClaimedEntry> claimed = jdbcTemplate.query(CLAIM_ENTRIES, new MapSqlParameterSource()
+                .addValue("limit", limit)
+                .addValue("seconds", claimDuration.toMillis() / 1000.0),
+                (rs, rowNum) -> new ClaimedEntry(
+                        rs.getLong("id"),
+                        rs.getString("use_case"),
+                        rs.getString("destination"),
+                        rs.getBoolean("multi"),
+                        rs.getString("message_key"),
+                        rs.getInt("attempts")));
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        final Map<Long, List<DispatchOutboxFile>> files = new HashMap<>();
+        jdbcTemplate.query(SELECT_FILES, new MapSqlParameterSource("ids", claimed.stream().map(ClaimedEntry::id).toList()), rs -> {
+            final String bucket = rs.getString("bucket");
+            final String metadataKey = rs.getString("metadata_key");
+            files.computeIfAbsent(rs.getLong("outbox_id"), k -> new ArrayList<>()).add(new DispatchOutboxFile(
+                    new FileReference(bucket, rs.getString("object_key")),
+                    metadataKey == null ? null : new FileReference(bucket, metadataKey),
+                    null));
+        });
+        return claimed.stream()
+                .sorted(Comparator.comparingLong(ClaimedEntry::id))
+                .map(i -> new DispatchOutboxEntry(i.id(), i.useCase(), i.destination(), i.multi(), i.messageKey(), files.getOrDefault(i.id(), List.of()),
+                        i.attempts()))
+                .toList();
+    }
+
+    @Override
+    public void removeEntries(final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(DELETE_ENTRIES, new MapSqlParameterSource("ids", ids));
+    }
+
+    @Override
+    public long countPendingFiles(final String destination) {
+        final Long count = jdbcTemplate.queryForObject(COUNT_PENDING_FILES, new MapSqlParameterSource("destination", destination), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void extendClaims(final Collection<Long> ids, final Duration claimDuration) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(EXTEND_CLAIMS, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("seconds", claimDuration.toMillis() / 1000.0));
+    }
+
+    @Override
+    public void retryEntry(final long id, final Duration delay) {
+        jdbcTemplate.update(RETRY_ENTRY, new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("seconds", delay.toMillis() / 1000.0));
+    }
+
+    private record ClaimedEntry(long id, String useCase, String destination, boolean multi, String messageKey, int attempts) {
+    }
+}
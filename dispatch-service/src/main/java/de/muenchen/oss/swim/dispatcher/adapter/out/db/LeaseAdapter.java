@@ -0,0 +1,94 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.db;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.LeaseOutPort;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class LeaseAdapter implements LeaseOutPort {
+    private static final String UPSERT_INSTANCE = """
+            INSERT INTO dispatch_instance (instance_id, expires_at)
+            VALUES (:instanceId, now() + make_interval(secs => :seconds))
+            ON CONFLICT (instance_id) DO UPDATE SET expires_at = EXCLUDED.expires_at""";
+    private static final String DELETE_EXPIRED_INSTANCES = """
+            DELETE FROM dispatch_instance WHERE expires_at < now()""";
+    private static final String COUNT_INSTANCES = """
+            SELECT count(*) FROM dispatch_instance""";
+    private static final String RENEW_LEASES = """
+            UPDATE dispatch_lease SET expires_at = now() + make_interval(secs => :seconds)
+            WHERE owner = :instanceId AND expires_at >= now()
+            RETURNING shard""";
+    private static final String ACQUIRE_LEASE = """
+            INSERT INTO dispatch_lease (shard, owner, expires_at)
+            VALUES (:shard, :instanceId, now() + make_interval(secs => :seconds))
+            ON CONFLICT (shard) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+            WHERE dispatch_lease.owner = EXCLUDED.owner OR dispatch_lease.expires_at < now()""";
+    private static final String DELETE_LEASES = """
+            DELETE FROM dispatch_lease WHERE owner = :instanceId AND shard IN (:shards)""";
+    private static final String DELETE_ALL_LEASES = """
+            DELETE FROM dispatch_lease WHERE owner = :instanceId""";
+    private static final String DELETE_INSTANCE = """
+            DELETE FROM dispatch_instance WHERE instance_id = :instanceId""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void registerInstance(final String instanceId, final Duration duration) {
+        jdbcTemplate.update(UPSERT_INSTANCE, new MapSqlParameterSource()
+                .addValue("instanceId", instanceId)
+                .addValue("seconds", this.toSeconds(duration)));
+    }
+
+    @Override
+    @Transactional
+    public int countActiveInstances() {
+        jdbcTemplate.update(DELETE_EXPIRED_INSTANCES, new MapSqlParameterSource());
+        final Integer count = jdbcTemplate.queryForObject(COUNT_INSTANCES, new MapSqlParameterSource(), Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public Set<String> renewLeases(final String instanceId, final Duration duration) {
+        return new HashSet<>(jdbcTemplate.queryForList(RENEW_LEASES, new MapSqlParameterSource()
+                .addValue("instanceId", instanceId)
+                .addValue("seconds", this.toSeconds(duration)), String.class));
+    }
+
+    @Override
+    public boolean acquireLease(final String shard, final String instanceId, final Duration duration) {
+        return jdbcTemplate.update(ACQUIRE_LEASE, new MapSqlParameterSource()
+                .addValue("shard", shard)
+                .addValue("instanceId", instanceId)
+                .addValue("seconds", this.toSeconds(duration))) > 0;
+    }
+
+    @Override
+    public void releaseLeases(final String instanceId, final Collection<String> shards) {
+        if (shards.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(DELETE_LEASES, new MapSqlParameterSource()
+                .addValue("instanceId", instanceId)
+                .addValue("shards", shards));
+    }
+
+    @Override
+    @Transactional
+    public void unregisterInstance(final String instanceId) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource("instanceId", instanceId);
+        jdbcTemplate.update(DELETE_ALL_LEASES, parameters);
+        jdbcTemplate.update(DELETE_INSTANCE, parameters);
+    }
+
+    private double toSeconds(final Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,131 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.db;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.ObjectIndexOutPort;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ObjectIndexAdapter implements ObjectIndexOutPort {
+    private static final String SELECT_OBJECTS = """
+            SELECT object_key, etag FROM object_index
+            WHERE bucket = :bucket AND object_key IN (:objectKeys)""";
+    private static final String UPSERT_OBJECT = """
+            INSERT INTO object_index (bucket, object_key, etag, last_seen)
+            VALUES (:bucket, :objectKey, :etag, :lastSeen)
+            ON CONFLICT (bucket, object_key) DO UPDATE SET etag = EXCLUDED.etag, last_seen = EXCLUDED.last_seen""";
+    private static final String DELETE_OBJECTS = """
+            DELETE FROM object_index
+            WHERE bucket = :bucket AND object_key IN (:objectKeys)""";
+    private static final String DELETE_OBJECTS_NOT_SEEN = """
+            DELETE FROM object_index
+            WHERE bucket = :bucket AND starts_with(object_key, :pathPrefix) AND last_seen < :since""";
+    private static final String DELETE_DIRECT_OBJECTS_NOT_SEEN = """
+            DELETE FROM object_index
+            WHERE bucket = :bucket AND starts_with(object_key, :folder) AND strpos(substr(object_key, length(:folder) + 1), '/') = 0
+            AND last_seen < :since""";
+    private static final String SELECT_LAST_FULL_SCANS = """
+            SELECT shard, last_full_scan FROM object_index_scan
+            WHERE use_case = :useCase""";
+    private static final String UPSERT_LAST_FULL_SCAN = """
+            INSERT INTO object_index_scan (use_case, shard, last_full_scan)
+            VALUES (:useCase, :shard, :lastFullScan)
+            ON CONFLICT (use_case, shard) DO UPDATE SET last_full_scan = GREATEST(object_index_scan.last_full_scan, EXCLUDED.last_full_scan)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, String> findIndexedObjects(final String bucket, final Collection<String> objectKeys) {
+        final Map<String, String> objects = new HashMap<>();
+        if (objectKeys.isEmpty()) {
+            return objects;
+        }
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("bucket", bucket)
+                .addValue("objectKeys", objectKeys);
+        jdbcTemplate.query(SELECT_OBJECTS, parameters, resultSet -> {
+            objects.put(resultSet.getString("object_key"), resultSet.getString("etag"));
+        });
+        return objects;
+    }
+
+    @Override
+    public void storeObjects(final String bucket, final Map<String, String> objects, final Instant seenAt) {
+        final OffsetDateTime lastSeen = seenAt.atOffset(ZoneOffset.UTC);
+        final SqlParameterSource[] batch = objects.entrySet().stream()
+                .map(i -> new MapSqlParameterSource()
+                        .addValue("bucket", bucket)
+                        .addValue("objectKey", i.getKey())
+                        .addValue("etag", i.getValue())
+                        .addValue("lastSeen", lastSeen))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_OBJECT, batch);
+    }
+
+    @Override
+    public void removeObjects(final String bucket, final Collection<String> objectKeys) {
+        if (objectKeys.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(DELETE_OBJECTS, new MapSqlParameterSource()
+                .addValue("bucket", bucket)
+                .addValue("objectKeys", objectKeys));
+    }
+
+    @Override
+    public int removeObjectsNotSeenSince(final String bucket, final String pathPrefix, final Instant since) {
+        return jdbcTemplate.update(DELETE_OBJECTS_NOT_SEEN, new MapSqlParameterSource()
+                .addValue("bucket", bucket)
+                .addValue("pathPrefix", toFolderPrefix(pathPrefix))
+                .addValue("since", since.atOffset(ZoneOffset.UTC)));
+    }
+
+    @Override
+    public int removeDirectObjectsNotSeenSince(final String bucket, final String folder, final Instant since) {
+        return jdbcTemplate.update(DELETE_DIRECT_OBJECTS_NOT_SEEN, new MapSqlParameterSource()
+                .addValue("bucket", bucket)
+                .addValue("folder", toFolderPrefix(folder))
+                .addValue("since", since.atOffset(ZoneOffset.UTC)));
+    }
+
+    @Override
+    public Map<Integer, Instant> findLastFullScans(final String useCase) {
+        final Map<Integer, Instant> lastFullScans = new HashMap<>();
+        jdbcTemplate.query(SELECT_LAST_FULL_SCANS, new MapSqlParameterSource("useCase", useCase), resultSet -> {
+            lastFullScans.put(resultSet.getInt("shard"), resultSet.getObject("last_full_scan", OffsetDateTime.class).toInstant());
+        });
+        return lastFullScans;
+    }
+
+    @Override
+    public void storeLastFullScan(final String useCase, final Collection<Integer> shards, final Instant scanStart) {
+        final OffsetDateTime lastFullScan = scanStart.atOffset(ZoneOffset.UTC);
+        final SqlParameterSource[] batch = shards.stream()
+                .map(i -> new MapSqlParameterSource()
+                        .addValue("useCase", useCase)
+                        .addValue("shard", i)
+                        .addValue("lastFullScan", lastFullScan))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_LAST_FULL_SCAN, batch);
+    }
+
+    /**
+     * Ensure a path is handled as folder, so files of sibling folders with the same prefix (e.g.
+     * "inProcess2/" for "inProcess") aren't matched.
+     *
+     * @param path The path of the folder.
+     * @return The path ending with a slash.
+     */
+    private static String toFolderPrefix(final String path) {
+        return path.endsWith("/") ? path : path + "/";
+    }
+}
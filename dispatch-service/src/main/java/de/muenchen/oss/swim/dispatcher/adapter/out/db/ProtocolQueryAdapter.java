@@ -0,0 +1,120 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.db;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.QueryProtocolOutPort;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolCursor;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolQuery;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.StoredProtocolEntry;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Read-only queries on stored protocol entries.
+ * Entries are ordered by creation time and id and paginated via keyset, which is supported by the
+ * indexes of migration V04.
+ */
+@Service
+public class ProtocolQueryAdapter implements QueryProtocolOutPort {
+    private static final String SELECT_PROTOCOL = """
+            SELECT id, use_case, protocol_name, file_name, page_count, department, box_id, pagination_id, document_type, coo_address,
+                additional_properties, created_at
+            FROM protocol""";
+    private static final String ORDER_BY = " ORDER BY created_at, id";
+    /**
+     * Number of rows fetched per round trip while exporting.
+     */
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final TypeReference<Map<String, Object>> ADDITIONAL_PROPERTIES_TYPE = new TypeReference<>() {
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate exportJdbcTemplate;
+    private final JsonMapper jsonMapper;
+
+    public ProtocolQueryAdapter(final NamedParameterJdbcTemplate jdbcTemplate, final DataSource dataSource, final JsonMapper jsonMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        final JdbcTemplate exportTemplate = new JdbcTemplate(dataSource);
+        exportTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        this.exportJdbcTemplate = new NamedParameterJdbcTemplate(exportTemplate);
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public List<StoredProtocolEntry> findProtocolEntries(final ProtocolQuery query, final ProtocolCursor after, final int limit) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource();
+        final List<String> conditions = this.buildConditions(query, parameters);
+        if (after != null) {
+            conditions.add("(created_at, id) > (:afterCreatedAt, :afterId)");
+            parameters.addValue("afterCreatedAt", after.createdAt());
+            parameters.addValue("afterId", after.id());
+        }
+        parameters.addValue("limit", limit);
+        final String sql = SELECT_PROTOCOL + where(conditions) + ORDER_BY + " LIMIT :limit";
+        return jdbcTemplate.query(sql, parameters, (resultSet, rowNum) -> this.toEntry(resultSet));
+    }
+
+    /**
+     * Runs in a read-only transaction, as the PostgreSQL driver only fetches in chunks (instead of
+     * loading the whole result) with auto-commit disabled.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProtocolEntries(final ProtocolQuery query, final Consumer<StoredProtocolEntry> consumer) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource();
+        final String sql = SELECT_PROTOCOL + where(this.buildConditions(query, parameters)) + ORDER_BY;
+        exportJdbcTemplate.query(sql, parameters, resultSet -> {
+            consumer.accept(this.toEntry(resultSet));
+        });
+    }
+
+    private List<String> buildConditions(final ProtocolQuery query, final MapSqlParameterSource parameters) {
+        final List<String> conditions = new ArrayList<>();
+        addCondition(conditions, parameters, "use_case = :useCase", "useCase", query.useCase());
+        addCondition(conditions, parameters, "protocol_name = :protocolName", "protocolName", query.protocolName());
+        addCondition(conditions, parameters, "department = :department", "department", query.department());
+        addCondition(conditions, parameters, "box_id = :boxId", "boxId", query.boxId());
+        addCondition(conditions, parameters, "created_at >= :createdFrom", "createdFrom", query.createdFrom());
+        addCondition(conditions, parameters, "created_at < :createdTo", "createdTo", query.createdTo());
+        return conditions;
+    }
+
+    private static void addCondition(final List<String> conditions, final MapSqlParameterSource parameters, final String condition, final String name,
+            final Object value) {
+        if (value != null) {
+            conditions.add(condition);
+            parameters.addValue(name, value);
+        }
+    }
+
+    private static String where(final List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private StoredProtocolEntry toEntry(final ResultSet resultSet) throws SQLException {
+        final String additionalProperties = resultSet.getString("additional_properties");
+        return new StoredProtocolEntry(
+                resultSet.getString("id"),
+                resultSet.getString("use_case"),
+                resultSet.getString("protocol_name"),
+                resultSet.getString("file_name"),
+                resultSet.getInt("page_count"),
+                resultSet.getString("department"),
+                resultSet.getString("box_id"),
+                resultSet.getString("pagination_id"),
+                resultSet.getString("document_type"),
+                resultSet.getString("coo_address"),
+                additionalProperties != null ? jsonMapper.readValue(additionalProperties, ADDITIONAL_PROPERTIES_TYPE) : null,
+                resultSet.getTimestamp("created_at").toLocalDateTime());
+    }
+}
@@ -12,6 +12,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
 import org.springframework.core.io.ByteArrayResource;
@@ -25,6 +26,7 @@ public class MailAdapter implements NotificationOutPort {
     private final MailProperties mailProperties;
     private final JavaMailSender mailSender;
     private final MessageSource messageSource;
+    private final MailOutbox mailOutbox;
 
     private static final String SUBJECT_OK = "OK";
     private static final String SUBJECT_ERROR = "ERROR";
@@ -44,7 +46,7 @@ public class MailAdapter implements NotificationOutPort {
                 errors.entrySet().stream()
                         .map(e -> String.format("- %s: %s", e.getKey().path(), e.getValue().getMessage()))
                         .reduce((a, b) -> String.format("%s%n%s", a, b)).orElse(""));
-        this.sendMail(recipients, subject, body, Map.of());
+        this.sendNotification(recipients, useCase, subject, body);
     }
 
     @Override
@@ -72,7 +74,7 @@ public class MailAdapter implements NotificationOutPort {
         final String body = String.format(
                 this.getMessage("protocolError.message"),
                 useCase, protocolPath, error.getClass(), error.getMessage());
-        this.sendMail(recipients, subject, body, Map.of());
+        this.sendNotification(recipients, useCase, subject, body);
     }
 
     @Override
@@ -84,7 +86,7 @@ public class MailAdapter implements NotificationOutPort {
                 useCase, filePath, inputError.source(),
                 error.getClass(), error.getMessage(),
                 inputError.className(), inputError.message(), inputError.stacktrace());
-        this.sendMail(recipients, subject, body, Map.of());
+        this.sendNotification(recipients, useCase, subject, body);
     }
 
     @Override
@@ -93,6 +95,43 @@ public class MailAdapter implements NotificationOutPort {
         final String body = String.format(
                 this.getMessage("fileError.message"),
                 useCase, filePath, error.source(), error.className(), error.message(), error.stacktrace());
+        this.sendNotification(recipients, useCase, subject, body);
+    }
+
+    /**
+     * Send an error notification.
+     * Stored in the outbox if enabled, see {@link MailOutboxSender}, else sent directly.
+     *
+     * @param recipients List of recipient email addresses the mail should be sent to.
+     * @param useCase The use case the notification is for.
+     * @param subject Subject of the mail.
+     * @param body Body of the mail.
+     */
+    protected void sendNotification(final List<String> recipients, final String useCase, final String subject, final String body) {
+        if (mailProperties.isOutboxEnabled()) {
+            mailOutbox.add(recipients, useCase, subject, body);
+        } else {
+            this.sendMail(recipients, subject, body, Map.of());
+        }
+    }
+
+    /**
+     * Send notifications from the outbox.
+     * A single notification is sent as is, multiple are combined into one digest mail.
+     *
+     * @param recipients List of recipient email addresses the mail should be sent to.
+     * @param useCase The use case the notifications are for.
+     * @param entries The notifications to send.
+     */
+    /* default */ void sendDigest(final List<String> recipients, final String useCase, final List<MailOutbox.Entry> entries) {
+        if (entries.size() == 1) {
+            this.sendMail(recipients, entries.getFirst().subject(), entries.getFirst().body(), Map.of());
+            return;
+        }
+        final String subject = this.buildSubject(true, String.format(this.getMessage("digest.subject"), entries.size(), useCase));
+        final String body = entries.stream()
+                .map(i -> String.format("%s%n%n%s", i.subject(), i.body()))
+                .collect(Collectors.joining(String.format("%n%n----------%n%n")));
         this.sendMail(recipients, subject, body, Map.of());
     }
 
@@ -0,0 +1,150 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.mail;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Persistent outbox of notification mails, which are sent in the background by
+ * {@link MailOutboxSender}.
+ * Entries with the same use case and recipients are combined into one digest.
+ */
+@Repository
+@RequiredArgsConstructor
+class MailOutbox {
+    private static final String RECIPIENT_DELIMITER = ",";
+    private static final String INSERT_ENTRY = """
+            INSERT INTO notification_outbox (use_case, recipients, subject, body, created_at)
+            VALUES (:useCase, :recipients, :subject, :body, :createdAt)""";
+    private static final String SELECT_DUE_DIGESTS = """
+            SELECT use_case, recipients FROM notification_outbox
+            WHERE claimed_until IS NULL OR claimed_until < now()
+            GROUP BY use_case, recipients
+            HAVING MIN(created_at) <= :dueBefore
+            ORDER BY MIN(created_at)
+            LIMIT :limit""";
+    private static final String CLAIM_DIGEST_ENTRIES = """
+            UPDATE notification_outbox SET claimed_until = now() + make_interval(secs => :seconds)
+            WHERE id IN (
+                SELECT id FROM notification_outbox
+                WHERE use_case = :useCase AND recipients = :recipients AND (claimed_until IS NULL OR claimed_until < now())
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, subject, body, attempts""";
+    private static final String DELETE_ENTRIES = "DELETE FROM notification_outbox WHERE id IN (:ids)";
+    private static final String RELEASE_FAILED = "UPDATE notification_outbox SET attempts = attempts + 1, claimed_until = NULL WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Add a notification to the outbox.
+     *
+     * @param recipients The recipients of the notification.
+     * @param useCase The use case the notification is for, null if unknown.
+     * @param subject The subject of the mail.
+     * @param body The body of the mail.
+     */
+    public void add(final List<String> recipients, final String useCase, final String subject, final String body) {
+        jdbcTemplate.update(INSERT_ENTRY, new MapSqlParameterSource()
+                .addValue("useCase", useCase != null ? useCase : "")
+                .addValue("recipients", String.join(RECIPIENT_DELIMITER, recipients.stream().sorted().distinct().toList()))
+                .addValue("subject", subject)
+                .addValue("body", body)
+                .addValue("createdAt", Instant.now().atOffset(ZoneOffset.UTC)));
+    }
+
+    /**
+     * Find digests whose oldest entry was added before the given time.
+     *
+     * @param dueBefore Time before which the oldest entry needs to be added.
+     * @param limit Max number of digests to return, oldest first.
+     * @return The due digests.
+     */
+    public List<Digest> findDueDigests(final Instant dueBefore, final int limit) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("dueBefore", dueBefore.atOffset(ZoneOffset.UTC))
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SELECT_DUE_DIGESTS, parameters, (resultSet, rowNum) -> new Digest(
+                resultSet.getString("use_case"),
+                resultSet.getString("recipients")));
+    }
+
+    /**
+     * Claim and load the entries of a digest, so they can be sent outside of a transaction.
+     * Entries claimed or locked by another instance are skipped.
+     *
+     * @param digest The digest to load the entries for.
+     * @param claimDuration Duration after which the entries are sent again if they are neither
+     *            removed nor released.
+     * @return The claimed entries of the digest, oldest first.
+     */
+    public List<Entry> claimEntries(final Digest digest, final Duration claimDuration) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("useCase", digest.useCase())
+                .addValue("recipients", digest.recipients())
+                .addValue("seconds", claimDuration.toMillis() / 1000.0);
+        final List<Entry> claimed = jdbcTemplate.query(CLAIM_DIGEST_ENTRIES, parameters, (resultSet, rowNum) -> new Entry(
+                resultSet.getLong("id"),
+                resultSet.getString("subject"),
+                resultSet.getString("body"),
+                resultSet.getInt("attempts")));
+        // order of returned rows isn't defined, ids are ascending in insertion order
+        return claimed.stream()
+                .sorted(Comparator.comparingLong(Entry::id))
+                .toList();
+    }
+
+    /**
+     * Remove entries from the outbox.
+     *
+     * @param ids The ids of the entries.
+     */
+    public void remove(final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(DELETE_ENTRIES, new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Increment the failed send attempts of entries and release their claim, so they are sent in
+     * the next run.
+     *
+     * @param ids The ids of the entries.
+     */
+    public void releaseFailed(final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(RELEASE_FAILED, new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Notifications which are sent together.
+     *
+     * @param useCase The use case of the notifications, empty if unknown.
+     * @param recipients The recipients of the notifications, separated by comma.
+     */
+    record Digest(String useCase, String recipients) {
+        /* default */ List<String> recipientList() {
+            return List.of(recipients.split(RECIPIENT_DELIMITER));
+        }
+    }
+
+    /**
+     * A single notification.
+     *
+     * @param id The id of the entry.
+     * @param subject The subject of the mail.
+     * @param body The body of the mail.
+     * @param attempts The number of failed send attempts.
+     */
+    record Entry(long id, String subject, String body, int attempts) {
+    }
+}
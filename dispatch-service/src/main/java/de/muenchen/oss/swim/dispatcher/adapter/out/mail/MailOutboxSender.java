@@ -0,0 +1,76 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.mail;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the notifications of the {@link MailOutbox} in the background.
+ * Notifications of the same use case and recipients are collected for
+ * {@link MailProperties#getDigestWindow()} and sent as one digest mail.
+ * At most {@link MailProperties#getMaxMailsPerRun()} mails are sent per run to throttle sending.
+ * The notifications of a digest are claimed before sending, so no database transaction or lock is
+ * held while the mail server is contacted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class MailOutboxSender {
+    private final MailOutbox mailOutbox;
+    private final MailAdapter mailAdapter;
+    private final MailProperties mailProperties;
+
+    /**
+     * Send all due digests.
+     */
+    @Scheduled(fixedDelayString = "${swim.mail.outbox-send-interval:30s}")
+    public void sendDueDigests() {
+        if (!mailProperties.isOutboxEnabled()) {
+            return;
+        }
+        final Instant dueBefore = Instant.now().minus(mailProperties.getDigestWindow());
+        for (final MailOutbox.Digest digest : mailOutbox.findDueDigests(dueBefore, mailProperties.getMaxMailsPerRun())) {
+            try {
+                this.sendDigest(digest);
+            } catch (final RuntimeException e) {
+                log.error("Error while sending notification digest for use case {}", digest.useCase(), e);
+            }
+        }
+    }
+
+    /**
+     * Send the entries of a digest and remove them from the outbox.
+     * If sending fails, the entries are released for the next run until
+     * {@link MailProperties#getMaxSendAttempts()} is reached.
+     *
+     * @param digest The digest to send.
+     */
+    private void sendDigest(final MailOutbox.Digest digest) {
+        final List<MailOutbox.Entry> entries = mailOutbox.claimEntries(digest, mailProperties.getOutboxClaimDuration());
+        if (entries.isEmpty()) {
+            return;
+        }
+        final List<Long> ids = entries.stream().map(MailOutbox.Entry::id).toList();
+        try {
+            mailAdapter.sendDigest(digest.recipientList(), digest.useCase(), entries);
+        } catch (final RuntimeException e) {
+            log.warn("Sending {} notification(s) for use case {} failed", entries.size(), digest.useCase(), e);
+            final List<Long> expiredIds = entries.stream()
+                    .filter(i -> i.attempts() + 1 >= mailProperties.getMaxSendAttempts())
+                    .map(MailOutbox.Entry::id)
+                    .toList();
+            if (!expiredIds.isEmpty()) {
+                log.error("Dropping {} notification(s) for use case {} after {} failed attempts", expiredIds.size(), digest.useCase(),
+                        mailProperties.getMaxSendAttempts());
+                mailOutbox.remove(expiredIds);
+            }
+            mailOutbox.releaseFailed(ids.stream().filter(i -> !expiredIds.contains(i)).toList());
+            return;
+        }
+        mailOutbox.remove(ids);
+        log.debug("Sent {} notification(s) for use case {}", entries.size(), digest.useCase());
+    }
+}
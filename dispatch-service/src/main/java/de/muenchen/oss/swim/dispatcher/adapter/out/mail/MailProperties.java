@@ -1,9 +1,12 @@
 package de.muenchen.oss.swim.dispatcher.adapter.out.mail;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import java.util.Locale;
 import lombok.Data;
+import org.hibernate.validator.constraints.time.DurationMin;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @Data
@@ -23,4 +26,44 @@ public class MailProperties {
      */
     @NotNull
     private Locale locale = Locale.ENGLISH;
+    /**
+     * If error notifications are stored in an outbox and sent in the background as digests.
+     * If disabled, they are sent directly.
+     * Default: true
+     */
+    private boolean outboxEnabled = true;
+    /**
+     * Time notifications of the same use case and recipients are collected before they are sent as
+     * one digest.
+     * Default: 5m
+     */
+    @NotNull
+    private Duration digestWindow = Duration.ofMinutes(5);
+    /**
+     * Interval in which the outbox is checked for due digests.
+     * Default: 30s
+     */
+    @NotNull
+    @DurationMin(seconds = 1)
+    private Duration outboxSendInterval = Duration.ofSeconds(30);
+    /**
+     * Max number of digest mails sent per interval.
+     * Default: 10
+     */
+    @Min(1)
+    private int maxMailsPerRun = 10;
+    /**
+     * Number of failed attempts after which a notification is dropped.
+     * Default: 10
+     */
+    @Min(1)
+    private int maxSendAttempts = 10;
+    /**
+     * Duration notifications are claimed by an instance while their digest is sent. Claimed
+     * notifications of a crashed instance are sent again after it passed.
+     * Default: 5m
+     */
+    @NotNull
+    @DurationMin(seconds = 1)
+    private Duration outboxClaimDuration = Duration.ofMinutes(5);
 }
@@ -0,0 +1,60 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.ObjectIndexOutPort;
+import io.minio.messages.Item;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator which skips listed objects that are in the object index with an unchanged ETag.
+ * The index is queried in batches of listed objects.
+ */
+class IndexFilteringIterator implements Iterator<Item> {
+    private final Iterator<Item> items;
+    private final ObjectIndexOutPort objectIndexOutPort;
+    private final String bucket;
+    private final int batchSize;
+    private final Deque<Item> remaining = new ArrayDeque<>();
+
+    /* default */ IndexFilteringIterator(final Iterator<Item> items, final ObjectIndexOutPort objectIndexOutPort, final String bucket,
+            final int batchSize) {
+        this.items = items;
+        this.objectIndexOutPort = objectIndexOutPort;
+        this.bucket = bucket;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (remaining.isEmpty() && items.hasNext()) {
+            this.loadBatch();
+        }
+        return !remaining.isEmpty();
+    }
+
+    @Override
+    public Item next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return remaining.poll();
+    }
+
+    private void loadBatch() {
+        final List<Item> batch = new ArrayList<>();
+        while (batch.size() < batchSize && items.hasNext()) {
+            batch.add(items.next());
+        }
+        final Map<String, String> indexedObjects = objectIndexOutPort.findIndexedObjects(bucket, batch.stream().map(Item::objectName).toList());
+        for (final Item item : batch) {
+            if (!item.etag().equals(indexedObjects.get(item.objectName()))) {
+                remaining.add(item);
+            }
+        }
+    }
+}
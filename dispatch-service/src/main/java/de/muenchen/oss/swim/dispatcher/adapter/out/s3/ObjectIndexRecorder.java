@@ -0,0 +1,63 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.ObjectIndexOutPort;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects looked up files and writes them to the object index in batches.
+ * Excluded files are added to the index. If enabled, all other files are removed from it.
+ */
+class ObjectIndexRecorder {
+    private final ObjectIndexOutPort objectIndexOutPort;
+    private final String bucket;
+    private final Instant seenAt;
+    private final boolean removeNotExcluded;
+    private final int batchSize;
+    private final Map<String, String> excludedObjects = new HashMap<>();
+    private final List<String> notExcludedObjects = new ArrayList<>();
+
+    /* default */ ObjectIndexRecorder(final ObjectIndexOutPort objectIndexOutPort, final String bucket, final Instant seenAt,
+            final boolean removeNotExcluded, final int batchSize) {
+        this.objectIndexOutPort = objectIndexOutPort;
+        this.bucket = bucket;
+        this.seenAt = seenAt;
+        this.removeNotExcluded = removeNotExcluded;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Record a looked up file.
+     *
+     * @param file The file with its tags.
+     * @param excluded If the file has any of the exclude tags.
+     */
+    public void record(final FileWithMetadata file, final boolean excluded) {
+        if (excluded) {
+            excludedObjects.put(file.reference().path(), file.etag());
+        } else if (removeNotExcluded) {
+            notExcludedObjects.add(file.reference().path());
+        }
+        if (excludedObjects.size() + notExcludedObjects.size() >= batchSize) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Write all recorded files to the object index.
+     */
+    public void flush() {
+        if (!excludedObjects.isEmpty()) {
+            objectIndexOutPort.storeObjects(bucket, Map.copyOf(excludedObjects), seenAt);
+            excludedObjects.clear();
+        }
+        if (!notExcludedObjects.isEmpty()) {
+            objectIndexOutPort.removeObjects(bucket, List.copyOf(notExcludedObjects));
+            notExcludedObjects.clear();
+        }
+    }
+}
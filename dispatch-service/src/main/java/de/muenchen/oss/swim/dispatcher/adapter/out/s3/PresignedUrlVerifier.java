@@ -0,0 +1,158 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Verifies presigned GET urls created with the configured credentials without a request to S3.
+ * The AWS Signature Version 4 of the url is recomputed and compared and the expiry is checked.
+ * The region is taken from the credential scope of the url, as it is resolved by the S3 client when
+ * signing.
+ */
+class PresignedUrlVerifier {
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SERVICE = "s3";
+    private static final String TERMINATOR = "aws4_request";
+    private static final String PARAM_ALGORITHM = "X-Amz-Algorithm";
+    private static final String PARAM_CREDENTIAL = "X-Amz-Credential";
+    private static final String PARAM_DATE = "X-Amz-Date";
+    private static final String PARAM_EXPIRES = "X-Amz-Expires";
+    private static final String PARAM_SIGNED_HEADERS = "X-Amz-SignedHeaders";
+    private static final String PARAM_SIGNATURE = "X-Amz-Signature";
+    private static final DateTimeFormatter AMZ_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int HTTP_PORT = 80;
+    private static final int HTTPS_PORT = 443;
+
+    private final String accessKey;
+    private final byte[] secretKey;
+
+    /* default */ PresignedUrlVerifier(final String accessKey, final String secretKey) {
+        this.accessKey = accessKey;
+        this.secretKey = ("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Verify a presigned url.
+     *
+     * @param presignedUrl The url to verify.
+     * @param now The time to check the expiry against.
+     * @return If the url was signed with the configured credentials and isn't expired.
+     */
+    public boolean verify(final URI presignedUrl, final Instant now) {
+        if (presignedUrl.getRawQuery() == null || presignedUrl.getHost() == null) {
+            return false;
+        }
+        final Map<String, String> params = parseQuery(presignedUrl.getRawQuery());
+        final String signature = params.remove(PARAM_SIGNATURE);
+        final String credential = params.get(PARAM_CREDENTIAL);
+        final String amzDate = params.get(PARAM_DATE);
+        if (signature == null || credential == null || amzDate == null || !ALGORITHM.equals(params.get(PARAM_ALGORITHM))
+                || !"host".equals(params.get(PARAM_SIGNED_HEADERS))) {
+            return false;
+        }
+        // check credential scope: <access key>/<date>/<region>/s3/aws4_request
+        final String[] scope = credential.split("/");
+        if (scope.length != 5 || !accessKey.equals(scope[0]) || !amzDate.startsWith(scope[1]) || !SERVICE.equals(scope[3])
+                || !TERMINATOR.equals(scope[4])) {
+            return false;
+        }
+        // check expiry
+        try {
+            final Instant signedAt = LocalDateTime.parse(amzDate, AMZ_DATE_FORMAT).toInstant(ZoneOffset.UTC);
+            final long expires = Long.parseLong(params.getOrDefault(PARAM_EXPIRES, ""));
+            if (now.isBefore(signedAt) || !now.isBefore(signedAt.plusSeconds(expires))) {
+                return false;
+            }
+        } catch (final DateTimeException | NumberFormatException e) {
+            return false;
+        }
+        // recompute signature
+        final String canonicalRequest = String.join("\n",
+                "GET",
+                presignedUrl.getRawPath(),
+                canonicalQuery(params),
+                "host:" + host(presignedUrl),
+                "",
+                "host",
+                "UNSIGNED-PAYLOAD");
+        final String credentialScope = credential.substring(credential.indexOf('/') + 1);
+        final String stringToSign = String.join("\n", ALGORITHM, amzDate, credentialScope, sha256Hex(canonicalRequest));
+        byte[] signingKey = hmac(secretKey, scope[1]);
+        signingKey = hmac(signingKey, scope[2]);
+        signingKey = hmac(signingKey, SERVICE);
+        signingKey = hmac(signingKey, TERMINATOR);
+        final String expected = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> parseQuery(final String rawQuery) {
+        final Map<String, String> params = new TreeMap<>();
+        for (final String param : rawQuery.split("&")) {
+            final int separator = param.indexOf('=');
+            final String key = separator == -1 ? param : param.substring(0, separator);
+            final String value = separator == -1 ? "" : param.substring(separator + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String canonicalQuery(final Map<String, String> params) {
+        return params.entrySet().stream()
+                .map(i -> encode(i.getKey()) + "=" + encode(i.getValue()))
+                .collect(Collectors.joining("&"));
+    }
+
+    /**
+     * Encode a query component as required by SigV4 (RFC 3986, only unreserved chars unescaped).
+     */
+    private static String encode(final String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8)
+                .replace("+", "%20")
+                .replace("*", "%2A")
+                .replace("%7E", "~");
+    }
+
+    private static String host(final URI uri) {
+        final int port = uri.getPort();
+        final boolean defaultPort = port == -1
+                || "http".equalsIgnoreCase(uri.getScheme()) && port == HTTP_PORT
+                || "https".equalsIgnoreCase(uri.getScheme()) && port == HTTPS_PORT;
+        return defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+    }
+
+    private static String sha256Hex(final String value) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+    }
+
+    private static byte[] hmac(final byte[] key, final String value) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HMAC-SHA256 not supported", e);
+        }
+    }
+}
@@ -6,6 +6,14 @@ import org.mapstruct.Mapper;
 
 @Mapper
 interface ProtocolMapper {
+    /**
+     * Convert a raw entry extracted from the csv to the according domain model.
+     *
+     * @param csvProtocolEntry The csv entry.
+     * @return Same entry represented by domain model.
+     */
+    ProtocolEntry toDomain(CsvProtocolEntry csvProtocolEntry);
+
     /**
      * Convert a raw entry extracted from the csv to the according domain model.
      *
@@ -1,14 +1,19 @@
 package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
 
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileSystemOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.ObjectIndexOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.ReadProtocolOutPort;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
 import de.muenchen.oss.swim.dispatcher.domain.exception.FileNotFoundException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.FileSystemAccessException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.PresignedUrlException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.ProtocolException;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileOperationResult;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import de.muenchen.oss.swim.dispatcher.domain.model.ScanMode;
+import de.muenchen.oss.swim.dispatcher.domain.model.SpooledFile;
 import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolEntry;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.minio.CopyObjectArgs;
@@ -19,15 +24,21 @@ import io.minio.GetObjectTagsArgs;
 import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.ListObjectsArgs;
 import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
 import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
 import io.minio.Result;
 import io.minio.SetObjectTagsArgs;
 import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
 import io.minio.errors.ErrorResponseException;
 import io.minio.errors.MinioException;
 import io.minio.http.HttpUtils;
 import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import io.minio.messages.Item;
+import jakarta.annotation.PreDestroy;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -38,14 +49,30 @@ import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.IteratorUtils;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import tools.jackson.core.JacksonException;
@@ -62,16 +89,32 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
      * Response code from S3 storage when an object cannot be found.
      */
     private static final String ERROR_CODE_NO_SUCH_KEY = "NoSuchKey";
+    private static final String ERROR_CODE_PRECONDITION_FAILED = "PreconditionFailed";
     private static final char PROTOCOL_DELIMITER = '|';
     private static final int PROTOCOL_SKIP_ROWS = 1;
+    /**
+     * Factor of {@link S3Properties#getTagLoadingConcurrency()} how many tag requests are queued ahead
+     * while streaming files.
+     */
+    private static final int TAG_LOADING_WINDOW_FACTOR = 2;
+    /**
+     * Number of files which are looked up or written at once in the object index.
+     */
+    private static final int OBJECT_INDEX_BATCH_SIZE = 500;
 
     private final MinioClient minioClient;
     private final ProtocolMapper protocolMapper;
     private final S3Properties s3Properties;
     private final SwimDispatcherProperties swimDispatcherProperties;
+    private final DispatchMeter dispatchMeter;
+    private final ObjectIndexOutPort objectIndexOutPort;
+    private final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Semaphore> tagLoadingLimits = new ConcurrentHashMap<>();
+    private final TagCache tagCache;
+    private final PresignedUrlVerifier presignedUrlVerifier;
 
     /* default */ S3Adapter(final S3Properties s3Properties, final ProtocolMapper protocolMapper,
-            final SwimDispatcherProperties swimDispatcherProperties) {
+            final SwimDispatcherProperties swimDispatcherProperties, final DispatchMeter dispatchMeter, final ObjectIndexOutPort objectIndexOutPort) {
         this.protocolMapper = protocolMapper;
         this.s3Properties = s3Properties;
         this.minioClient = MinioClient.builder()
@@ -80,9 +123,21 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
                 .httpClient(HttpUtils.newDefaultHttpClient(
                         s3Properties.getConnectionTimeout().toMillis(),
                         s3Properties.getWriteTimeout().toMillis(),
-                        s3Properties.getReadTimeout().toMillis()))
+                        s3Properties.getReadTimeout().toMillis())
+                        .newBuilder()
+                        .addInterceptor(new S3MetricsInterceptor(dispatchMeter))
+                        .build())
                 .build();
         this.swimDispatcherProperties = swimDispatcherProperties;
+        this.dispatchMeter = dispatchMeter;
+        this.objectIndexOutPort = objectIndexOutPort;
+        this.tagCache = new TagCache(s3Properties.isTagCacheEnabled(), s3Properties.getTagCacheSize(), s3Properties.getTagCacheTtl(), dispatchMeter);
+        this.presignedUrlVerifier = new PresignedUrlVerifier(s3Properties.getAccessKey(), s3Properties.getSecretKey());
+    }
+
+    @PreDestroy
+    /* default */ void shutdown() {
+        requestExecutor.shutdownNow();
     }
 
     @Override
@@ -93,28 +148,100 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
             final String extension,
             final Map<String, String> requiredTags,
             final Map<String, List<String>> excludeTags) {
+        try (Stream<FileWithMetadata> files = this.streamMatchingFilesWithTags(bucket, pathPrefix, recursive, extension, requiredTags, excludeTags,
+                ScanMode.UNINDEXED)) {
+            return files.toList();
+        }
+    }
+
+    @Override
+    public Stream<FileWithMetadata> streamMatchingFilesWithTags(
+            final String bucket,
+            final String pathPrefix,
+            final boolean recursive,
+            final String extension,
+            final Map<String, String> requiredTags,
+            final Map<String, List<String>> excludeTags,
+            final ScanMode scanMode) {
+        final long scanStart = System.nanoTime();
         final String suffix = String.format(".%s", extension);
-        return getObjectsInPath(bucket, pathPrefix, recursive).stream()
+        final Semaphore bucketLimit = tagLoadingLimits.computeIfAbsent(bucket, k -> new Semaphore(s3Properties.getTagLoadingConcurrency()));
+        final Iterator<Item> listedItems = getObjectsInPath(bucket, pathPrefix, recursive)
                 // filter out dirs
                 .filter(i -> !i.isDir())
                 // filter extension
                 .filter(i -> i.objectName().toLowerCase(Locale.ROOT).endsWith(suffix))
-                // load tags of each reference and map
-                .map(i -> {
-                    Map<String, String> tags = null;
-                    try {
-                        tags = getTagsOfFile(new FileReference(bucket, i.objectName()));
-                    } catch (final FileNotFoundException ignored) {
-                        // could occur if reference was moved between getObjectsInPath and this tag load
-                        log.trace("FileReference not found while getting tags for reference list: {} in {}", i.objectName(), bucket);
+                .iterator();
+        // skip files known to be excluded
+        final Iterator<Item> items = scanMode == ScanMode.INCREMENTAL
+                ? new IndexFilteringIterator(listedItems, objectIndexOutPort, bucket, OBJECT_INDEX_BATCH_SIZE)
+                : listedItems;
+        // load tags of each reference concurrently, keep some more requests pending than allowed in parallel
+        final TagLoadingIterator files = new TagLoadingIterator(
+                items,
+                i -> requestExecutor.submit(() -> this.loadFileWithTags(bucket, i, bucketLimit)),
+                s3Properties.getTagLoadingConcurrency() * TAG_LOADING_WINDOW_FACTOR,
+                String.format("bucket %s in path %s", bucket, pathPrefix));
+        Stream<FileWithMetadata> fileStream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(files, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+        // update object index
+        final ObjectIndexRecorder objectIndexRecorder;
+        if (scanMode == ScanMode.UNINDEXED) {
+            objectIndexRecorder = null;
+        } else {
+            objectIndexRecorder = new ObjectIndexRecorder(objectIndexOutPort, bucket, Instant.now(), scanMode == ScanMode.FULL,
+                    OBJECT_INDEX_BATCH_SIZE);
+            fileStream = fileStream
+                    .filter(i -> i.tags() != null)
+                    .peek(i -> objectIndexRecorder.record(i, !matchesMap(i.tags(), Map.of(), excludeTags)));
+        }
+        return fileStream
+                // check if tags could be loaded and matching required and exclude
+                .filter(i -> i.tags() != null && matchesMap(i.tags(), requiredTags, excludeTags))
+                .onClose(() -> {
+                    files.cancel();
+                    if (objectIndexRecorder != null) {
+                        objectIndexRecorder.flush();
                     }
-                    return new FileWithMetadata(new FileReference(bucket, i.objectName()), i.size(), i.lastModified(), tags);
-                })
-                // filter tags
-                .filter(i -> {
-                    // check if tags could be loaded and matching required and exclude
-                    return i.tags() != null && matchesMap(i.tags(), requiredTags, excludeTags);
-                }).toList();
+                    dispatchMeter.recordScanDuration(bucket, Duration.ofNanos(System.nanoTime() - scanStart));
+                });
+    }
+
+    @Override
+    public Optional<FileWithMetadata> getMatchingFileWithTags(
+            final FileReference fileReference,
+            final Map<String, String> requiredTags,
+            final Map<String, List<String>> excludeTags) {
+        final StatObjectArgs statObjectArgs = StatObjectArgs.builder()
+                .bucket(fileReference.bucket())
+                .object(fileReference.path())
+                .build();
+        try {
+            final StatObjectResponse stat = minioClient.statObject(statObjectArgs);
+            final Map<String, String> tags = getTagsOfFile(fileReference);
+            tagCache.put(fileReference, stat.etag(), tags);
+            if (!matchesMap(tags, requiredTags, excludeTags)) {
+                return Optional.empty();
+            }
+            return Optional.of(new FileWithMetadata(fileReference, stat.size(), stat.lastModified(), tags, stat.etag()));
+        } catch (final ErrorResponseException e) {
+            // handle exception which indicates file doesn't exist
+            if (ERROR_CODE_NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                return Optional.empty();
+            } else {
+                final String message = String.format("ErrorResponseException while getting s3 file %s", fileReference);
+                log.error(message, e);
+                throw new FileSystemAccessException(message, e);
+            }
+        } catch (final FileNotFoundException e) {
+            // could occur if file was moved between stat and tag load
+            log.trace("FileReference not found while getting tags: {}", fileReference);
+            return Optional.empty();
+        } catch (final MinioException | InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException e) {
+            final String message = String.format("Error while getting s3 file %s", fileReference);
+            log.error(message, e);
+            throw new FileSystemAccessException(message, e);
+        }
     }
 
     @Override
@@ -122,22 +249,29 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
         // ensure prefix is handled as specific dir
         final String escapedPathPrefix = pathPrefix.endsWith("/") ? pathPrefix : pathPrefix + "/";
         // build s3 list request
-        return this.getObjectsInPath(bucket, escapedPathPrefix, false).stream()
+        return this.getObjectsInPath(bucket, escapedPathPrefix, false)
                 .filter(Item::isDir)
                 .map(Item::objectName).toList();
     }
 
+    @Override
+    public List<String> getFilePathsWithPrefix(final String bucket, final String pathPrefix) {
+        return this.listObjects(bucket, pathPrefix, false)
+                .filter(i -> !i.isDir())
+                .map(Item::objectName).toList();
+    }
+
     @Override
     public void tagFile(final FileReference fileReference, final Map<String, String> tags) {
+        this.tagFile(fileReference, null, tags);
+    }
+
+    @Override
+    public void tagFile(final FileReference fileReference, final String etag, final Map<String, String> tags) {
         try {
-            // get current tags
-            final Map<String, String> currentTags = getTagsOfFile(fileReference);
-            // clear errors
-            currentTags.remove(swimDispatcherProperties.getErrorClassTagKey());
-            currentTags.remove(swimDispatcherProperties.getErrorMessageTagKey());
-            // build new tags
-            final Map<String, String> newTags = new HashMap<>(currentTags);
-            newTags.putAll(tags);
+            // build new tags, current tags are taken from the cache if cached for the etag
+            final Map<String, String> cachedTags = tagCache.get(fileReference, etag);
+            final Map<String, String> newTags = this.mergeTags(cachedTags != null ? cachedTags : getTagsOfFile(fileReference), tags);
             // build request
             final SetObjectTagsArgs setObjectTagsArgs = SetObjectTagsArgs.builder()
                     .bucket(fileReference.bucket())
@@ -146,6 +280,11 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
                     .build();
             // set tags
             minioClient.setObjectTags(setObjectTagsArgs);
+            if (etag != null) {
+                tagCache.put(fileReference, etag, newTags);
+            } else {
+                tagCache.invalidate(fileReference);
+            }
         } catch (final MinioException | InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException | FileNotFoundException e) {
             final String message = String.format("Error while tagging s3 file %s", fileReference);
             log.error(message, e);
@@ -193,6 +332,17 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
         }
     }
 
+    @Override
+    public SpooledFile spoolFile(final FileReference fileReference) {
+        try {
+            return SpoolingBuffer.spool(fileReference, this.readFile(fileReference), s3Properties.getSpoolMemoryThreshold().toBytes());
+        } catch (final IOException e) {
+            final String message = String.format("Error while downloading file %s", fileReference);
+            log.error(message, e);
+            throw new FileSystemAccessException(message, e);
+        }
+    }
+
     @Override
     public String getPresignedUrl(final FileReference fileReference) {
         final GetPresignedObjectUrlArgs getPresignedObjectUrlArgs = GetPresignedObjectUrlArgs.builder()
@@ -211,11 +361,34 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
     }
 
     @Override
-    @SuppressFBWarnings("URLCONNECTION_SSRF_FD")
     public boolean verifyPresignedUrl(final String presignedUrl) throws PresignedUrlException {
+        final URI uri;
         try {
-            final URI uri = new URI(presignedUrl);
-            final HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+            uri = new URI(presignedUrl);
+        } catch (final URISyntaxException e) {
+            throw new PresignedUrlException("Presigned url verification failed", e);
+        }
+        final S3Properties.PresignedUrlVerification mode = s3Properties.getPresignedUrlVerification();
+        if (mode != S3Properties.PresignedUrlVerification.HTTP && presignedUrlVerifier.verify(uri, Instant.now())) {
+            return true;
+        }
+        if (mode == S3Properties.PresignedUrlVerification.LOCAL) {
+            return false;
+        }
+        return this.verifyPresignedUrlViaHttp(uri);
+    }
+
+    /**
+     * Verify a presigned url by requesting the first byte of the file.
+     *
+     * @param presignedUrl The url to verify.
+     * @return If the request was successful.
+     * @throws PresignedUrlException If the request failed.
+     */
+    @SuppressFBWarnings("URLCONNECTION_SSRF_FD")
+    private boolean verifyPresignedUrlViaHttp(final URI presignedUrl) throws PresignedUrlException {
+        try {
+            final HttpURLConnection connection = (HttpURLConnection) presignedUrl.toURL().openConnection();
             connection.setRequestMethod("GET");
 
             // Request only the first byte to only get headers
@@ -223,7 +396,7 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
 
             final HttpStatusCode responseCode = HttpStatusCode.valueOf(connection.getResponseCode());
             return responseCode.is2xxSuccessful();
-        } catch (final IOException | URISyntaxException e) {
+        } catch (final IOException | IllegalArgumentException e) {
             throw new PresignedUrlException("Presigned url verification failed", e);
         }
     }
@@ -236,6 +409,89 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
         this.deleteFile(srcFileReference);
     }
 
+    @Override
+    public FileOperationResult moveFiles(final Map<FileReference, String> files, final Map<String, String> tags) {
+        // copy files in parallel
+        final Semaphore limit = new Semaphore(s3Properties.getBatchOperationConcurrency());
+        final Map<FileReference, Future<Boolean>> copies = new LinkedHashMap<>();
+        for (final Map.Entry<FileReference, String> file : files.entrySet()) {
+            final FileReference srcFileReference = file.getKey();
+            final FileReference destFileReference = new FileReference(srcFileReference.bucket(), file.getValue());
+            copies.put(srcFileReference, requestExecutor.submit(() -> {
+                limit.acquire();
+                try {
+                    return this.copyFileWithTags(srcFileReference, destFileReference, tags);
+                } finally {
+                    limit.release();
+                }
+            }));
+        }
+        // collect results
+        final Set<FileReference> copiedFiles = new LinkedHashSet<>();
+        final Set<FileReference> missingFiles = new LinkedHashSet<>();
+        final Map<FileReference, Throwable> failedFiles = new LinkedHashMap<>();
+        for (final Map.Entry<FileReference, Future<Boolean>> copy : copies.entrySet()) {
+            try {
+                if (copy.getValue().get()) {
+                    copiedFiles.add(copy.getKey());
+                } else {
+                    missingFiles.add(copy.getKey());
+                }
+            } catch (final ExecutionException e) {
+                failedFiles.put(copy.getKey(), e.getCause());
+            } catch (final InterruptedException e) {
+                copies.values().forEach(i -> i.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new FileSystemAccessException("Interrupted while moving s3 objects", e);
+            }
+        }
+        // delete src files
+        final FileOperationResult deleteResult = this.deleteFiles(copiedFiles);
+        failedFiles.putAll(deleteResult.failed());
+        return new FileOperationResult(deleteResult.succeeded(), missingFiles, failedFiles);
+    }
+
+    @Override
+    public FileOperationResult deleteFiles(final Collection<FileReference> fileReferences) {
+        final Set<FileReference> deletedFiles = new LinkedHashSet<>();
+        final Map<FileReference, Throwable> failedFiles = new LinkedHashMap<>();
+        final Map<String, List<FileReference>> filesByBucket = fileReferences.stream().collect(Collectors.groupingBy(FileReference::bucket));
+        for (final Map.Entry<String, List<FileReference>> bucketFiles : filesByBucket.entrySet()) {
+            final String bucket = bucketFiles.getKey();
+            // the client splits the objects into requests of max 1000 keys
+            final RemoveObjectsArgs removeObjectsArgs = RemoveObjectsArgs.builder()
+                    .bucket(bucket)
+                    .objects(bucketFiles.getValue().stream().map(i -> new DeleteObject(i.path())).toList())
+                    .build();
+            final Map<FileReference, Throwable> bucketFailedFiles = new HashMap<>();
+            try {
+                // results are lazy and need to be consumed for executing the requests
+                for (final Result<DeleteError> result : this.minioClient.removeObjects(removeObjectsArgs)) {
+                    final DeleteError error = result.get();
+                    final FileReference fileReference = new FileReference(bucket, error.objectName());
+                    final String message = String.format("Error while deleting s3 object %s: %s", fileReference, error.message());
+                    log.error(message);
+                    bucketFailedFiles.put(fileReference, new FileSystemAccessException(message));
+                }
+            } catch (final MinioException | InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException e) {
+                final String message = String.format("Error while deleting s3 objects in bucket %s", bucket);
+                log.error(message, e);
+                final FileSystemAccessException exception = new FileSystemAccessException(message, e);
+                bucketFiles.getValue().forEach(i -> bucketFailedFiles.putIfAbsent(i, exception));
+            }
+            for (final FileReference fileReference : bucketFiles.getValue()) {
+                if (bucketFailedFiles.containsKey(fileReference)) {
+                    failedFiles.put(fileReference, bucketFailedFiles.get(fileReference));
+                } else {
+                    tagCache.invalidate(fileReference);
+                    deletedFiles.add(fileReference);
+                }
+            }
+            log.info("Deleted {} files in bucket {}", bucketFiles.getValue().size() - bucketFailedFiles.size(), bucket);
+        }
+        return new FileOperationResult(deletedFiles, Set.of(), failedFiles);
+    }
+
     @Override
     public void copyFile(final FileReference srcFileReference, final FileReference destFileReference, final boolean clearTags) {
         try {
@@ -253,7 +509,13 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
                 copyObjectArgs.extraHeaders(Map.of(
                         "x-amz-tagging", ""));
             }
-            this.minioClient.copyObject(copyObjectArgs.build());
+            final ObjectWriteResponse response = this.minioClient.copyObject(copyObjectArgs.build());
+            // tags are copied or cleared
+            if (clearTags) {
+                tagCache.put(destFileReference, response.etag(), Map.of());
+            } else {
+                tagCache.invalidate(destFileReference);
+            }
             log.info("Copied file {} to {}", srcFileReference, destFileReference);
         } catch (final MinioException | InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException e) {
             final String message = String.format("Error while copying s3 object %s to %s",
@@ -273,6 +535,7 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
             final RemoveObjectArgs removeObjectArgs = RemoveObjectArgs.builder()
                     .bucket(fileReference.bucket()).object(fileReference.path()).build();
             this.minioClient.removeObject(removeObjectArgs);
+            tagCache.invalidate(fileReference);
             log.info("Deleted file {}", fileReference);
         } catch (final MinioException | InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException e) {
             final String message = String.format("Error while deleting s3 object %s", fileReference);
@@ -281,35 +544,112 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
         }
     }
 
+    /**
+     * Copy a file in the same bucket and add tags within the copy request.
+     *
+     * @param srcFileReference The reference of the source file.
+     * @param destFileReference The reference of the destination.
+     * @param tags The tags to add, existing tags are copied without changes if empty.
+     * @return If the file was copied, false if it doesn't exist.
+     */
+    protected boolean copyFileWithTags(final FileReference srcFileReference, final FileReference destFileReference, final Map<String, String> tags) {
+        try {
+            final CopySource.Builder copySource = CopySource.builder()
+                    .bucket(srcFileReference.bucket())
+                    .object(srcFileReference.path());
+            final CopyObjectArgs.Builder copyObjectArgs = CopyObjectArgs.builder()
+                    .bucket(destFileReference.bucket())
+                    .object(destFileReference.path());
+            final Map<String, String> newTags;
+            if (tags.isEmpty()) {
+                // existing tags are copied by s3
+                newTags = null;
+            } else {
+                // get current tags, from cache if available
+                final String cachedEtag = tagCache.getEtag(srcFileReference);
+                final Map<String, String> cachedTags = tagCache.get(srcFileReference, cachedEtag);
+                if (cachedTags != null) {
+                    // only copy if file wasn't replaced since its tags were cached
+                    copySource.matchETag(cachedEtag);
+                }
+                // set new tags within copy
+                newTags = this.mergeTags(cachedTags != null ? cachedTags : getTagsOfFile(srcFileReference), tags);
+                copyObjectArgs.taggingDirective(Directive.REPLACE).tags(newTags);
+            }
+            final ObjectWriteResponse response = this.minioClient.copyObject(copyObjectArgs.source(copySource.build()).build());
+            if (newTags != null) {
+                tagCache.put(destFileReference, response.etag(), newTags);
+            } else {
+                tagCache.invalidate(destFileReference);
+            }
+            log.info("Copied file {} to {}", srcFileReference, destFileReference);
+            return true;
+        } catch (final FileNotFoundException e) {
+            log.debug("Skipped copying file {} as it can't be found", srcFileReference);
+            return false;
+        } catch (final ErrorResponseException e) {
+            // handle exception which indicates file doesn't exist
+            if (ERROR_CODE_NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                log.debug("Skipped copying file {} as it can't be found", srcFileReference);
+                return false;
+            }
+            // retry with current tags if file was replaced since its tags were cached
+            if (ERROR_CODE_PRECONDITION_FAILED.equals(e.errorResponse().code())) {
+                log.debug("Cached tags of file {} are outdated, retrying copy", srcFileReference);
+                tagCache.invalidate(srcFileReference);
+                return this.copyFileWithTags(srcFileReference, destFileReference, tags);
+            }
+            final String message = String.format("ErrorResponseException while copying s3 object %s to %s", srcFileReference, destFileReference);
+            log.error(message, e);
+            throw new FileSystemAccessException(message, e);
+        } catch (final MinioException | InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException e) {
+            final String message = String.format("Error while copying s3 object %s to %s", srcFileReference, destFileReference);
+            log.error(message, e);
+            throw new FileSystemAccessException(message, e);
+        }
+    }
+
     /**
      * Get objects (dirs/files) in a specific bucket and path.
+     * The objects are listed lazily page by page while the returned stream is consumed.
      *
      * @param bucket Bucket to look in.
      * @param pathPrefix Path prefix to look in.
      * @param recursive If searching recursive or only direct in the path.
      * @return Objects in the path.
      */
-    protected List<Item> getObjectsInPath(final String bucket, final String pathPrefix, final boolean recursive) {
+    protected Stream<Item> getObjectsInPath(final String bucket, final String pathPrefix, final boolean recursive) {
         // ensure prefix is handled as specific dir
         final String escapedPathPrefix = pathPrefix.endsWith("/") ? pathPrefix : pathPrefix + "/";
+        return this.listObjects(bucket, escapedPathPrefix, recursive);
+    }
+
+    /**
+     * Get objects (dirs/files) in a specific bucket whose path starts with a prefix.
+     * The objects are listed lazily page by page while the returned stream is consumed.
+     *
+     * @param bucket Bucket to look in.
+     * @param pathPrefix Path prefix of the objects.
+     * @param recursive If searching recursive or only up to the next "/" after the prefix.
+     * @return Objects with the prefix.
+     */
+    protected Stream<Item> listObjects(final String bucket, final String pathPrefix, final boolean recursive) {
         // build s3 list request
         final ListObjectsArgs listObjectsArgs = ListObjectsArgs.builder()
                 .bucket(bucket)
-                .prefix(escapedPathPrefix)
+                .prefix(pathPrefix)
                 .recursive(recursive).build();
         // list objects
-        final List<Result<Item>> listResult = IteratorUtils.toList(minioClient.listObjects(listObjectsArgs).iterator());
-        try {
-            final List<Item> objects = new ArrayList<>();
-            for (final Result<Item> resultItem : listResult) {
-                objects.add(resultItem.get());
-            }
-            return objects;
-        } catch (final MinioException | InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException e) {
-            final String message = String.format("Error while listing s3 objects for bucket %s in path %s", bucket, pathPrefix);
-            log.error(message, e);
-            throw new FileSystemAccessException(message, e);
-        }
+        return StreamSupport.stream(minioClient.listObjects(listObjectsArgs).spliterator(), false)
+                .map(resultItem -> {
+                    try {
+                        return resultItem.get();
+                    } catch (final MinioException | InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException e) {
+                        final String message = String.format("Error while listing s3 objects for bucket %s in path %s", bucket, pathPrefix);
+                        log.error(message, e);
+                        throw new FileSystemAccessException(message, e);
+                    }
+                });
     }
 
     /**
@@ -349,6 +689,51 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
         }
     }
 
+    /**
+     * Build new tags of a file by adding tags to its current ones and removing error tags.
+     *
+     * @param currentTags The current tags of the file.
+     * @param tags The tags to add.
+     * @return The new tags of the file.
+     */
+    protected Map<String, String> mergeTags(final Map<String, String> currentTags, final Map<String, String> tags) {
+        final Map<String, String> newTags = new HashMap<>(currentTags);
+        // clear errors
+        newTags.remove(swimDispatcherProperties.getErrorClassTagKey());
+        newTags.remove(swimDispatcherProperties.getErrorMessageTagKey());
+        newTags.putAll(tags);
+        return newTags;
+    }
+
+    /**
+     * Load tags of a listed object.
+     * The number of concurrent requests per bucket is limited via
+     * {@link S3Properties#getTagLoadingConcurrency()}.
+     *
+     * @param bucket The bucket of the object.
+     * @param item The listed object.
+     * @param bucketLimit The limit of concurrent requests for the bucket.
+     * @return The file with its tags, tags are null if the object can't be found anymore.
+     * @throws InterruptedException If interrupted while waiting for a free slot.
+     */
+    protected FileWithMetadata loadFileWithTags(final String bucket, final Item item, final Semaphore bucketLimit) throws InterruptedException {
+        final FileReference fileReference = new FileReference(bucket, item.objectName());
+        Map<String, String> tags = null;
+        bucketLimit.acquire();
+        dispatchMeter.incrementTagLoadingInFlight(bucket);
+        try {
+            tags = getTagsOfFile(fileReference);
+            tagCache.put(fileReference, item.etag(), tags);
+        } catch (final FileNotFoundException ignored) {
+            // could occur if reference was moved between getObjectsInPath and this tag load
+            log.trace("FileReference not found while getting tags for reference list: {} in {}", item.objectName(), bucket);
+        } finally {
+            dispatchMeter.decrementTagLoadingInFlight(bucket);
+            bucketLimit.release();
+        }
+        return new FileWithMetadata(fileReference, item.size(), item.lastModified(), tags, item.etag());
+    }
+
     /**
      * Check if a map contains all entries from another one and none from another one.
      *
@@ -380,31 +765,78 @@ public class S3Adapter implements FileSystemOutPort, ReadProtocolOutPort {
     }
 
     @Override
-    public List<ProtocolEntry> loadProtocol(final FileReference fileReference) {
+    public Stream<ProtocolEntry> streamProtocol(final SpooledFile protocolFile) {
+        try {
+            return this.streamProtocol(protocolFile.reference(), protocolFile.openStream());
+        } catch (final IOException e) {
+            throw new ProtocolException(String.format("Error while reading protocol file %s", protocolFile.reference()), e);
+        }
+    }
+
+    /**
+     * Parse a protocol lazily.
+     *
+     * @param fileReference The reference of the protocol file.
+     * @param inputStream The content of the protocol file, closed together with the returned stream.
+     * @return Stream of the parsed protocol entries.
+     */
+    @SuppressWarnings("PMD.CloseResource")
+    private Stream<ProtocolEntry> streamProtocol(final FileReference fileReference, final InputStream inputStream) {
         // build csv schema
         final CsvMapper csvMapper = new CsvMapper();
         final CsvSchema schema = csvMapper.typedSchemaFor(CsvProtocolEntry.class)
                 .withHeader()
                 .withColumnSeparator(PROTOCOL_DELIMITER)
                 .withColumnReordering(true);
-        // parse csv
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(this.readFile(fileReference), StandardCharsets.UTF_8))) {
+        final String errorMessage = String.format("Error while parsing protocol from file %s", fileReference);
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        try {
             // skip n rows
             for (int i = 0; i < PROTOCOL_SKIP_ROWS; i++) {
                 reader.readLine();
             }
-            // parse csv
-            try (MappingIterator<CsvProtocolEntry> iterator = csvMapper
+            // parse csv lazily
+            final MappingIterator<CsvProtocolEntry> csvEntries = csvMapper
                     .readerFor(CsvProtocolEntry.class)
                     .with(schema)
                     .with(CsvReadFeature.SKIP_EMPTY_LINES)
                     .without(CsvReadFeature.FAIL_ON_MISSING_HEADER_COLUMNS)
-                    .readValues(reader)) {
-                return protocolMapper.toDomain(iterator.readAll());
+                    .readValues(reader);
+            final Iterator<ProtocolEntry> entries = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    try {
+                        return csvEntries.hasNext();
+                    } catch (final JacksonException e) {
+                        throw new ProtocolException(errorMessage, e);
+                    }
+                }
+
+                @Override
+                public ProtocolEntry next() {
+                    try {
+                        return protocolMapper.toDomain(csvEntries.next());
+                    } catch (final JacksonException e) {
+                        throw new ProtocolException(errorMessage, e);
+                    }
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(entries, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> {
+                        try {
+                            csvEntries.close();
+                            reader.close();
+                        } catch (final IOException e) {
+                            log.warn("Error while closing protocol file {}", fileReference, e);
+                        }
+                    });
+        } catch (final JacksonException | IOException e) {
+            try {
+                reader.close();
+            } catch (final IOException closeException) {
+                e.addSuppressed(closeException);
             }
-        } catch (JacksonException | IOException e) {
-            final String message = String.format("Error while parsing protocol from file %s", fileReference);
-            throw new ProtocolException(message, e);
+            throw new ProtocolException(errorMessage, e);
         }
     }
 }
@@ -0,0 +1,75 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import java.io.IOException;
+import java.time.Duration;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Records the latency of all requests of the S3 client by operation type.
+ * The duration is measured until the response headers are received, reading the body of a
+ * download isn't included.
+ */
+class S3MetricsInterceptor implements Interceptor {
+    private static final String STATUS_IO_ERROR = "io-error";
+    private static final int STATUS_CLASS_DIVISOR = 100;
+
+    private final DispatchMeter dispatchMeter;
+
+    /* default */ S3MetricsInterceptor(final DispatchMeter dispatchMeter) {
+        this.dispatchMeter = dispatchMeter;
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        final Request request = chain.request();
+        final String operation = resolveOperation(request);
+        final long start = System.nanoTime();
+        String status = STATUS_IO_ERROR;
+        try {
+            final Response response = chain.proceed(request);
+            status = response.code() / STATUS_CLASS_DIVISOR + "xx";
+            return response;
+        } finally {
+            dispatchMeter.recordS3Operation(operation, status, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Resolve the S3 operation from the method, query parameters and headers of a request.
+     *
+     * @param request The request to the S3 api.
+     * @return The name of the operation.
+     */
+    /* default */ static String resolveOperation(final Request request) {
+        final HttpUrl url = request.url();
+        final boolean tagging = url.queryParameterNames().contains("tagging");
+        return switch (request.method()) {
+        case "HEAD" -> "stat";
+        case "GET" -> {
+            if (tagging) {
+                yield "get-tags";
+            } else if (url.queryParameterNames().contains("list-type") || url.queryParameterNames().contains("delimiter")) {
+                yield "list";
+            } else if (url.queryParameterNames().contains("location")) {
+                yield "get-location";
+            }
+            yield "get";
+        }
+        case "PUT" -> {
+            if (tagging) {
+                yield "set-tags";
+            } else if (request.header("x-amz-copy-source") != null) {
+                yield "copy";
+            }
+            yield "put";
+        }
+        case "DELETE" -> "remove";
+        case "POST" -> url.queryParameterNames().contains("delete") ? "remove-batch" : "post";
+        default -> "other";
+        };
+    }
+}
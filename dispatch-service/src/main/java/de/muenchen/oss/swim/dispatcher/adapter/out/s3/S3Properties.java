@@ -1,5 +1,6 @@
 package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
@@ -9,6 +10,7 @@ import org.hibernate.validator.constraints.time.DurationMax;
 import org.hibernate.validator.constraints.time.DurationMin;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.convert.DurationUnit;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 @Data
@@ -31,6 +33,19 @@ class S3Properties {
     @DurationMin(hours = 1)
     @DurationMax(days = 7)
     private Duration presignedUrlExpiry = Duration.ofDays(7);
+    /**
+     * How presigned urls of finished events are verified.
+     * Default: local
+     */
+    @NotNull
+    private PresignedUrlVerification presignedUrlVerification = PresignedUrlVerification.LOCAL;
+    /**
+     * Max size of files kept in memory when a file is downloaded to be read multiple times (e.g.
+     * protocols). Larger files are buffered in a temp file.
+     * Default: 8MB
+     */
+    @NotNull
+    private DataSize spoolMemoryThreshold = DataSize.ofMegabytes(8);
     /**
      * Timeout for connecting to S3.
      * Default: 30s
@@ -52,4 +67,56 @@ class S3Properties {
     @NotNull
     @DurationMin(seconds = 1)
     private Duration writeTimeout = Duration.ofSeconds(60);
+    /**
+     * Max number of concurrent requests for loading tags per bucket while looking up files.
+     * Default: 16
+     */
+    @Min(1)
+    private int tagLoadingConcurrency = 16;
+    /**
+     * Max number of concurrent requests per operation on multiple files (e.g. copies while moving).
+     * Default: 8
+     */
+    @Min(1)
+    private int batchOperationConcurrency = 8;
+    /**
+     * If tags loaded while looking up files are cached and reused when tagging the files.
+     * Tag changes by other systems within {@link #tagCacheTtl} aren't detected and are overwritten,
+     * as the ETag only changes if the content of a file is replaced.
+     * Default: false
+     */
+    private boolean tagCacheEnabled = false;
+    /**
+     * Max number of files whose tags are cached.
+     * Default: 10000
+     */
+    @Min(1)
+    private int tagCacheSize = 10_000;
+    /**
+     * Time after which cached tags are loaded again before tagging a file.
+     * Default: 5m
+     */
+    @NotNull
+    @DurationMin(seconds = 1)
+    private Duration tagCacheTtl = Duration.ofMinutes(5);
+
+    /**
+     * Modes for verifying presigned urls.
+     */
+    enum PresignedUrlVerification {
+        /**
+         * Recompute the signature with the configured credentials and check the expiry, without a
+         * request to S3.
+         */
+        LOCAL,
+        /**
+         * Verify locally and fall back to a request to S3 if the local check fails, e.g. for urls
+         * signed with previous credentials.
+         */
+        LOCAL_WITH_HTTP_FALLBACK,
+        /**
+         * Request the first byte of the file via the url.
+         */
+        HTTP
+    }
 }
@@ -0,0 +1,99 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import de.muenchen.oss.swim.dispatcher.domain.model.SpooledFile;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link SpooledFile} which keeps the content in memory up to a threshold and writes larger content
+ * to a temp file, which is deleted on close.
+ */
+@Slf4j
+final class SpoolingBuffer implements SpooledFile {
+    private static final int BUFFER_SIZE = 8192;
+    private static final String TEMP_FILE_PREFIX = "swim-spool-";
+
+    private final FileReference reference;
+    private final byte[] content;
+    private final Path tempFile;
+    private final long size;
+
+    private SpoolingBuffer(final FileReference reference, final byte[] content, final Path tempFile, final long size) {
+        this.reference = reference;
+        this.content = content;
+        this.tempFile = tempFile;
+        this.size = size;
+    }
+
+    /**
+     * Read a stream completely into a buffer.
+     * The stream is closed afterward.
+     *
+     * @param reference The reference of the file the stream belongs to.
+     * @param inputStream The content to spool.
+     * @param memoryThreshold Max number of bytes kept in memory.
+     * @return The spooled content.
+     * @throws IOException If the stream can't be read or the temp file can't be written.
+     */
+    /* default */ static SpoolingBuffer spool(final FileReference reference, final InputStream inputStream, final long memoryThreshold) throws IOException {
+        try (inputStream) {
+            final ByteArrayOutputStream memory = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                if (memory.size() + read > memoryThreshold) {
+                    return spoolToFile(reference, memory, buffer, read, inputStream);
+                }
+                memory.write(buffer, 0, read);
+            }
+            return new SpoolingBuffer(reference, memory.toByteArray(), null, memory.size());
+        }
+    }
+
+    private static SpoolingBuffer spoolToFile(final FileReference reference, final ByteArrayOutputStream memory, final byte[] buffer, final int read,
+            final InputStream inputStream) throws IOException {
+        final Path tempFile = Files.createTempFile(TEMP_FILE_PREFIX, null);
+        try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+            memory.writeTo(outputStream);
+            outputStream.write(buffer, 0, read);
+            final long size = memory.size() + read + inputStream.transferTo(outputStream);
+            return new SpoolingBuffer(reference, null, tempFile, size);
+        } catch (final IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public FileReference reference() {
+        return reference;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        return tempFile != null ? Files.newInputStream(tempFile) : new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void close() {
+        if (tempFile != null) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (final IOException e) {
+                log.warn("Error while deleting spool file {} of {}", tempFile, reference, e);
+            }
+        }
+    }
+}
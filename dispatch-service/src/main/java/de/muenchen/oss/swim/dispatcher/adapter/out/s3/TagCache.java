@@ -0,0 +1,110 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded write-through cache of object tags.
+ * Entries are filled while looking up files and updated when tags are written, so tagging a file
+ * which was looked up shortly before doesn't require loading its tags again.
+ * Entries are only used for the ETag they were cached with, so files replaced by other systems
+ * aren't tagged with the tags of the previous file.
+ * Tag changes by other systems don't change the ETag and can't be detected, so they are overwritten
+ * until the entry expires after the configured ttl. Because of that the cache is disabled by default.
+ * The least recently used entries are evicted if the cache is full.
+ */
+class TagCache {
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final DispatchMeter dispatchMeter;
+    private final Map<FileReference, Entry> entries;
+
+    /* default */ TagCache(final boolean enabled, final int maxSize, final Duration ttl, final DispatchMeter dispatchMeter) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.dispatchMeter = dispatchMeter;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<FileReference, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the cached tags of a file.
+     * Entries cached for another ETag are handled as miss, as the file was replaced in the meantime.
+     *
+     * @param fileReference The file to get the tags for.
+     * @param etag The current ETag of the file, always a miss if null.
+     * @return Copy of the cached tags, null if cache is disabled or no fresh entry for the ETag exists.
+     */
+    public Map<String, String> get(final FileReference fileReference, final String etag) {
+        if (!enabled) {
+            return null;
+        }
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.get(fileReference);
+        }
+        final boolean hit = entry != null && etag != null && etag.equals(entry.etag()) && System.nanoTime() - entry.cachedAt() < ttlNanos;
+        dispatchMeter.incrementTagCacheRequest(fileReference.bucket(), hit);
+        return hit ? new HashMap<>(entry.tags()) : null;
+    }
+
+    /**
+     * Get the ETag of a file as known while its tags were cached.
+     * Used for conditional requests which verify the cached tags are still valid.
+     *
+     * @param fileReference The file to get the ETag for.
+     * @return The ETag, null if cache is disabled, the file isn't cached or the ETag is unknown.
+     */
+    public String getEtag(final FileReference fileReference) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            final Entry entry = entries.get(fileReference);
+            return entry != null ? entry.etag() : null;
+        }
+    }
+
+    /**
+     * Cache the current tags of a file.
+     * An existing entry is replaced.
+     *
+     * @param fileReference The file the tags belong to.
+     * @param etag The ETag of the file, can be null if unknown.
+     * @param tags The current tags of the file.
+     */
+    public void put(final FileReference fileReference, final String etag, final Map<String, String> tags) {
+        if (!enabled) {
+            return;
+        }
+        final Entry entry = new Entry(etag, Map.copyOf(tags), System.nanoTime());
+        synchronized (entries) {
+            entries.put(fileReference, entry);
+        }
+    }
+
+    /**
+     * Remove a file from the cache, e.g. after it was deleted.
+     *
+     * @param fileReference The file to remove.
+     */
+    public void invalidate(final FileReference fileReference) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(fileReference);
+        }
+    }
+
+    private record Entry(String etag, Map<String, String> tags, long cachedAt) {
+    }
+}
@@ -0,0 +1,81 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import de.muenchen.oss.swim.dispatcher.domain.exception.FileSystemAccessException;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import io.minio.messages.Item;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Iterator which loads the tags of listed objects ahead of consumption.
+ * At most {@code window} tag requests are pending at a time, so only a bounded part of the listing
+ * is held in memory. The order of the listed objects is kept.
+ */
+class TagLoadingIterator implements Iterator<FileWithMetadata> {
+    private final Iterator<Item> items;
+    private final Function<Item, Future<FileWithMetadata>> tagLoader;
+    private final int window;
+    private final String description;
+    private final Deque<Future<FileWithMetadata>> pending = new ArrayDeque<>();
+
+    /* default */ TagLoadingIterator(final Iterator<Item> items, final Function<Item, Future<FileWithMetadata>> tagLoader, final int window,
+            final String description) {
+        this.items = items;
+        this.tagLoader = tagLoader;
+        this.window = window;
+        this.description = description;
+    }
+
+    @Override
+    public boolean hasNext() {
+        this.fillWindow();
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public FileWithMetadata next() {
+        this.fillWindow();
+        final Future<FileWithMetadata> next = pending.poll();
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        return this.await(next);
+    }
+
+    /**
+     * Cancel all pending tag requests.
+     */
+    public void cancel() {
+        pending.forEach(i -> i.cancel(true));
+        pending.clear();
+    }
+
+    private void fillWindow() {
+        while (pending.size() < window && items.hasNext()) {
+            pending.add(tagLoader.apply(items.next()));
+        }
+    }
+
+    private FileWithMetadata await(final Future<FileWithMetadata> pendingFile) {
+        try {
+            return pendingFile.get();
+        } catch (final ExecutionException e) {
+            this.cancel();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            final String message = String.format("Error while loading tags for %s", description);
+            throw new FileSystemAccessException(message, e.getCause());
+        } catch (final InterruptedException e) {
+            this.cancel();
+            Thread.currentThread().interrupt();
+            final String message = String.format("Interrupted while loading tags for %s", description);
+            throw new FileSystemAccessException(message, e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.streaming;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.ConsumerLagOutPort;
+import de.muenchen.oss.swim.dispatcher.domain.exception.StreamingException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.kafka.autoconfigure.KafkaConnectionDetails;
+import org.springframework.boot.kafka.autoconfigure.KafkaProperties;
+import org.springframework.cloud.stream.binder.kafka.properties.KafkaBinderConfigurationProperties;
+import org.springframework.cloud.stream.binder.kafka.provisioning.KafkaTopicProvisioner;
+import org.springframework.cloud.stream.config.BindingServiceProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads the consumer lag via the Kafka {@link Admin} client.
+ * The client is configured like the Kafka binder (e.g. brokers and security) and only created on
+ * first use, so it isn't opened if dispatch throttling is disabled.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConsumerLagAdapter implements ConsumerLagOutPort {
+    private static final String BINDER_PROPERTIES_PREFIX = "spring.cloud.stream.kafka.binder";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final BindingServiceProperties bindingServiceProperties;
+    private final KafkaProperties kafkaProperties;
+    private final ObjectProvider<KafkaConnectionDetails> kafkaConnectionDetails;
+    private final Environment environment;
+    private Admin admin;
+
+    @PreDestroy
+    /* default */ synchronized void shutdown() {
+        if (admin != null) {
+            admin.close(TIMEOUT);
+        }
+    }
+
+    @Override
+    public long getConsumerLag(final String bindingName, final String consumerGroup) {
+        final String topic = bindingServiceProperties.getBindingDestination(bindingName);
+        try {
+            final Admin client = this.getAdmin();
+            final List<TopicPartition> partitions = client.describeTopics(List.of(topic)).allTopicNames()
+                    .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                    .get(topic).partitions().stream()
+                    .map(i -> new TopicPartition(topic, i.partition()))
+                    .toList();
+            final Map<TopicPartition, OffsetAndMetadata> committed = client.listConsumerGroupOffsets(consumerGroup).partitionsToOffsetAndMetadata()
+                    .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            final Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> latest = client.listOffsets(partitions.stream()
+                    .collect(Collectors.toMap(Function.identity(), i -> OffsetSpec.latest())))
+                    .all().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            long lag = 0;
+            for (final TopicPartition partition : partitions) {
+                final OffsetAndMetadata offset = committed.get(partition);
+                // partitions without committed offset are consumed from the latest offset
+                if (offset != null && latest.containsKey(partition)) {
+                    lag += Math.max(0, latest.get(partition).offset() - offset.offset());
+                }
+            }
+            return lag;
+        } catch (final ExecutionException | TimeoutException e) {
+            throw new StreamingException(String.format("Loading consumer lag of group %s for topic %s failed", consumerGroup, topic), e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StreamingException("Interrupted while loading consumer lag", e);
+        }
+    }
+
+    private synchronized Admin getAdmin() {
+        if (admin == null) {
+            final KafkaBinderConfigurationProperties binderProperties = new KafkaBinderConfigurationProperties(kafkaProperties, kafkaConnectionDetails);
+            Binder.get(environment).bind(BINDER_PROPERTIES_PREFIX, Bindable.ofInstance(binderProperties));
+            admin = Admin.create(new KafkaTopicProvisioner(binderProperties, kafkaProperties, List.of()).getAdminClientProperties());
+        }
+        return admin;
+    }
+}
@@ -3,34 +3,76 @@ package de.muenchen.oss.swim.dispatcher.adapter.out.streaming;
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileDispatchingOutPort;
 import de.muenchen.oss.swim.dispatcher.domain.exception.StreamingException;
 import de.muenchen.oss.swim.dispatcher.domain.model.PresignedFile;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.DispatchHeaders;
 import de.muenchen.oss.swim.dispatcher.domain.model.streaming.FileEvent;
 import de.muenchen.oss.swim.dispatcher.domain.model.streaming.MultiFileEvent;
 import de.muenchen.oss.swim.dispatcher.domain.model.streaming.SingleFileEvent;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
+/**
+ * Sends file events via {@link StreamBridge}.
+ * The producer is configured synchronous, so a send only returns after the broker acknowledged it.
+ * Sends are run on virtual threads to not block the caller while waiting for the acknowledgement.
+ * Each event is stamped with the {@link DispatchHeaders}, which are used for measuring the latency
+ * until the file is finished.
+ * If a message key is given, it is set as Kafka record key, so events with the same key are written
+ * to the same partition.
+ */
 @Service
 @RequiredArgsConstructor
 public class StreamingOutAdapter implements FileDispatchingOutPort {
     private final StreamBridge streamBridge;
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    /* default */ void shutdown() {
+        sendExecutor.shutdown();
+    }
 
     @Override
-    public void dispatchFile(final String bindingName, final String useCase, final PresignedFile presignedFile) {
+    public CompletableFuture<Void> dispatchFile(final String bindingName, final String useCase, final String messageKey,
+            final PresignedFile presignedFile) {
         final SingleFileEvent event = new SingleFileEvent(useCase, presignedFile);
-        send(bindingName, event);
+        return send(bindingName, messageKey, event);
     }
 
     @Override
-    public void dispatchFile(final String bindingName, final String useCase, final List<PresignedFile> presignedFiles) {
+    public CompletableFuture<Void> dispatchFile(final String bindingName, final String useCase, final String messageKey,
+            final List<PresignedFile> presignedFiles) {
         final MultiFileEvent event = new MultiFileEvent(useCase, presignedFiles);
-        send(bindingName, event);
+        return send(bindingName, messageKey, event);
+    }
+
+    private CompletableFuture<Void> send(final String bindingName, final String messageKey, final FileEvent event) {
+        return CompletableFuture.runAsync(() -> {
+            final MessageBuilder<FileEvent> builder = MessageBuilder.withPayload(event)
+                    .setHeader(DispatchHeaders.DISPATCH_ID, this.headerValue(UUID.randomUUID().toString()))
+                    .setHeader(DispatchHeaders.DISPATCH_TIME, this.headerValue(String.valueOf(Instant.now().toEpochMilli())))
+                    .setHeader(DispatchHeaders.DISPATCH_DESTINATION, this.headerValue(bindingName));
+            if (messageKey != null) {
+                builder.setHeader(KafkaHeaders.KEY, this.headerValue(messageKey));
+            }
+            final Message<FileEvent> message = builder.build();
+            if (!streamBridge.send(bindingName, message)) {
+                throw new StreamingException("Event couldn't be sent");
+            }
+        }, sendExecutor);
     }
 
-    private void send(final String bindingName, final FileEvent event) {
-        if (!streamBridge.send(bindingName, event)) {
-            throw new StreamingException("Event couldn't be sent");
-        }
+    private byte[] headerValue(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
     }
 }
@@ -0,0 +1,9 @@
+package de.muenchen.oss.swim.dispatcher.application.port.in;
+
+public interface DispatchOutboxInPort {
+    /**
+     * Publish the pending dispatch events of the outbox in batches until it is empty.
+     * Files of published events are tagged as dispatched.
+     */
+    void relayDispatchEvents();
+}
@@ -6,4 +6,15 @@ public interface DispatcherInPort {
      * Loops over all configured use cases and triggers dispatching for matching files.
      */
     void triggerDispatching();
+
+    /**
+     * Trigger dispatching of a single file, e.g. after it was created or tagged.
+     * The file is processed for all use cases whose dispatch folder contains it, if it has the
+     * required tags.
+     * Chunked files are processed together with the other files in their folder.
+     *
+     * @param bucket The bucket of the file.
+     * @param path The full path of the file.
+     */
+    void triggerFileDispatching(String bucket, String path);
 }
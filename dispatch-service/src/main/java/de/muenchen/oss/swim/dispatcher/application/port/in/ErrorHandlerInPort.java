@@ -1,8 +1,10 @@
 package de.muenchen.oss.swim.dispatcher.application.port.in;
 
 import de.muenchen.oss.swim.dispatcher.domain.model.ErrorDetails;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileEventError;
 import de.muenchen.oss.swim.dispatcher.domain.model.PresignedFile;
 import jakarta.validation.constraints.NotNull;
+import java.util.List;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
@@ -16,4 +18,12 @@ public interface ErrorHandlerInPort {
      * @param cause The Exception which occurred.
      */
     void handleError(String useCaseName, PresignedFile presignedFile, @NotNull ErrorDetails cause);
+
+    /**
+     * Handle errors of multiple events in parallel.
+     * See {@link #handleError}.
+     *
+     * @param errors The errors of the events.
+     */
+    void handleErrors(@NotNull List<@NotNull FileEventError> errors);
 }
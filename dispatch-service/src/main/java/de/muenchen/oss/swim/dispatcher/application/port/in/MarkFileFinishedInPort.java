@@ -2,7 +2,12 @@ package de.muenchen.oss.swim.dispatcher.application.port.in;
 
 import de.muenchen.oss.swim.dispatcher.domain.exception.PresignedUrlException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.UseCaseException;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.FileEvent;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Map;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
@@ -14,4 +19,23 @@ public interface MarkFileFinishedInPort {
      * @param presignedUrl The presigned url of the file.
      */
     void markFileFinished(@NotBlank String useCase, @NotBlank String presignedUrl) throws PresignedUrlException, UseCaseException;
+
+    /**
+     * Mark multiple files as finished processing.
+     * All urls are verified before the files are finished together.
+     *
+     * @param useCase The name of the use case the files were found for.
+     * @param presignedUrls The presigned urls of the files.
+     */
+    void markFilesFinished(@NotBlank String useCase, @NotEmpty List<@NotBlank String> presignedUrls) throws PresignedUrlException, UseCaseException;
+
+    /**
+     * Mark the files of multiple events as finished processing.
+     * The files are grouped by use case and bucket and each group is finished together.
+     * Failures are collected per event, so a single failing event doesn't fail the others.
+     *
+     * @param events The events to finish.
+     * @return Errors of the events which couldn't be finished (Key: index of the event, value: error).
+     */
+    Map<Integer, Throwable> markEventsFinished(@NotNull List<@NotNull FileEvent> events);
 }
@@ -0,0 +1,27 @@
+package de.muenchen.oss.swim.dispatcher.application.port.in;
+
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolCursor;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolPage;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolQuery;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.StoredProtocolEntry;
+import java.util.function.Consumer;
+
+public interface ProtocolQueryInPort {
+    /**
+     * Load a page of stored protocol entries.
+     *
+     * @param query The filter for the entries.
+     * @param after Cursor of the previous page, null for the first page.
+     * @param limit Max number of entries of the page.
+     * @return The page of entries with the cursor for the next page.
+     */
+    ProtocolPage findProtocolEntries(ProtocolQuery query, ProtocolCursor after, int limit);
+
+    /**
+     * Stream all stored protocol entries matching a filter.
+     *
+     * @param query The filter for the entries.
+     * @param consumer Consumer called for each entry.
+     */
+    void exportProtocolEntries(ProtocolQuery query, Consumer<StoredProtocolEntry> consumer);
+}
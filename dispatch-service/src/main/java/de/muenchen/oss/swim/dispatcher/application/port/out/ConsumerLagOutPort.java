@@ -0,0 +1,18 @@
+package de.muenchen.oss.swim.dispatcher.application.port.out;
+
+import de.muenchen.oss.swim.dispatcher.domain.exception.StreamingException;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+public interface ConsumerLagOutPort {
+    /**
+     * Get the number of events sent to a binding which weren't consumed yet by a consumer group.
+     *
+     * @param bindingName The binding the events are sent to.
+     * @param consumerGroup The consumer group of the service consuming the events.
+     * @return The lag summed over all partitions of the destination of the binding.
+     * @throws StreamingException If the lag can't be loaded.
+     */
+    long getConsumerLag(@NotBlank String bindingName, @NotBlank String consumerGroup);
+}
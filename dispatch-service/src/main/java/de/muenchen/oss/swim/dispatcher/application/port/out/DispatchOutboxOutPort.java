@@ -0,0 +1,76 @@
+package de.muenchen.oss.swim.dispatcher.application.port.out;
+
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxEntry;
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxFile;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Outbox for dispatch events, which are stored together with the files they contain and published
+ * asynchronously.
+ */
+@Validated
+public interface DispatchOutboxOutPort {
+    /**
+     * Store a dispatch event.
+     * The event isn't stored if one of the files is already part of a pending event.
+     *
+     * @param useCase The name of the use case of the files.
+     * @param destination The binding the event is sent to.
+     * @param multi If the files are sent together as one multi file event.
+     * @param messageKey The Kafka message key of the event, null for sending without key.
+     * @param files The files of the event.
+     * @return If the event was stored.
+     */
+    boolean enqueue(@NotBlank String useCase, @NotBlank String destination, boolean multi, String messageKey,
+            @NotEmpty List<@NotNull @Valid DispatchOutboxFile> files);
+
+    /**
+     * Claim pending events for publishing, so they aren't published by another instance at the same
+     * time.
+     * Events whose claim expired (e.g. as the instance publishing them crashed) are claimed again.
+     *
+     * @param limit Max number of events to claim.
+     * @param claimDuration Duration after which the claim expires.
+     * @return The claimed events, ordered by their creation.
+     */
+    List<DispatchOutboxEntry> claimEntries(@Positive int limit, @NotNull Duration claimDuration);
+
+    /**
+     * Count the files of pending events for a destination.
+     *
+     * @param destination The destination binding of the events.
+     * @return The number of files.
+     */
+    long countPendingFiles(@NotBlank String destination);
+
+    /**
+     * Extend the claim of events which are still being published.
+     *
+     * @param ids The ids of the events.
+     * @param claimDuration Duration from now after which the claim expires.
+     */
+    void extendClaims(@NotNull Collection<Long> ids, @NotNull Duration claimDuration);
+
+    /**
+     * Remove published events.
+     *
+     * @param ids The ids of the events.
+     */
+    void removeEntries(@NotNull Collection<Long> ids);
+
+    /**
+     * Increment the failed attempts of an event, which is published again after a delay.
+     *
+     * @param id The id of the event.
+     * @param delay Delay until the event is published again.
+     */
+    void retryEntry(long id, @NotNull Duration delay);
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
@@ -15,16 +16,22 @@ public interface FileDispatchingOutPort {
      *
      * @param bindingName The name to send the notification to.
      * @param useCase The name of the use case the file was found for.
+     * @param messageKey The Kafka message key of the event, null for sending without key.
      * @param presignedFile The presigned information for a file.
+     * @return Future which completes after the broker acknowledged the event.
      */
-    void dispatchFile(@NotBlank String bindingName, @NotBlank String useCase, @NotNull @Valid PresignedFile presignedFile);
+    CompletableFuture<Void> dispatchFile(@NotBlank String bindingName, @NotBlank String useCase, String messageKey,
+            @NotNull @Valid PresignedFile presignedFile);
 
     /**
      * Dispatch multiple files for further joint processing.
      *
      * @param bindingName The name to send the notification to.
      * @param useCase The name of the use case the file was found for.
+     * @param messageKey The Kafka message key of the event, null for sending without key.
      * @param presignedFiles The presigned information of multiple files.
+     * @return Future which completes after the broker acknowledged the event.
      */
-    void dispatchFile(@NotBlank String bindingName, @NotBlank String useCase, @NotEmpty @Valid List<PresignedFile> presignedFiles);
+    CompletableFuture<Void> dispatchFile(@NotBlank String bindingName, @NotBlank String useCase, String messageKey,
+            @NotEmpty @Valid List<PresignedFile> presignedFiles);
 }
@@ -1,14 +1,21 @@
 package de.muenchen.oss.swim.dispatcher.application.port.out;
 
 import de.muenchen.oss.swim.dispatcher.domain.exception.PresignedUrlException;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileOperationResult;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import de.muenchen.oss.swim.dispatcher.domain.model.ScanMode;
+import de.muenchen.oss.swim.dispatcher.domain.model.SpooledFile;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
@@ -32,6 +39,44 @@ public interface FileSystemOutPort {
             @NotNull Map<String, String> requiredTags,
             @NotNull Map<String, List<String>> excludeTags);
 
+    /**
+     * Lazily stream files (with all tags) matching required and exclude tags from specified bucket and
+     * path.
+     * Files are listed page by page and filtered while the stream is consumed.
+     * The returned stream needs to be closed after use.
+     * See {@link ScanMode} for how files known to be excluded are handled.
+     *
+     * @param bucket The bucket to look in.
+     * @param pathPrefix The path to look under.
+     * @param recursive If the lookup should be recursive.
+     * @param extension The extension the files should have.
+     * @param requiredTags Tag entries which are required to be on each file.
+     * @param excludeTags Tag entries where none should be on the file.
+     * @param scanMode The mode used for the object index.
+     * @return Stream of files (with all tags) having required and not having any exclude tags.
+     */
+    Stream<FileWithMetadata> streamMatchingFilesWithTags(
+            @NotBlank String bucket,
+            @NotNull String pathPrefix,
+            @NotNull boolean recursive,
+            @NotBlank String extension,
+            @NotNull Map<String, String> requiredTags,
+            @NotNull Map<String, List<String>> excludeTags,
+            @NotNull ScanMode scanMode);
+
+    /**
+     * Get a single file (with all tags) if it matches required and exclude tags.
+     *
+     * @param fileReference The reference identifying the file.
+     * @param requiredTags Tag entries which are required to be on the file.
+     * @param excludeTags Tag entries where none should be on the file.
+     * @return The file (with all tags), empty if it doesn't exist or isn't matching.
+     */
+    Optional<FileWithMetadata> getMatchingFileWithTags(
+            @Valid @NotNull FileReference fileReference,
+            @NotNull Map<String, String> requiredTags,
+            @NotNull Map<String, List<String>> excludeTags);
+
     /**
      * Get names of subdirectories.
      *
@@ -43,6 +88,18 @@ public interface FileSystemOutPort {
             @NotBlank String bucket,
             @NotNull String pathPrefix);
 
+    /**
+     * Get paths of the files directly in a folder whose path starts with a prefix, without loading
+     * their tags.
+     *
+     * @param bucket The bucket to look in.
+     * @param pathPrefix The path of the folder followed by the beginning of the file names.
+     * @return The full paths of the files.
+     */
+    List<String> getFilePathsWithPrefix(
+            @NotBlank String bucket,
+            @NotBlank String pathPrefix);
+
     /**
      * Add tags to a file.
      *
@@ -51,6 +108,16 @@ public interface FileSystemOutPort {
      */
     void tagFile(@Valid @NotNull FileReference fileReference, @NotNull Map<String, String> tags);
 
+    /**
+     * Add tags to a file which was looked up before.
+     * Tags cached while looking up the file are reused if the file wasn't replaced since.
+     *
+     * @param fileReference The reference identifying the file.
+     * @param etag The ETag of the file from the lookup, null if unknown.
+     * @param tags The tags to add.
+     */
+    void tagFile(@Valid @NotNull FileReference fileReference, String etag, @NotNull Map<String, String> tags);
+
     /**
      * Check if a file exists.
      *
@@ -67,6 +134,15 @@ public interface FileSystemOutPort {
      */
     InputStream readFile(@Valid @NotNull FileReference fileReference);
 
+    /**
+     * Download a file once so its content can be read multiple times.
+     * Small files are kept in memory, larger ones are buffered in a temp file.
+     *
+     * @param fileReference The reference identifying the file.
+     * @return The spooled content of the file, needs to be closed.
+     */
+    SpooledFile spoolFile(@Valid @NotNull FileReference fileReference);
+
     /**
      * Get presigned url for downloading a file.
      *
@@ -90,6 +166,27 @@ public interface FileSystemOutPort {
      */
     void moveFile(@Valid @NotNull FileReference srcFileReference, @NotBlank String destPath);
 
+    /**
+     * Move multiple files in the same bucket.
+     * The files are copied in parallel and all source files are deleted together afterwards.
+     * If tags are given, they are added within the copy request. Existing tags are kept and error
+     * tags are removed, same as in {@link #tagFile}.
+     * Files which don't exist are skipped.
+     *
+     * @param files The files to move (key: source file, value: destination path).
+     * @param tags The tags to add, can be empty.
+     * @return The result for each source file.
+     */
+    FileOperationResult moveFiles(@NotEmpty Map<@Valid @NotNull FileReference, @NotBlank String> files, @NotNull Map<String, String> tags);
+
+    /**
+     * Delete multiple files with as few requests as possible.
+     *
+     * @param fileReferences The files to delete.
+     * @return The result for each file.
+     */
+    FileOperationResult deleteFiles(@NotNull Collection<@Valid @NotNull FileReference> fileReferences);
+
     /**
      * Copy a file from one place to another.
      *
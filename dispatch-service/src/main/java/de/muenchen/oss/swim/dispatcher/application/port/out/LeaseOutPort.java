@@ -0,0 +1,65 @@
+package de.muenchen.oss.swim.dispatcher.application.port.out;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Leases which split the shards of the use cases between the running instances.
+ * Expiry is evaluated against the clock of the lease store, so clocks of the instances don't need
+ * to be in sync.
+ */
+@Validated
+public interface LeaseOutPort {
+    /**
+     * Register an instance or extend its registration.
+     *
+     * @param instanceId The id of the instance.
+     * @param duration The duration the registration is valid without being extended.
+     */
+    void registerInstance(@NotBlank String instanceId, @NotNull Duration duration);
+
+    /**
+     * Remove expired instances and count the remaining ones.
+     *
+     * @return The number of registered instances.
+     */
+    int countActiveInstances();
+
+    /**
+     * Extend all not yet expired leases of an instance.
+     *
+     * @param instanceId The id of the instance.
+     * @param duration The duration the leases are valid without being extended.
+     * @return The shards the instance holds a lease for.
+     */
+    Set<String> renewLeases(@NotBlank String instanceId, @NotNull Duration duration);
+
+    /**
+     * Acquire the lease of a shard if it is free or expired.
+     *
+     * @param shard The shard to acquire.
+     * @param instanceId The id of the instance.
+     * @param duration The duration the lease is valid without being extended.
+     * @return If the lease was acquired.
+     */
+    boolean acquireLease(@NotBlank String shard, @NotBlank String instanceId, @NotNull Duration duration);
+
+    /**
+     * Release leases of an instance, so they can be acquired by other instances.
+     *
+     * @param instanceId The id of the instance.
+     * @param shards The shards to release.
+     */
+    void releaseLeases(@NotBlank String instanceId, @NotNull Collection<String> shards);
+
+    /**
+     * Release all leases and the registration of an instance, e.g. on shutdown.
+     *
+     * @param instanceId The id of the instance.
+     */
+    void unregisterInstance(@NotBlank String instanceId);
+}
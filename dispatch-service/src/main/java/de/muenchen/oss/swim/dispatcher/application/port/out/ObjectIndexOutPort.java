@@ -0,0 +1,83 @@
+package de.muenchen.oss.swim.dispatcher.application.port.out;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Index of files which are known to be excluded from dispatching (e.g. already dispatched, finished
+ * or failed).
+ * Used for skipping these files while looking up files, see
+ * {@link de.muenchen.oss.swim.dispatcher.domain.model.ScanMode}.
+ */
+@Validated
+public interface ObjectIndexOutPort {
+    /**
+     * Get indexed files.
+     *
+     * @param bucket The bucket of the files.
+     * @param objectKeys The paths of the files to look up.
+     * @return The ETags of the files which are indexed (Key: path, value: ETag).
+     */
+    Map<String, String> findIndexedObjects(@NotBlank String bucket, @NotNull Collection<String> objectKeys);
+
+    /**
+     * Add files to the index or update them if already present.
+     *
+     * @param bucket The bucket of the files.
+     * @param objects The files to store (Key: path, value: ETag).
+     * @param seenAt The time the files were found.
+     */
+    void storeObjects(@NotBlank String bucket, @NotNull Map<String, String> objects, @NotNull Instant seenAt);
+
+    /**
+     * Remove files from the index.
+     *
+     * @param bucket The bucket of the files.
+     * @param objectKeys The paths of the files.
+     */
+    void removeObjects(@NotBlank String bucket, @NotNull Collection<String> objectKeys);
+
+    /**
+     * Remove all files under a folder which weren't found since a specific time.
+     *
+     * @param bucket The bucket of the files.
+     * @param pathPrefix The path of the folder to remove the files under, handled as folder also without trailing slash.
+     * @param since Files which weren't found since this time are removed.
+     * @return The number of removed files.
+     */
+    int removeObjectsNotSeenSince(@NotBlank String bucket, @NotBlank String pathPrefix, @NotNull Instant since);
+
+    /**
+     * Remove the files directly in a folder, excluding sub-folders, which weren't found since a
+     * specific time.
+     *
+     * @param bucket The bucket of the files.
+     * @param folder The path of the folder, handled as folder also without trailing slash.
+     * @param since Files which weren't found since this time are removed.
+     * @return The number of removed files.
+     */
+    int removeDirectObjectsNotSeenSince(@NotBlank String bucket, @NotBlank String folder, @NotNull Instant since);
+
+    /**
+     * Get the start of the last full scan per shard of a use case.
+     * See {@link de.muenchen.oss.swim.dispatcher.application.usecase.helper.ShardingHelper}.
+     *
+     * @param useCase The name of the use case.
+     * @return The start of the last full scans (Key: shard, value: scan start).
+     */
+    Map<Integer, Instant> findLastFullScans(@NotBlank String useCase);
+
+    /**
+     * Store the start of a full scan for shards of a use case.
+     * Newer stored scans aren't overwritten.
+     *
+     * @param useCase The name of the use case.
+     * @param shards The shards which were scanned completely.
+     * @param scanStart The start of the scan.
+     */
+    void storeLastFullScan(@NotBlank String useCase, @NotNull Collection<Integer> shards, @NotNull Instant scanStart);
+}
@@ -0,0 +1,33 @@
+package de.muenchen.oss.swim.dispatcher.application.port.out;
+
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolCursor;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolQuery;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.StoredProtocolEntry;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+public interface QueryProtocolOutPort {
+    /**
+     * Find stored protocol entries, ordered by creation time and id.
+     *
+     * @param query The filter for the entries.
+     * @param after Only entries after this position are returned, null for the first page.
+     * @param limit Max number of entries to return.
+     * @return The matching entries.
+     */
+    List<StoredProtocolEntry> findProtocolEntries(@NotNull ProtocolQuery query, ProtocolCursor after, @Positive int limit);
+
+    /**
+     * Stream all stored protocol entries matching a filter, ordered by creation time and id.
+     * The entries are fetched in chunks and passed to the consumer one at a time, so the full result
+     * is never held in memory.
+     *
+     * @param query The filter for the entries.
+     * @param consumer Consumer called for each entry.
+     */
+    void exportProtocolEntries(@NotNull ProtocolQuery query, @NotNull Consumer<StoredProtocolEntry> consumer);
+}
@@ -1,19 +1,20 @@
 package de.muenchen.oss.swim.dispatcher.application.port.out;
 
-import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import de.muenchen.oss.swim.dispatcher.domain.model.SpooledFile;
 import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolEntry;
-import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
-import java.util.List;
+import java.util.stream.Stream;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
 public interface ReadProtocolOutPort {
     /**
-     * Load parsed protocol.
+     * Stream parsed protocol.
+     * The entries are parsed one at a time while the stream is consumed, so memory stays constant
+     * for large protocols. The stream needs to be closed.
      *
-     * @param fileReference The reference to the protocol file to load.
-     * @return The parsed protocol entries.
+     * @param protocolFile The already downloaded protocol file.
+     * @return Stream of the parsed protocol entries.
      */
-    List<ProtocolEntry> loadProtocol(@NotNull @Valid FileReference fileReference);
+    Stream<ProtocolEntry> streamProtocol(@NotNull SpooledFile protocolFile);
 }
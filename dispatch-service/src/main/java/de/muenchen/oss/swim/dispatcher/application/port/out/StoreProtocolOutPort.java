@@ -1,27 +1,24 @@
 package de.muenchen.oss.swim.dispatcher.application.port.out;
 
 import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolEntry;
-import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
-import java.util.List;
+import jakarta.validation.constraints.NotNull;
+import java.util.stream.Stream;
 import org.springframework.validation.annotation.Validated;
 
 @Validated
 public interface StoreProtocolOutPort {
     /**
-     * Store protocol entries.
+     * Store protocol entries, replacing the entries previously stored for the protocol.
+     * The entries are consumed one at a time and written in bounded batches, so memory stays
+     * constant for large protocols. The protocol is replaced atomically, readers see either the
+     * previous or the new entries.
      *
      * @param useCase The name of the use case the protocol was found for.
      * @param protocolName The name of the protocol.
      * @param entries The entries of the protocol.
+     * @return The number of stored entries.
      */
-    void storeProtocol(@NotBlank String useCase, @NotBlank String protocolName, @Valid List<ProtocolEntry> entries);
+    long storeProtocol(@NotBlank String useCase, @NotBlank String protocolName, @NotNull Stream<ProtocolEntry> entries);
 
-    /**
-     * Delete entries for existing protocol.
-     *
-     * @param useCase The use case name of the protocol.
-     * @param protocolName The name of the protocol.
-     */
-    void deleteProtocol(@NotBlank String useCase, @NotBlank String protocolName);
 }
@@ -0,0 +1,156 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase;
+
+import de.muenchen.oss.swim.dispatcher.application.port.in.DispatchOutboxInPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.DispatchOutboxOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.NotificationOutPort;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchActionsHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.FileHandlingHelper;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.exception.UseCaseException;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxEntry;
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxFile;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DispatchOutboxUseCase implements DispatchOutboxInPort {
+    private static final String ERROR_SOURCE = "dispatch-outbox";
+
+    private final SwimDispatcherProperties swimDispatcherProperties;
+    private final DispatchOutboxOutPort dispatchOutboxOutPort;
+    private final DispatchActionsHelper dispatchActionsHelper;
+    private final FileHandlingHelper fileHandlingHelper;
+    private final NotificationOutPort notificationOutPort;
+    private final DispatchMeter dispatchMeter;
+
+    @Override
+    public void relayDispatchEvents() {
+        List<DispatchOutboxEntry> entries;
+        do {
+            entries = dispatchOutboxOutPort.claimEntries(
+                    swimDispatcherProperties.getDispatchOutboxBatchSize(), swimDispatcherProperties.getDispatchOutboxClaimDuration());
+            this.relayEntries(entries);
+        } while (entries.size() >= swimDispatcherProperties.getDispatchOutboxBatchSize() && !Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * Publish a batch of events.
+     * All events are sent before waiting for the acknowledgements, so the producer can batch them.
+     * Published events are removed from the outbox together.
+     * The claim of events which aren't acknowledged yet is extended after half of
+     * {@link SwimDispatcherProperties#getDispatchOutboxClaimDuration()}, so slow sends aren't
+     * published again by another instance.
+     * Events whose files were already dispatched meanwhile are removed without publishing them, see
+     * {@link DispatchActionsHelper#isAlreadyDispatched(List)}.
+     *
+     * @param entries The events to publish.
+     */
+    private void relayEntries(final List<DispatchOutboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        final Duration claimDuration = swimDispatcherProperties.getDispatchOutboxClaimDuration();
+        long claimRenewal = System.nanoTime() + claimDuration.toNanos() / 2;
+        final Map<DispatchOutboxEntry, CompletableFuture<Void>> sends = new LinkedHashMap<>();
+        final List<Long> skipped = new ArrayList<>();
+        for (final DispatchOutboxEntry entry : entries) {
+            CompletableFuture<Void> sent;
+            try {
+                // skip events which were enqueued again after their files were already published
+                if (dispatchActionsHelper.isAlreadyDispatched(entry.files())) {
+                    log.info("Skipped event {} of use case {} from dispatch outbox as its files were already dispatched", entry.id(), entry.useCase());
+                    skipped.add(entry.id());
+                    continue;
+                }
+                sent = dispatchActionsHelper.publishFiles(entry.useCase(), entry.destination(), entry.multi(), entry.messageKey(), entry.files());
+            } catch (final RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            sends.put(entry, sent);
+        }
+        final List<Long> published = new ArrayList<>();
+        try {
+            for (final Map.Entry<DispatchOutboxEntry, CompletableFuture<Void>> send : sends.entrySet()) {
+                while (true) {
+                    try {
+                        send.getValue().get(Math.max(claimRenewal - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                        published.add(send.getKey().id());
+                        break;
+                    } catch (final ExecutionException e) {
+                        this.handleFailedEntry(send.getKey(), e.getCause() != null ? e.getCause() : e);
+                        break;
+                    } catch (final TimeoutException e) {
+                        // extend claim of all events not acknowledged yet
+                        final List<Long> pending = sends.entrySet().stream()
+                                .filter(i -> !i.getValue().isDone() || i.getKey().equals(send.getKey()))
+                                .map(i -> i.getKey().id())
+                                .toList();
+                        dispatchOutboxOutPort.extendClaims(pending, claimDuration);
+                        claimRenewal = System.nanoTime() + claimDuration.toNanos() / 2;
+                        log.debug("Extended claim of {} events of dispatch outbox which are still being published", pending.size());
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            // events not acknowledged yet are published again after their claim expired
+            log.warn("Interrupted while waiting for events of dispatch outbox to be published");
+            Thread.currentThread().interrupt();
+        } finally {
+            final List<Long> removed = new ArrayList<>(published);
+            removed.addAll(skipped);
+            dispatchOutboxOutPort.removeEntries(removed);
+        }
+        log.debug("Published {} and skipped {} of {} events from dispatch outbox", published.size(), skipped.size(), entries.size());
+    }
+
+    /**
+     * Retry a failed event later or mark its files as failed if
+     * {@link SwimDispatcherProperties#getDispatchOutboxMaxAttempts()} is reached.
+     *
+     * @param entry The failed event.
+     * @param e The error which occurred.
+     */
+    private void handleFailedEntry(final DispatchOutboxEntry entry, final Throwable e) {
+        if (entry.attempts() + 1 < swimDispatcherProperties.getDispatchOutboxMaxAttempts()) {
+            log.warn("Publishing event {} of use case {} from dispatch outbox failed, retrying later", entry.id(), entry.useCase(), e);
+            dispatchOutboxOutPort.retryEntry(entry.id(), swimDispatcherProperties.getDispatchOutboxClaimDuration());
+            return;
+        }
+        log.error("Publishing event {} of use case {} from dispatch outbox failed after {} attempts", entry.id(), entry.useCase(), entry.attempts() + 1, e);
+        final Map<FileReference, Throwable> errors = new HashMap<>();
+        try {
+            for (final DispatchOutboxFile file : entry.files()) {
+                errors.put(file.file(), e);
+                fileHandlingHelper.markFileError(file.file(), swimDispatcherProperties.getDispatchStateTagKey(), e);
+            }
+        } catch (final RuntimeException markingException) {
+            log.error("Error while marking files of event {} of use case {} as failed", entry.id(), entry.useCase(), markingException);
+            dispatchOutboxOutPort.retryEntry(entry.id(), swimDispatcherProperties.getDispatchOutboxClaimDuration());
+            return;
+        }
+        dispatchOutboxOutPort.removeEntries(List.of(entry.id()));
+        dispatchMeter.incrementError(entry.useCase(), ERROR_SOURCE);
+        try {
+            final UseCase useCase = swimDispatcherProperties.findUseCase(entry.useCase());
+            notificationOutPort.sendDispatchErrors(useCase.getMailAddresses(), useCase.getName(), errors);
+        } catch (final UseCaseException | RuntimeException notificationException) {
+            log.error("Error while sending notification for failed event {} of use case {}", entry.id(), entry.useCase(), notificationException);
+        }
+    }
+}
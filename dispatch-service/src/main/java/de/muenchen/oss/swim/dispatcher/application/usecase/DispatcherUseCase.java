@@ -6,9 +6,14 @@ import static de.muenchen.oss.swim.dispatcher.domain.model.DispatchAction.DISPAT
 import de.muenchen.oss.swim.dispatcher.application.port.in.DispatcherInPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileSystemOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.NotificationOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.ObjectIndexOutPort;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchActionsHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchPipeline;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchScheduler;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchThrottlingHelper;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.FileHandlingHelper;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.GroupingHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.ShardingHelper;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.ValidationHelper;
 import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
@@ -20,10 +25,34 @@ import de.muenchen.oss.swim.dispatcher.domain.model.DispatchAction;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileGroup;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import de.muenchen.oss.swim.dispatcher.domain.model.Metadata;
+import de.muenchen.oss.swim.dispatcher.domain.model.ScanMode;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
@@ -41,104 +70,474 @@ public class DispatcherUseCase implements DispatcherInPort {
     private final GroupingHelper groupingHelper;
     private final DispatchActionsHelper dispatchActionsHelper;
     private final ValidationHelper validationHelper;
+    private final ObjectIndexOutPort objectIndexOutPort;
+    private final DispatchScheduler dispatchScheduler;
+    private final DispatchPipeline dispatchPipeline;
+    private final ShardingHelper shardingHelper;
+    private final DispatchThrottlingHelper dispatchThrottlingHelper;
+    private final Map<String, ReadWriteLock> useCaseLocks = new ConcurrentHashMap<>();
 
     @Override
     public void triggerDispatching() {
         log.info("Starting dispatching");
+        final DispatchScheduler.Run run = dispatchScheduler.start();
+        final Map<UseCase, UseCaseRun> useCaseRuns = new LinkedHashMap<>();
         for (final UseCase useCase : swimDispatcherProperties.getUseCases()) {
+            if (!shardingHelper.ownsAny(useCase)) {
+                log.debug("Skipping use case {} as no shard of it is owned by this instance", useCase.getName());
+                continue;
+            }
+            final Instant scanStart = Instant.now();
+            final List<Integer> shards = shardingHelper.getOwnedShards(useCase);
+            final UseCaseRun useCaseRun = new UseCaseRun(scanStart, this.resolveScanMode(useCase, scanStart, shards), new ConcurrentHashMap<>(),
+                    new ReadyFiles(), shardingHelper.ownsAll(useCase), shards, new ConcurrentLinkedQueue<>());
+            useCaseRuns.put(useCase, useCaseRun);
+            run.submit(useCase, () -> this.processUseCaseDirectory(run, useCase, useCaseRun));
+        }
+        // wait for all use cases
+        try {
+            run.await();
+        } catch (final InterruptedException e) {
+            log.warn("Interrupted while waiting for dispatching to finish");
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (final Map.Entry<UseCase, UseCaseRun> entry : useCaseRuns.entrySet()) {
+            this.finishUseCaseRun(entry.getKey(), entry.getValue(), run.getFailures(entry.getKey()));
+        }
+        log.info("Finished dispatching");
+    }
+
+    /**
+     * Process the files directly in the dispatch folder of a use case and submit the sub-folders
+     * if use case is recursive.
+     * Only the folders of shards owned by this instance are processed, see {@link ShardingHelper}.
+     *
+     * @param run The run to submit the sub-folders to.
+     * @param useCase The use case to process.
+     * @param useCaseRun The state of the use case in the current run.
+     */
+    private void processUseCaseDirectory(final DispatchScheduler.Run run, final UseCase useCase, final UseCaseRun useCaseRun) {
+        // handle files directly in directory
+        final String dispatchPath = useCase.getDispatchPath(swimDispatcherProperties);
+        if (shardingHelper.ownsRoot(useCase)) {
+            useCaseRun.scannedFolders().add(dispatchPath);
+            this.processDirectoryLocked(useCase, dispatchPath, false, useCaseRun);
+        }
+        // handle recursive by directory
+        if (useCase.isRecursive()) {
+            // get folders
+            final List<String> folders = fileSystemOutPort.getSubDirectories(useCase.getBucket(), dispatchPath);
+            // dispatch files per folder if not in finished folder
+            for (final String folder : folders) {
+                if (!folder.contains(swimDispatcherProperties.getFinishedFolder()) && shardingHelper.ownsPath(useCase, folder)) {
+                    useCaseRun.scannedFolders().add(folder);
+                    run.submit(useCase, () -> this.processDirectoryLocked(useCase, folder, true, useCaseRun));
+                }
+            }
+        }
+    }
+
+    /**
+     * Process a folder while holding the read lock of the use case, so single file events aren't
+     * handled at the same time.
+     * See {@link #processDirectory}.
+     *
+     * @param useCase The use case of the folder.
+     * @param folder The full path of the folder.
+     * @param recursive If the lookup should be recursive.
+     * @param useCaseRun The state of the use case in the current run, errors are added to it.
+     */
+    private void processDirectoryLocked(final UseCase useCase, final String folder, final boolean recursive, final UseCaseRun useCaseRun) {
+        final Lock lock = this.getUseCaseLock(useCase).readLock();
+        lock.lock();
+        final long start = System.nanoTime();
+        try {
+            useCaseRun.errors().putAll(this.processDirectory(useCase, folder, recursive, useCaseRun.scanMode(), useCaseRun.readyFiles()));
+        } finally {
+            lock.unlock();
+            final String folderType = recursive ? "sub-folder" : "root";
+            dispatchMeter.recordFolderScanDuration(useCase.getName(), folderType, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Finish processing of a use case after all its folders were processed.
+     * Cleans up the object index after a full scan and sends the errors.
+     *
+     * @param useCase The processed use case.
+     * @param useCaseRun The state of the use case in the current run.
+     * @param failures Unexpected exceptions thrown while processing the use case.
+     */
+    private void finishUseCaseRun(final UseCase useCase, final UseCaseRun useCaseRun, final List<Throwable> failures) {
+        final Map<FileReference, Throwable> errors = new HashMap<>(useCaseRun.errors());
+        try {
+            // update backlog metrics, also if processing failed as the files found until then are counted
+            dispatchMeter.updateReadyFiles(useCase.getName(), useCaseRun.readyFiles().getCount(), useCaseRun.readyFiles().getOldest());
+            if (!failures.isEmpty()) {
+                final Throwable e = failures.getFirst();
+                log.error("Processing of use case {} failed", useCase.getName(), e);
+                final String additionalMessage = "!!! USE CASE PROCESSING !!! Unexpected error during dispatching, use case was not processed completely. Error: %s"
+                        .formatted(e.getMessage());
+                notificationOutPort.sendDispatchErrors(useCase.getMailAddresses(), useCase.getName(), errors, additionalMessage);
+                return;
+            }
+            // remove files from index which weren't seen in full scan
+            if (useCaseRun.scanMode() == ScanMode.FULL) {
+                final int removed = this.removeObjectsNotSeen(useCase, useCaseRun);
+                log.debug("Removed {} outdated files from object index for use case {}", removed, useCase.getName());
+                // only shards which are still owned were scanned completely
+                final List<Integer> scannedShards = new ArrayList<>(useCaseRun.shards());
+                scannedShards.retainAll(shardingHelper.getOwnedShards(useCase));
+                objectIndexOutPort.storeLastFullScan(useCase.getName(), scannedShards, useCaseRun.scanStart());
+            }
+            // send errors
+            if (!errors.isEmpty()) {
+                notificationOutPort.sendDispatchErrors(useCase.getMailAddresses(), useCase.getName(), errors);
+            }
+        } catch (final RuntimeException e) {
+            log.error("Finishing processing of use case {} failed", useCase.getName(), e);
+        }
+    }
+
+    /**
+     * Remove the files from the object index which weren't seen in the full scan of a use case.
+     * If only some shards of the use case were processed, only the scanned folders are cleaned up.
+     *
+     * @param useCase The processed use case.
+     * @param useCaseRun The state of the use case in the current run.
+     * @return The number of removed files.
+     */
+    private int removeObjectsNotSeen(final UseCase useCase, final UseCaseRun useCaseRun) {
+        final String dispatchPath = useCase.getDispatchPath(swimDispatcherProperties);
+        if (useCaseRun.allShards()) {
+            return objectIndexOutPort.removeObjectsNotSeenSince(useCase.getBucket(), dispatchPath + "/", useCaseRun.scanStart());
+        }
+        int removed = 0;
+        for (final String folder : useCaseRun.scannedFolders()) {
+            final String folderPrefix = folder.endsWith("/") ? folder : folder + "/";
+            if (folder.equals(dispatchPath)) {
+                removed += objectIndexOutPort.removeDirectObjectsNotSeenSince(useCase.getBucket(), folderPrefix, useCaseRun.scanStart());
+            } else {
+                removed += objectIndexOutPort.removeObjectsNotSeenSince(useCase.getBucket(), folderPrefix, useCaseRun.scanStart());
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void triggerFileDispatching(final String bucket, final String path) {
+        final FileReference fileReference = new FileReference(bucket, path);
+        for (final UseCase useCase : swimDispatcherProperties.getUseCases()) {
+            if (!this.isDispatchFileOfUseCase(useCase, fileReference)) {
+                continue;
+            }
+            // file is picked up by the scan of the instance owning the shard
+            if (!shardingHelper.ownsPath(useCase, fileReference.path())) {
+                log.debug("Skipping file event for use case {} as shard of file isn't owned by this instance", useCase.getName());
+                continue;
+            }
+            // chunks are only processed once all chunks of the file are uploaded, checked without holding the lock
+            final Matcher chunkMatcher = GroupingHelper.CHUNKED_FILE_PATTERN.matcher(fileReference.getFileNameWithoutExtension());
+            final boolean chunked = chunkMatcher.matches();
+            final List<String> chunkPaths = chunked ? this.findCompleteChunks(useCase, fileReference, chunkMatcher) : List.of();
+            if (chunked && chunkPaths.isEmpty()) {
+                log.debug("Skipping file event for use case {} as not all chunks of the file are uploaded yet", useCase.getName());
+                continue;
+            }
+            // don't block the consumer while a scan is running, the scan or the next one picks up the file
+            final Lock useCaseLock = this.getUseCaseLock(useCase).writeLock();
+            if (!useCaseLock.tryLock()) {
+                log.debug("Skipping file event for use case {} as use case is currently processed", useCase.getName());
+                continue;
+            }
             final Map<FileReference, Throwable> errors = new HashMap<>();
             try {
-                // handle files directly in directory
-                final String dispatchPath = useCase.getDispatchPath(swimDispatcherProperties);
-                errors.putAll(this.processDirectory(useCase, dispatchPath, false));
-                // handle recursive by directory
-                if (useCase.isRecursive()) {
-                    // get folders
-                    final List<String> folders = fileSystemOutPort.getSubDirectories(useCase.getBucket(), dispatchPath);
-                    // dispatch files per folder if not in finished folder
-                    for (final String folder : folders) {
-                        if (!folder.contains(swimDispatcherProperties.getFinishedFolder())) {
-                            errors.putAll(this.processDirectory(useCase, folder, true));
-                        }
-                    }
+                if (chunked) {
+                    this.loadChunkGroup(useCase, chunkPaths).ifPresent(group -> this.validateAndProcessFileGroup(
+                            useCase, chunkMatcher.group(GroupingHelper.CHUNKED_FILE_BASE_NAME_GROUP), group, errors).join());
+                } else {
+                    final Optional<FileWithMetadata> file = fileSystemOutPort.getMatchingFileWithTags(
+                            fileReference,
+                            useCase.getRequiredTags(),
+                            swimDispatcherProperties.getDispatchExcludeTags());
+                    file.ifPresent(f -> this.validateAndProcessFileGroup(useCase, fileReference.getFileName(), new FileGroup(false, f), errors).join());
                 }
                 // send errors
                 if (!errors.isEmpty()) {
                     notificationOutPort.sendDispatchErrors(useCase.getMailAddresses(), useCase.getName(), errors);
                 }
-            } catch (final Exception e) {
-                log.error("Processing of use case {} failed", useCase.getName(), e);
-                final String additionalMessage = "!!! USE CASE PROCESSING !!! Unexpected error during dispatching, use case was not processed completely. Error: %s"
-                        .formatted(e.getMessage());
-                notificationOutPort.sendDispatchErrors(useCase.getMailAddresses(), useCase.getName(), errors, additionalMessage);
+            } finally {
+                useCaseLock.unlock();
             }
         }
-        log.info("Finished dispatching");
+    }
+
+    /**
+     * Find the chunks of a chunked file via a single listing of the files with its base name,
+     * without loading their tags.
+     *
+     * @param useCase The use case of the file.
+     * @param file The chunk the event was received for.
+     * @param chunkMatcher The matched {@link GroupingHelper#CHUNKED_FILE_PATTERN} of the chunk.
+     * @return The paths of all chunks of the file, empty if not all chunks are uploaded yet.
+     */
+    private List<String> findCompleteChunks(final UseCase useCase, final FileReference file, final Matcher chunkMatcher) {
+        final String baseName = chunkMatcher.group(GroupingHelper.CHUNKED_FILE_BASE_NAME_GROUP);
+        final int count = Integer.parseInt(chunkMatcher.group(GroupingHelper.CHUNKED_FILE_COUNT_GROUP));
+        final List<String> chunkPaths = new ArrayList<>();
+        final Set<Integer> indexes = new HashSet<>();
+        for (final String path : fileSystemOutPort.getFilePathsWithPrefix(useCase.getBucket(), file.getParentPath() + "/" + baseName + "-")) {
+            final FileReference chunk = new FileReference(useCase.getBucket(), path);
+            final Matcher matcher = GroupingHelper.CHUNKED_FILE_PATTERN.matcher(chunk.getFileNameWithoutExtension());
+            if (this.isDispatchFileOfUseCase(useCase, chunk) && matcher.matches()
+                    && baseName.equals(matcher.group(GroupingHelper.CHUNKED_FILE_BASE_NAME_GROUP))) {
+                chunkPaths.add(path);
+                indexes.add(Integer.parseInt(matcher.group(GroupingHelper.CHUNKED_FILE_INDEX_GROUP)));
+            }
+        }
+        return IntStream.rangeClosed(1, count).allMatch(indexes::contains) ? chunkPaths : List.of();
+    }
+
+    /**
+     * Load the chunks of a file with their tags.
+     *
+     * @param useCase The use case of the file.
+     * @param chunkPaths The paths of all chunks of the file.
+     * @return The chunks, empty if any chunk doesn't exist anymore or isn't ready for dispatching
+     *         (e.g. as it was already dispatched).
+     */
+    private Optional<FileGroup> loadChunkGroup(final UseCase useCase, final List<String> chunkPaths) {
+        final List<FileWithMetadata> chunks = new ArrayList<>();
+        for (final String path : chunkPaths) {
+            final Optional<FileWithMetadata> chunk = fileSystemOutPort.getMatchingFileWithTags(
+                    new FileReference(useCase.getBucket(), path),
+                    useCase.getRequiredTags(),
+                    swimDispatcherProperties.getDispatchExcludeTags());
+            if (chunk.isEmpty()) {
+                return Optional.empty();
+            }
+            chunks.add(chunk.get());
+        }
+        return Optional.of(new FileGroup(true, chunks));
+    }
+
+    /**
+     * Check if a file is located in the dispatch folder of a use case and should be dispatched.
+     *
+     * @param useCase The use case to check.
+     * @param file The file to check.
+     * @return If the file is a dispatch file of the use case.
+     */
+    private boolean isDispatchFileOfUseCase(final UseCase useCase, final FileReference file) {
+        final String dispatchPath = useCase.getDispatchPath(swimDispatcherProperties) + "/";
+        if (!useCase.getBucket().equals(file.bucket()) || !file.path().startsWith(dispatchPath)) {
+            return false;
+        }
+        if (!file.path().toLowerCase(Locale.ROOT).endsWith("." + FILE_EXTENSION_PDF)) {
+            return false;
+        }
+        final String relativePath = file.path().substring(dispatchPath.length());
+        if (useCase.isRecursive()) {
+            return !relativePath.contains(swimDispatcherProperties.getFinishedFolder());
+        }
+        return !relativePath.contains("/");
+    }
+
+    /**
+     * Get lock which prevents a use case from being processed by a scan and single file events at
+     * the same time.
+     * Folders of a scan are processed under the read lock, single file events under the write lock.
+     *
+     * @param useCase The use case to get the lock for.
+     * @return The lock of the use case.
+     */
+    private ReadWriteLock getUseCaseLock(final UseCase useCase) {
+        return useCaseLocks.computeIfAbsent(useCase.getName(), k -> new ReentrantReadWriteLock());
+    }
+
+    /**
+     * Resolve how files of a use case are looked up.
+     * If incremental scanning is enabled, a full scan is done in the interval of
+     * {@link SwimDispatcherProperties#getFullScanInterval()}.
+     * The last full scans are stored per shard in the database, so they are kept across restarts and
+     * shards taken over from other instances are only scanned fully if their interval passed.
+     *
+     * @param useCase The use case to resolve the mode for.
+     * @param now The start of the current scan.
+     * @param shards The shards of the use case owned by this instance.
+     * @return The scan mode to use.
+     */
+    private ScanMode resolveScanMode(final UseCase useCase, final Instant now, final List<Integer> shards) {
+        if (!swimDispatcherProperties.isIncrementalScan()) {
+            return ScanMode.UNINDEXED;
+        }
+        final Map<Integer, Instant> lastFullScans = objectIndexOutPort.findLastFullScans(useCase.getName());
+        final Instant outdated = now.minus(swimDispatcherProperties.getFullScanInterval());
+        for (final Integer shard : shards) {
+            final Instant lastFullScan = lastFullScans.get(shard);
+            if (lastFullScan == null || !lastFullScan.isAfter(outdated)) {
+                return ScanMode.FULL;
+            }
+        }
+        return ScanMode.INCREMENTAL;
     }
 
     /**
      * Process all files inside a folder recursively.
+     * Files are grouped and processed in batches of {@link SwimDispatcherProperties#getDispatchBatchSize()}
+     * while the folder is still being listed. Chunked files are collected until the listing is
+     * finished, as their chunks can be spread over multiple batches.
+     * The groups are processed via the {@link DispatchPipeline}, which is awaited before returning,
+     * also if an error occurs, so no group is processed after the use case lock was released.
+     * The ownership of the shard of the folder is checked before each batch and the folder is stopped
+     * if it was lost, so files aren't dispatched by two instances, see {@link ShardingHelper}.
      * See {@link DispatcherUseCase#processFileGroup}.
      *
      * @param useCase The bucket of the folder.
      * @param folder The full path of the folder.
+     * @param scanMode The mode used for looking up the files.
+     * @param readyFileStats Statistics of the found files, updated with the files of the folder.
      * @return Error which occurred during processing (Key: file path, value: error).
      */
     private @NotNull
-    Map<FileReference, Throwable> processDirectory(final UseCase useCase, final String folder, final boolean recursive) {
-        // find files
-        final List<FileWithMetadata> readyFiles = fileSystemOutPort.getMatchingFilesWithTags(
-                useCase.getBucket(),
-                folder,
-                recursive,
-                FILE_EXTENSION_PDF,
-                useCase.getRequiredTags(),
-                swimDispatcherProperties.getDispatchExcludeTags());
-        log.info("Found {} ready to process files for use case {} in folder {}", readyFiles.size(), useCase.getName(), folder);
-        // group and validate files
-        final Map<String, FileGroup> groupedFiles = groupingHelper.groupFiles(readyFiles);
-        final Map<FileReference, Throwable> errors = new HashMap<>();
-        // for each file group
-        for (final Map.Entry<String, FileGroup> entry : groupedFiles.entrySet()) {
-            final String baseFileName = entry.getKey();
-            final FileGroup fileGroup = entry.getValue();
-            final List<FileWithMetadata> files = fileGroup.getFiles();
-            try {
-                final boolean validGroup = this.validationHelper.validateFileGroup(useCase, baseFileName, fileGroup);
-                // skip group if not valid
-                if (!validGroup) {
-                    log.info("Skipped invalid group {} for use case {}", baseFileName, useCase.getName());
-                    continue;
-                }
-                this.processFileGroup(useCase, baseFileName, fileGroup);
-            } catch (final MetadataException | UseCaseException | RuntimeException | FileSizeException | FileChunkException e) {
-                log.warn("Error while processing {} file(s) {} for use case {}", files.size(), baseFileName, useCase.getName(), e);
-                // mark files as failed
-                for (final FileWithMetadata file : files) {
-                    fileHandlingHelper.markFileError(file.reference(), swimDispatcherProperties.getDispatchStateTagKey(), e);
+    Map<FileReference, Throwable> processDirectory(final UseCase useCase, final String folder, final boolean recursive, final ScanMode scanMode,
+            final ReadyFiles readyFileStats) {
+        final Map<FileReference, Throwable> errors = new ConcurrentHashMap<>();
+        final Map<String, FileGroup> multiFileGroups = new HashMap<>();
+        final DispatchPipeline.Batch pipeline = dispatchPipeline.start();
+        int fileCount = 0;
+        try {
+            // find files
+            try (Stream<FileWithMetadata> readyFiles = fileSystemOutPort.streamMatchingFilesWithTags(
+                    useCase.getBucket(),
+                    folder,
+                    recursive,
+                    FILE_EXTENSION_PDF,
+                    useCase.getRequiredTags(),
+                    swimDispatcherProperties.getDispatchExcludeTags(),
+                    scanMode)) {
+                final Iterator<FileWithMetadata> readyFilesIterator = readyFiles.iterator();
+                List<FileWithMetadata> batch = new ArrayList<>();
+                while (readyFilesIterator.hasNext()) {
+                    final FileWithMetadata readyFile = readyFilesIterator.next();
+                    readyFileStats.add(readyFile);
+                    batch.add(readyFile);
+                    if (batch.size() >= swimDispatcherProperties.getDispatchBatchSize() || !readyFilesIterator.hasNext()) {
+                        // stop if shard was taken over by another instance in the meantime
+                        if (!shardingHelper.ownsPath(useCase, folder)) {
+                            log.warn("Stopped dispatching folder {} of use case {} as its shard isn't owned by this instance anymore", folder,
+                                    useCase.getName());
+                            return errors;
+                        }
+                        fileCount += batch.size();
+                        // group files
+                        for (final Map.Entry<String, FileGroup> entry : groupingHelper.groupFiles(batch).entrySet()) {
+                            if (entry.getValue().isMulti()) {
+                                // collect chunks until all files are listed
+                                multiFileGroups.merge(entry.getKey(), entry.getValue(), (existing, additional) -> {
+                                    additional.getFiles().forEach(existing::add);
+                                    return existing;
+                                });
+                            } else {
+                                pipeline.submit(() -> this.validateAndProcessFileGroup(useCase, entry.getKey(), entry.getValue(), errors));
+                            }
+                        }
+                        batch = new ArrayList<>();
+                    }
                 }
-                // store exception for later notification
-                for (final FileWithMetadata file : files) {
-                    errors.put(file.reference(), e);
+                log.info("Found {} ready to process files for use case {} in folder {}", fileCount, useCase.getName(), folder);
+                // process chunked files
+                for (final Map.Entry<String, FileGroup> entry : multiFileGroups.entrySet()) {
+                    pipeline.submit(() -> this.validateAndProcessFileGroup(useCase, entry.getKey(), entry.getValue(), errors));
                 }
+            } finally {
+                // wait for all submitted groups to be sent and tagged, also if listing failed
+                pipeline.await();
             }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final String message = String.format("Interrupted while dispatching folder %s of use case %s", folder, useCase.getName());
+            throw new IllegalStateException(message, e);
         }
         return errors;
     }
 
+    /**
+     * Validate and process a file group.
+     * Marks the files as failed if an error occurs.
+     *
+     * @param useCase The use case the files were found for.
+     * @param baseFileName The files name without the split suffix or file extension.
+     * @param fileGroup The files to be processed.
+     * @param errors Errors which occurred during processing, new errors are added.
+     * @return Future which completes after the group was processed, errors are already handled.
+     */
+    private CompletableFuture<Void> validateAndProcessFileGroup(final UseCase useCase, final String baseFileName, final FileGroup fileGroup,
+            final Map<FileReference, Throwable> errors) {
+        CompletableFuture<Void> processed;
+        try {
+            final boolean validGroup = this.validationHelper.validateFileGroup(useCase, baseFileName, fileGroup);
+            // skip group if not valid
+            if (!validGroup) {
+                log.info("Skipped invalid group {} for use case {}", baseFileName, useCase.getName());
+                return CompletableFuture.completedFuture(null);
+            }
+            processed = this.processFileGroup(useCase, baseFileName, fileGroup);
+        } catch (final MetadataException | UseCaseException | RuntimeException | FileSizeException | FileChunkException e) {
+            processed = CompletableFuture.failedFuture(e);
+        }
+        return processed.exceptionally(e -> {
+            this.handleFileGroupError(useCase, baseFileName, fileGroup, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e, errors);
+            return null;
+        });
+    }
+
+    /**
+     * Mark the files of a group as failed and store the error for later notification.
+     *
+     * @param useCase The use case the files were found for.
+     * @param baseFileName The files name without the split suffix or file extension.
+     * @param fileGroup The failed files.
+     * @param e The error which occurred.
+     * @param errors Errors which occurred during processing, the new error is added.
+     */
+    private void handleFileGroupError(final UseCase useCase, final String baseFileName, final FileGroup fileGroup, final Throwable e,
+            final Map<FileReference, Throwable> errors) {
+        final List<FileWithMetadata> files = fileGroup.getFiles();
+        log.warn("Error while processing {} file(s) {} for use case {}", files.size(), baseFileName, useCase.getName(), e);
+        // store exception for later notification
+        for (final FileWithMetadata file : files) {
+            errors.put(file.reference(), e);
+        }
+        // mark files as failed
+        try {
+            for (final FileWithMetadata file : files) {
+                fileHandlingHelper.markFileError(file.reference(), swimDispatcherProperties.getDispatchStateTagKey(), e);
+            }
+        } catch (final RuntimeException markingException) {
+            log.error("Error while marking {} file(s) {} of use case {} as failed", files.size(), baseFileName, useCase.getName(), markingException);
+        }
+    }
+
     /**
      * Process a file group by executing according action (dispatch, reroute, ignore, ...)
      * and mark files as finished.
      * If multiple files only dispatch is supported.
+     * Dispatching completes asynchronously after the event was acknowledged, the other actions
+     * are executed synchronously.
+     * Files aren't dispatched while the destination is throttled, see {@link DispatchThrottlingHelper}.
      *
      * @param useCase The use case the files were found for.
      * @param baseFileName The files name without the split suffix or file extension.
      * @param fileGroup The files to be processed.
+     * @return Future which completes after the action was executed.
      * @throws MetadataException If metadata file required but could not be loaded
      * @throws UseCaseException If use case can't be resolved in reroute action.
      */
-    protected void processFileGroup(final UseCase useCase, final String baseFileName, final FileGroup fileGroup)
+    protected CompletableFuture<Void> processFileGroup(final UseCase useCase, final String baseFileName, final FileGroup fileGroup)
             throws MetadataException, UseCaseException {
+        final long start = System.nanoTime();
         final List<FileWithMetadata> files = fileGroup.getFiles();
         if (!useCase.isSensitiveFilename()) {
             log.info("Processing {} file(s) {} for use case {}", files.size(), baseFileName, useCase.getName());
@@ -150,7 +549,6 @@ public class DispatcherUseCase implements DispatcherInPort {
             throw new IllegalStateException("Other actions than DISPATCH are not allowed for multiple files");
         }
         // execute action
-        String actionName = action.name();
         switch (action) {
         case DELETE, IGNORE:
             this.fileHandlingHelper.finishFile(useCase, files.getFirst().reference());
@@ -159,13 +557,62 @@ public class DispatcherUseCase implements DispatcherInPort {
             this.dispatchActionsHelper.rerouteFileToUseCase(useCase, files.getFirst().reference(), files.getFirst().tags());
             break;
         case DISPATCH:
-            final String destinationBinding = dispatchActionsHelper.resolveDestinationBinding(useCase, fileGroup);
-            this.dispatchActionsHelper.dispatchFileGroup(useCase, fileGroup, destinationBinding);
-            // use destination binding as actionName for more specific metrics
-            actionName = destinationBinding;
-            break;
+            final Metadata metadata = dispatchActionsHelper.loadMetadata(useCase, fileGroup);
+            final String destinationBinding = dispatchActionsHelper.resolveDestinationBinding(useCase, fileGroup, metadata);
+            // skip files if consumer of destination lags behind, they are dispatched by a following scan
+            if (!dispatchThrottlingHelper.hasCapacity(destinationBinding)) {
+                log.debug("Skipped {} file(s) for use case {} as dispatching to {} is throttled", files.size(), useCase.getName(), destinationBinding);
+                dispatchMeter.incrementThrottled(useCase.getName(), destinationBinding);
+                return CompletableFuture.completedFuture(null);
+            }
+            // metrics are updated once the event is published, which is done later if the outbox is enabled
+            return this.dispatchActionsHelper.dispatchFileGroup(useCase, fileGroup, destinationBinding, metadata);
+        default:
+            throw new IllegalStateException("Unknown action " + action);
+        }
+        // update metrics
+        dispatchMeter.incrementDispatched(useCase.getName(), action.name());
+        dispatchMeter.recordGroupDispatchDuration(useCase.getName(), action.name(), Duration.ofNanos(System.nanoTime() - start));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * State of a use case while it is processed.
+     *
+     * @param scanStart Start of the processing.
+     * @param scanMode The mode used for looking up files.
+     * @param errors Errors which occurred during processing (Key: file, value: error).
+     * @param readyFiles Statistics of the files found ready for dispatching.
+     * @param allShards If all shards of the use case are owned by this instance.
+     * @param shards The shards of the use case owned by this instance at the start.
+     * @param scannedFolders The folders processed by this instance.
+     */
+    private record UseCaseRun(Instant scanStart, ScanMode scanMode, Map<FileReference, Throwable> errors, ReadyFiles readyFiles, boolean allShards,
+            List<Integer> shards, Queue<String> scannedFolders) {
+    }
+
+    /**
+     * Number and oldest modification of files found ready for dispatching, updated concurrently by
+     * the folders of a use case.
+     */
+    private static final class ReadyFiles {
+        private final LongAdder count = new LongAdder();
+        private final AtomicReference<Instant> oldest = new AtomicReference<>();
+
+        private void add(final FileWithMetadata file) {
+            count.increment();
+            if (file.lastModified() != null) {
+                final Instant lastModified = file.lastModified().toInstant();
+                oldest.accumulateAndGet(lastModified, (current, candidate) -> current == null || candidate.isBefore(current) ? candidate : current);
+            }
+        }
+
+        private long getCount() {
+            return count.sum();
+        }
+
+        private Instant getOldest() {
+            return oldest.get();
         }
-        // update metric
-        dispatchMeter.incrementDispatched(useCase.getName(), actionName);
     }
 }
@@ -6,11 +6,14 @@ import de.muenchen.oss.swim.dispatcher.application.port.out.NotificationOutPort;
 import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
 import de.muenchen.oss.swim.dispatcher.domain.model.ErrorDetails;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileEventError;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.PresignedFile;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -43,6 +46,23 @@ public class ErrorHandlerUseCase implements ErrorHandlerInPort {
         dispatchMeter.incrementError(useCaseName, cause.source());
     }
 
+    @Override
+    public void handleErrors(final List<FileEventError> errors) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final FileEventError error : errors) {
+                for (final PresignedFile file : error.event().files()) {
+                    executor.execute(() -> {
+                        try {
+                            this.handleError(error.event().useCase(), file, error.cause());
+                        } catch (final RuntimeException e) {
+                            log.error("Error while handling error of use case {}", error.event().useCase(), e);
+                        }
+                    });
+                }
+            }
+        }
+    }
+
     /**
      * Mark a file that has led to an exception while processing.
      *
@@ -7,7 +7,16 @@ import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
 import de.muenchen.oss.swim.dispatcher.domain.exception.PresignedUrlException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.UseCaseException;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import de.muenchen.oss.swim.dispatcher.domain.model.PresignedFile;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.FileEvent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,15 +31,81 @@ public class MarkFileFinishedUseCase implements MarkFileFinishedInPort {
 
     @Override
     public void markFileFinished(final String useCaseName, final String presignedUrl) throws PresignedUrlException, UseCaseException {
+        this.markFilesFinished(useCaseName, List.of(presignedUrl));
+    }
+
+    @Override
+    public void markFilesFinished(final String useCaseName, final List<String> presignedUrls) throws PresignedUrlException, UseCaseException {
         // resolve usecase from name
         final UseCase useCase = this.swimDispatcherProperties.findUseCase(useCaseName);
-        // verify presigned url
-        if (!fileSystemOutPort.verifyPresignedUrl(presignedUrl)) {
-            throw new PresignedUrlException("Presigned url not valid");
+        final List<FileReference> files = this.verifyPresignedUrls(presignedUrls);
+        // finish files
+        fileHandlingHelper.finishFiles(useCase, files);
+    }
+
+    @Override
+    public Map<Integer, Throwable> markEventsFinished(final List<FileEvent> events) {
+        final Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+        // group files by use case and bucket (value: index of event per file)
+        final Map<FinishGroup, Map<FileReference, Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            final FileEvent event = events.get(i);
+            try {
+                final UseCase useCase = this.swimDispatcherProperties.findUseCase(event.useCase());
+                final List<FileReference> files = this.verifyPresignedUrls(event.files().stream().map(PresignedFile::presignedUrl).toList());
+                for (final FileReference file : files) {
+                    groups.computeIfAbsent(new FinishGroup(useCase, file.bucket()), k -> new LinkedHashMap<>()).put(file, i);
+                }
+            } catch (final PresignedUrlException | UseCaseException | RuntimeException e) {
+                failures.put(i, e);
+            }
+        }
+        // finish groups in parallel
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final Map.Entry<FinishGroup, Map<FileReference, Integer>> group : groups.entrySet()) {
+                final Map<FileReference, Integer> eventIndexes = group.getValue();
+                executor.execute(() -> {
+                    try {
+                        fileHandlingHelper.finishFilesPartially(group.getKey().useCase(), List.copyOf(eventIndexes.keySet()))
+                                .forEach((file, e) -> failures.putIfAbsent(eventIndexes.get(file), e));
+                    } catch (final RuntimeException e) {
+                        eventIndexes.values().forEach(index -> failures.putIfAbsent(index, e));
+                    }
+                });
+            }
         }
-        // extract bucket and file path from presigned url
-        final FileReference file = FileReference.fromPresignedUrl(presignedUrl);
-        // finish file
-        fileHandlingHelper.finishFile(useCase, file);
+        if (!failures.isEmpty()) {
+            log.warn("{} of {} finished events couldn't be processed", failures.size(), events.size());
+        }
+        return failures;
+    }
+
+    /**
+     * Verify presigned urls and resolve the files.
+     *
+     * @param presignedUrls The urls to verify.
+     * @return The files of the urls.
+     * @throws PresignedUrlException If an url isn't valid.
+     */
+    private List<FileReference> verifyPresignedUrls(final List<String> presignedUrls) throws PresignedUrlException {
+        final List<FileReference> files = new ArrayList<>();
+        for (final String presignedUrl : presignedUrls) {
+            // verify presigned url
+            if (!fileSystemOutPort.verifyPresignedUrl(presignedUrl)) {
+                throw new PresignedUrlException("Presigned url not valid");
+            }
+            // extract bucket and file path from presigned url
+            files.add(FileReference.fromPresignedUrl(presignedUrl));
+        }
+        return files;
+    }
+
+    /**
+     * Files which are finished together.
+     *
+     * @param useCase The use case of the files.
+     * @param bucket The bucket of the files.
+     */
+    private record FinishGroup(UseCase useCase, String bucket) {
     }
 }
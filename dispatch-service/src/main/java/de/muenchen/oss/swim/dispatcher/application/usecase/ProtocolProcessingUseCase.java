@@ -8,20 +8,31 @@ import de.muenchen.oss.swim.dispatcher.application.port.out.FileSystemOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.NotificationOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.ReadProtocolOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.StoreProtocolOutPort;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchScheduler;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.FileHandlingHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.ProtocolReconciliationHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.ShardingHelper;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import de.muenchen.oss.swim.dispatcher.domain.model.SpooledFile;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
 import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolEntry;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolReconciliation;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -42,41 +53,73 @@ public class ProtocolProcessingUseCase implements ProtocolProcessingInPort {
     private final StoreProtocolOutPort storeProtocolOutPort;
     private final NotificationOutPort notificationOutPort;
     private final FileHandlingHelper fileHandlingHelper;
+    private final ProtocolReconciliationHelper protocolReconciliationHelper;
+    private final DispatchScheduler dispatchScheduler;
+    private final DispatchMeter dispatchMeter;
+    private final ShardingHelper shardingHelper;
+    private final Validator validator;
 
     @Override
     public void triggerProtocolProcessing() {
         log.info("Starting protocol processing");
-        for (final UseCase useCase : swimDispatcherProperties.getUseCases()) {
-            // get protocols not already processed
-            final List<FileWithMetadata> protocolFiles = fileSystemOutPort.getMatchingFilesWithTags(
-                    useCase.getBucket(),
-                    useCase.getDispatchPath(swimDispatcherProperties),
-                    useCase.isRecursive(),
-                    FILE_EXTENSION_CSV,
-                    Map.of(),
-                    swimDispatcherProperties.getProtocolExcludeTags());
-            // for each file
-            log.info("Found {} protocol files for use case {}", protocolFiles.size(), useCase.getName());
-            for (final FileWithMetadata file : protocolFiles) {
-                final FileReference fileReference = file.reference();
-                log.info("Processing protocol {} for use case {}", fileReference.path(), useCase.getName());
-                // skip file if name not matching parent folder
-                if (!fileReference.getParentName().equals(fileReference.getFileNameWithoutExtension())) {
-                    final String message = String.format("Found CSV not matching folder name: %s in bucket %s", fileReference.path(),
-                            fileReference.bucket());
-                    final IllegalStateException exception = new IllegalStateException(message);
-                    log.warn(message);
-                    fileHandlingHelper.markFileError(fileReference, swimDispatcherProperties.getProtocolStateTagKey(), exception);
-                    notificationOutPort.sendProtocolError(useCase.getMailAddresses(), useCase.getName(), fileReference.path(), exception);
-                    continue;
-                }
-                // process protocol
-                this.processProtocolFile(useCase, fileReference);
+        final DispatchScheduler.Run run = dispatchScheduler.start(swimDispatcherProperties.getProtocolConcurrency(), UseCase::getProtocolConcurrency);
+        final List<UseCase> useCases = swimDispatcherProperties.getUseCases().stream()
+                .filter(shardingHelper::ownsRoot)
+                .toList();
+        for (final UseCase useCase : useCases) {
+            run.submit(useCase, () -> this.processUseCaseProtocols(run, useCase));
+        }
+        // wait for all protocols
+        try {
+            run.await();
+        } catch (final InterruptedException e) {
+            log.warn("Interrupted while waiting for protocol processing to finish");
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (final UseCase useCase : useCases) {
+            final List<Throwable> failures = run.getFailures(useCase);
+            if (!failures.isEmpty()) {
+                log.warn("Protocol processing for use case {} finished with {} errors", useCase.getName(), failures.size());
             }
         }
         log.info("Finished protocol processing");
     }
 
+    /**
+     * Look up the protocol files of a use case and submit each for processing.
+     *
+     * @param run The run to submit the protocols to.
+     * @param useCase The use case to process the protocols for.
+     */
+    protected void processUseCaseProtocols(final DispatchScheduler.Run run, final UseCase useCase) {
+        // get protocols not already processed
+        final List<FileWithMetadata> protocolFiles = fileSystemOutPort.getMatchingFilesWithTags(
+                useCase.getBucket(),
+                useCase.getDispatchPath(swimDispatcherProperties),
+                useCase.isRecursive(),
+                FILE_EXTENSION_CSV,
+                Map.of(),
+                swimDispatcherProperties.getProtocolExcludeTags());
+        // for each file
+        log.info("Found {} protocol files for use case {}", protocolFiles.size(), useCase.getName());
+        for (final FileWithMetadata file : protocolFiles) {
+            final FileReference fileReference = file.reference();
+            // skip file if name not matching parent folder
+            if (!fileReference.getParentName().equals(fileReference.getFileNameWithoutExtension())) {
+                final String message = String.format("Found CSV not matching folder name: %s in bucket %s", fileReference.path(),
+                        fileReference.bucket());
+                final IllegalStateException exception = new IllegalStateException(message);
+                log.warn(message);
+                fileHandlingHelper.markFileError(fileReference, swimDispatcherProperties.getProtocolStateTagKey(), exception);
+                notificationOutPort.sendProtocolError(useCase.getMailAddresses(), useCase.getName(), fileReference.path(), exception);
+                continue;
+            }
+            // process protocol
+            run.submit(useCase, () -> this.processProtocolFile(useCase, fileReference));
+        }
+    }
+
     /**
      * Process a single protocol file.
      * Parse file and validate.
@@ -85,65 +128,80 @@ public class ProtocolProcessingUseCase implements ProtocolProcessingInPort {
      * @param file The protocol file.
      */
     protected void processProtocolFile(final UseCase useCase, final FileReference file) {
-        try {
-            // load protocol
-            final List<ProtocolEntry> protocolEntries = readProtocolOutPort.loadProtocol(file);
-            final List<String> protocolFileNames = protocolEntries.stream().map(ProtocolEntry::fileName).toList();
-            // load files in folder
+        log.info("Processing protocol {} for use case {}", file.path(), useCase.getName());
+        final long start = System.nanoTime();
+        boolean successful = false;
+        // download protocol once for parsing and attaching
+        try (SpooledFile protocolFile = fileSystemOutPort.spoolFile(file)) {
+            // stream protocol into db, only the file names are kept for comparison
+            final String protocolName = useCase.getRawPath(swimDispatcherProperties, file.path());
+            final List<String> protocolFileNames = new ArrayList<>();
+            try (Stream<ProtocolEntry> protocolEntries = readProtocolOutPort.streamProtocol(protocolFile)) {
+                final long storedEntries = storeProtocolOutPort.storeProtocol(useCase.getName(), protocolName,
+                        protocolEntries.map(i -> this.validateProtocolEntry(i, protocolFileNames)));
+                log.debug("Stored {} entries of protocol {} for use case {}", storedEntries, protocolName, useCase.getName());
+            }
+            // load files in folder and finished folder
             final List<FileWithMetadata> inProcessFiles = fileSystemOutPort
                     .getMatchingFilesWithTags(file.bucket(), file.getParentPath(), false, FILE_EXTENSION_PDF, Map.of(),
                             Map.of());
-            final List<FileWithMetadata> folderFiles = new ArrayList<>(inProcessFiles);
-            // load files in finished folder
             final String finishedPath = useCase.getFinishedPath(swimDispatcherProperties, file.getParentPath());
-            folderFiles.addAll(fileSystemOutPort.getMatchingFilesWithTags(file.bucket(), finishedPath, false, FILE_EXTENSION_PDF, Map.of(), Map.of()));
-            // parse files
+            final List<FileWithMetadata> finishedFiles = fileSystemOutPort.getMatchingFilesWithTags(file.bucket(), finishedPath, false, FILE_EXTENSION_PDF,
+                    Map.of(), Map.of());
+            // collect file names, filter out files if ignore pattern is set
             final Pattern filenameIgnorePattern = StringUtils.isNotBlank(useCase.getProtocolIgnorePattern())
                     ? Pattern.compile(useCase.getProtocolIgnorePattern())
                     : null;
-            final Set<String> folderFileNames = folderFiles.stream()
-                    // filter ignored files
+            final Set<String> folderFileNames = Stream.concat(inProcessFiles.stream(), finishedFiles.stream())
                     .map(FileWithMetadata::reference)
-                    // map to filename
-                    .filter(f -> {
-                        // filter out files if pattern is set
-                        if (filenameIgnorePattern != null) {
-                            final String fileNameWithoutExtension = f.getFileNameWithoutExtension();
-                            return !filenameIgnorePattern.matcher(fileNameWithoutExtension).matches();
-                        }
-                        return true;
-                    })
-                    .map(FileReference::getFileName).collect(Collectors.toSet());
+                    .filter(f -> filenameIgnorePattern == null || !filenameIgnorePattern.matcher(f.getFileNameWithoutExtension()).matches())
+                    .map(FileReference::getFileName)
+                    .collect(Collectors.toSet());
             // compare files with protocol
-            final List<String> missingInProtocol = new ArrayList<>(folderFileNames);
-            missingInProtocol.removeAll(protocolFileNames);
-            final boolean isMissingInProtocol = !missingInProtocol.isEmpty();
-            final List<String> missingFiles = new ArrayList<>(protocolFileNames);
-            missingFiles.removeAll(folderFileNames);
-            final boolean isMissingFiles = !missingFiles.isEmpty();
+            final ProtocolReconciliation reconciliation = protocolReconciliationHelper.reconcile(useCase.getName(), protocolFileNames, folderFileNames);
+            final List<String> missingInProtocol = reconciliation.missingInProtocol();
+            final boolean isMissingInProtocol = reconciliation.isMissingInProtocol();
+            final List<String> missingFiles = reconciliation.missingFiles();
+            final boolean isMissingFiles = reconciliation.isMissingFiles();
             // tag files if enabled and protocol correct
             if (useCase.isTagProtocolProcessed() && !isMissingFiles && !isMissingInProtocol) {
                 for (final FileWithMetadata fileToTag : inProcessFiles) {
-                    fileSystemOutPort.tagFile(fileToTag.reference(), Map.of(
+                    fileSystemOutPort.tagFile(fileToTag.reference(), fileToTag.etag(), Map.of(
                             swimDispatcherProperties.getDispatchStateTagKey(), swimDispatcherProperties.getProtocolProcessedFilesStateTagValue()));
                 }
             }
-            // write protocol to db
-            final String protocolName = useCase.getRawPath(swimDispatcherProperties, file.path());
-            storeProtocolOutPort.deleteProtocol(useCase.getName(), protocolName);
-            storeProtocolOutPort.storeProtocol(useCase.getName(), protocolName, protocolEntries);
             // send protocol
-            try (InputStream inputStream = fileSystemOutPort.readFile(file)) {
+            try (InputStream inputStream = protocolFile.openStream()) {
                 notificationOutPort.sendProtocol(useCase.getMailAddresses(), useCase.getName(), protocolName, inputStream, missingFiles,
                         missingInProtocol);
             }
             // mark protocol as finished
             markProtocolAsFinished(useCase, file, isMissingInProtocol, isMissingFiles);
+            successful = true;
         } catch (final IOException | RuntimeException e) {
             log.warn("Error file processing {} for use case {}", file.path(), useCase.getName(), e);
             fileHandlingHelper.markFileError(file, swimDispatcherProperties.getProtocolStateTagKey(), e);
             notificationOutPort.sendProtocolError(useCase.getMailAddresses(), useCase.getName(), file.path(), e);
+        } finally {
+            dispatchMeter.recordProtocolProcessingDuration(useCase.getName(), successful, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Validate a protocol entry while the protocol is streamed and collect its file name.
+     *
+     * @param entry The parsed entry.
+     * @param protocolFileNames The file names of the protocol, the file name of the entry is added.
+     * @return The validated entry.
+     * @throws ConstraintViolationException If the entry isn't valid.
+     */
+    private ProtocolEntry validateProtocolEntry(final ProtocolEntry entry, final List<String> protocolFileNames) {
+        final Set<ConstraintViolation<ProtocolEntry>> violations = validator.validate(entry);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
         }
+        protocolFileNames.add(entry.fileName());
+        return entry;
     }
 
     /**
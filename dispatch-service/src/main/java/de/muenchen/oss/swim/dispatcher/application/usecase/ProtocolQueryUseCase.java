@@ -0,0 +1,35 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase;
+
+import de.muenchen.oss.swim.dispatcher.application.port.in.ProtocolQueryInPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.QueryProtocolOutPort;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolCursor;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolPage;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolQuery;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.StoredProtocolEntry;
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ProtocolQueryUseCase implements ProtocolQueryInPort {
+    private final QueryProtocolOutPort queryProtocolOutPort;
+
+    @Override
+    public ProtocolPage findProtocolEntries(final ProtocolQuery query, final ProtocolCursor after, final int limit) {
+        // load one additional entry to know if there is a next page
+        final List<StoredProtocolEntry> entries = queryProtocolOutPort.findProtocolEntries(query, after, limit + 1);
+        if (entries.size() <= limit) {
+            return new ProtocolPage(entries, null);
+        }
+        final List<StoredProtocolEntry> page = entries.subList(0, limit);
+        final StoredProtocolEntry last = page.getLast();
+        return new ProtocolPage(List.copyOf(page), new ProtocolCursor(last.createdAt(), last.id()));
+    }
+
+    @Override
+    public void exportProtocolEntries(final ProtocolQuery query, final Consumer<StoredProtocolEntry> consumer) {
+        queryProtocolOutPort.exportProtocolEntries(query, consumer);
+    }
+}
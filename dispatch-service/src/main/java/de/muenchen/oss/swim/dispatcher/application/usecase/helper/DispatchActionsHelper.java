@@ -2,8 +2,10 @@ package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
 
 import static de.muenchen.oss.swim.dispatcher.domain.model.DispatchAction.DISPATCH;
 
+import de.muenchen.oss.swim.dispatcher.application.port.out.DispatchOutboxOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileDispatchingOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileSystemOutPort;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
 import de.muenchen.oss.swim.dispatcher.domain.exception.FileSystemAccessException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.MetadataException;
@@ -13,15 +15,20 @@ import de.muenchen.oss.swim.dispatcher.domain.model.DispatchAction;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileGroup;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import de.muenchen.oss.swim.dispatcher.domain.model.MessageKeyStrategy;
 import de.muenchen.oss.swim.dispatcher.domain.model.Metadata;
 import de.muenchen.oss.swim.dispatcher.domain.model.PresignedFile;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxFile;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -37,6 +44,9 @@ public class DispatchActionsHelper {
     private final FileDispatchingOutPort fileDispatchingOutPort;
     private final FileHandlingHelper fileHandlingHelper;
     private final MetadataHelper metadataHelper;
+    private final DispatchOutboxOutPort dispatchOutboxOutPort;
+    private final DispatchThrottlingHelper dispatchThrottlingHelper;
+    private final DispatchMeter dispatchMeter;
 
     /**
      * Resolve dispatch action from tags.
@@ -59,6 +69,30 @@ public class DispatchActionsHelper {
         return DispatchAction.valueOf(actionString.toUpperCase(Locale.ROOT));
     }
 
+    /**
+     * Load the metadata file of a file group if it is required for resolving the destination binding
+     * or the message key, so it is only read and parsed once per group.
+     * With multiple files the metadata file of the first file is used.
+     * See {@link UseCase#isOverwriteDestinationViaMetadata()} and {@link MessageKeyStrategy#METADATA}.
+     *
+     * @param useCase The use case of the files.
+     * @param fileGroup The files to load the metadata for.
+     * @return The parsed metadata, null if not required.
+     * @throws MetadataException If metadata file can't be loaded or parsed.
+     */
+    public Metadata loadMetadata(final UseCase useCase, final FileGroup fileGroup) throws MetadataException {
+        final boolean destinationViaMetadata = useCase.isOverwriteDestinationViaMetadata() && !fileGroup.isMulti();
+        if (!destinationViaMetadata && useCase.getMessageKeyStrategy() != MessageKeyStrategy.METADATA) {
+            return null;
+        }
+        final FileReference file = fileGroup.getFiles().getFirst().reference();
+        try (InputStream metadataFileStream = this.fileSystemOutPort.readFile(file.getMetadataFile())) {
+            return metadataHelper.parseMetadataFile(metadataFileStream);
+        } catch (final FileSystemAccessException | IOException e) {
+            throw new MetadataException("Error while loading metadata file", e);
+        }
+    }
+
     /**
      * Resolve destination binding either via metadata file or use case.
      * With multiple files use case is used always.
@@ -67,73 +101,188 @@ public class DispatchActionsHelper {
      *
      * @param useCase The use case to resolve the destination binding for.
      * @param fileGroup The files to resolve the destination binding for.
+     * @param metadata The metadata of the files, see {@link #loadMetadata(UseCase, FileGroup)}.
      * @return The resolved destination binding.
-     * @throws MetadataException If metadata file can't be loaded or parsed.
      */
-    public String resolveDestinationBinding(final UseCase useCase, final FileGroup fileGroup) throws MetadataException {
+    public String resolveDestinationBinding(final UseCase useCase, final FileGroup fileGroup, final Metadata metadata) {
         // if multiple files ignore all overwrites
         if (fileGroup.isMulti()) {
             return useCase.getDestinationBinding();
         }
-        final FileReference file = fileGroup.getFiles().getFirst().reference();
         // resolve via metadata file if enabled
         if (useCase.isOverwriteDestinationViaMetadata()) {
-            try (InputStream metadataFileStream = this.fileSystemOutPort.readFile(file.getMetadataFile())) {
-                final Metadata metadata = metadataHelper.parseMetadataFile(metadataFileStream);
-                final String value = metadata.indexFields().get(swimDispatcherProperties.getMetadataDispatchBindingKey());
-                if (StringUtils.isNotBlank(value)) {
-                    return value;
-                }
-            } catch (final FileSystemAccessException | IOException e) {
-                throw new MetadataException("Destination via metadata: Error while loading metadata file", e);
+            final String value = metadata.indexFields().get(swimDispatcherProperties.getMetadataDispatchBindingKey());
+            if (StringUtils.isNotBlank(value)) {
+                return value;
             }
         }
         // use UseCase destination binding
         return useCase.getDestinationBinding();
     }
 
+    /**
+     * Resolve the Kafka message key of the event for a file group via
+     * {@link UseCase#getMessageKeyStrategy()}.
+     * With multiple files the first file is used.
+     *
+     * @param useCase The use case to resolve the message key for.
+     * @param fileGroup The files to resolve the message key for.
+     * @param metadata The metadata of the files, see {@link #loadMetadata(UseCase, FileGroup)}.
+     * @return The resolved message key together with the strategy it was resolved with.
+     */
+    private MessageKey resolveMessageKey(final UseCase useCase, final FileGroup fileGroup, final Metadata metadata) {
+        final MessageKeyStrategy strategy = useCase.getMessageKeyStrategy();
+        final String key = switch (strategy) {
+        case NONE -> null;
+        case USE_CASE -> useCase.getName();
+        case METADATA -> this.resolveMetadataMessageKey(useCase, metadata);
+        case FILE_NAME -> this.resolveFileNameMessageKey(fileGroup);
+        };
+        // fallback if metadata doesn't contain key
+        if (key == null && strategy == MessageKeyStrategy.METADATA) {
+            log.debug("No message key found in metadata for use case {}, using file name", useCase.getName());
+            return new MessageKey(MessageKeyStrategy.FILE_NAME, this.resolveFileNameMessageKey(fileGroup));
+        }
+        return new MessageKey(strategy, key);
+    }
+
+    private String resolveMetadataMessageKey(final UseCase useCase, final Metadata metadata) {
+        return useCase.getMessageKeyMetadataFields().stream()
+                .map(field -> metadata.indexFields().get(field))
+                .filter(StringUtils::isNotBlank)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Build message key from hash of the base name of the file group.
+     * For multiple files the chunk suffix is removed, so all chunks get the same key.
+     *
+     * @param fileGroup The files to build the key for.
+     * @return The hex encoded hash of the base name.
+     */
+    private String resolveFileNameMessageKey(final FileGroup fileGroup) {
+        final String fileName = fileGroup.getFiles().getFirst().reference().getFileNameWithoutExtension();
+        final Matcher matcher = GroupingHelper.CHUNKED_FILE_PATTERN.matcher(fileName);
+        final String baseName = fileGroup.isMulti() && matcher.matches() ? matcher.group(GroupingHelper.CHUNKED_FILE_BASE_NAME_GROUP) : fileName;
+        // hashed so sensitive file names aren't part of the event
+        return Integer.toHexString(baseName.hashCode());
+    }
+
     /**
      * Dispatch multiple files or one to the use case destination binding.
+     * If {@link SwimDispatcherProperties#isDispatchOutboxEnabled()}, the event is stored in the
+     * outbox and published asynchronously, see {@link #publishFiles}.
+     * Otherwise the files are presigned synchronously, the event is sent asynchronously and the files
+     * are only tagged as dispatched after the send was acknowledged.
+     * The files are counted for throttling and the message key in its metric once they were stored
+     * or sent, see {@link DispatchThrottlingHelper#recordDispatched(String, int)}.
      *
      * @param useCase The use case of the file.
      * @param fileGroup The files.
      * @param destination Destination binding to dispatch to.
-     * @throws MetadataException If metadata file required but could not be loaded.
+     * @param metadata The metadata of the files, see {@link #loadMetadata(UseCase, FileGroup)}.
+     * @return Future which completes after the files were sent and tagged or stored in the outbox.
+     * @throws MetadataException If metadata file required but doesn't exist.
      */
-    public void dispatchFileGroup(final UseCase useCase, final FileGroup fileGroup, final String destination) throws MetadataException {
+    public CompletableFuture<Void> dispatchFileGroup(final UseCase useCase, final FileGroup fileGroup, final String destination, final Metadata metadata)
+            throws MetadataException {
         // check metadata file exists if required
-        final List<PresignedFile> presignedFiles = new ArrayList<>();
+        final List<DispatchOutboxFile> files = new ArrayList<>();
         for (final FileWithMetadata fileWithMeta : fileGroup.getFiles()) {
             final FileReference file = fileWithMeta.reference();
-            final String metadataPresignedUrl;
+            final FileReference metadataFile;
             if (useCase.isRequiresMetadata()) {
                 // build metadata file path
-                final FileReference metadataFile = file.getMetadataFile();
+                metadataFile = file.getMetadataFile();
                 // exit if not existing
                 if (!fileSystemOutPort.fileExists(metadataFile)) {
                     final String message = String.format("Metadata file %s missing", metadataFile);
                     throw new MetadataException(message);
                 }
-                metadataPresignedUrl = fileSystemOutPort.getPresignedUrl(metadataFile);
             } else {
-                metadataPresignedUrl = null;
+                metadataFile = null;
+            }
+            files.add(new DispatchOutboxFile(file, metadataFile, fileWithMeta.etag()));
+        }
+        final MessageKey messageKey = this.resolveMessageKey(useCase, fileGroup, metadata);
+        // store event in outbox
+        if (swimDispatcherProperties.isDispatchOutboxEnabled()) {
+            if (dispatchOutboxOutPort.enqueue(useCase.getName(), destination, fileGroup.isMulti(), messageKey.key(), files)) {
+                this.recordDispatched(useCase, destination, messageKey, files.size());
+            } else {
+                log.info("Skipped {} file(s) for use case {} as they are already waiting in the dispatch outbox", files.size(), useCase.getName());
             }
-            final String presignedUrl = fileSystemOutPort.getPresignedUrl(file);
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.publishFiles(useCase.getName(), destination, fileGroup.isMulti(), messageKey.key(), files)
+                .thenRun(() -> this.recordDispatched(useCase, destination, messageKey, files.size()));
+    }
+
+    private void recordDispatched(final UseCase useCase, final String destination, final MessageKey messageKey, final int files) {
+        dispatchThrottlingHelper.recordDispatched(destination, files);
+        if (messageKey.key() != null) {
+            dispatchMeter.recordMessageKey(useCase.getName(), messageKey.strategy(), messageKey.key());
+        }
+    }
+
+    /**
+     * Check if an event from the dispatch outbox is outdated, because its files were dispatched,
+     * finished or marked as failed since it was enqueued.
+     * The current tags are loaded from S3 instead of relying on the tags of the scan which enqueued
+     * the event, as a scan could load them before the event was published and enqueue it again after.
+     *
+     * @param files The files of the event.
+     * @return If any file doesn't exist anymore or is excluded via
+     *         {@link SwimDispatcherProperties#getDispatchExcludeTags()}.
+     */
+    public boolean isAlreadyDispatched(final List<DispatchOutboxFile> files) {
+        for (final DispatchOutboxFile file : files) {
+            if (fileSystemOutPort.getMatchingFileWithTags(file.file(), Map.of(), swimDispatcherProperties.getDispatchExcludeTags()).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Presign files and send them as event.
+     * The files are only tagged as dispatched and counted in the dispatch metrics after the send was
+     * acknowledged.
+     *
+     * @param useCase The name of the use case of the files.
+     * @param destination Destination binding to dispatch to.
+     * @param multi If the files are sent together as one multi file event.
+     * @param messageKey The Kafka message key of the event, null for sending without key.
+     * @param files The files to send.
+     * @return Future which completes after the files were sent and tagged.
+     */
+    public CompletableFuture<Void> publishFiles(final String useCase, final String destination, final boolean multi, final String messageKey,
+            final List<DispatchOutboxFile> files) {
+        final long start = System.nanoTime();
+        final List<PresignedFile> presignedFiles = new ArrayList<>();
+        for (final DispatchOutboxFile file : files) {
+            final String metadataPresignedUrl = file.metadataFile() == null ? null : fileSystemOutPort.getPresignedUrl(file.metadataFile());
+            final String presignedUrl = fileSystemOutPort.getPresignedUrl(file.file());
             presignedFiles.add(new PresignedFile(presignedUrl, metadataPresignedUrl));
         }
         // dispatch file
-        if (fileGroup.isMulti()) {
-            fileDispatchingOutPort.dispatchFile(destination, useCase.getName(), presignedFiles);
+        final CompletableFuture<Void> sent;
+        if (multi) {
+            sent = fileDispatchingOutPort.dispatchFile(destination, useCase, messageKey, presignedFiles);
         } else {
-            fileDispatchingOutPort.dispatchFile(destination, useCase.getName(), presignedFiles.getFirst());
-        }
-        // mark file as dispatched
-        for (final FileWithMetadata fileWithMeta : fileGroup.getFiles()) {
-            final FileReference file = fileWithMeta.reference();
-            fileSystemOutPort.tagFile(file, Map.of(
-                    swimDispatcherProperties.getDispatchStateTagKey(),
-                    swimDispatcherProperties.getDispatchedStateTagValue()));
+            sent = fileDispatchingOutPort.dispatchFile(destination, useCase, messageKey, presignedFiles.getFirst());
         }
+        // mark file as dispatched after send was acknowledged
+        return sent.thenRun(() -> {
+            for (final DispatchOutboxFile file : files) {
+                fileSystemOutPort.tagFile(file.file(), file.etag(), Map.of(
+                        swimDispatcherProperties.getDispatchStateTagKey(),
+                        swimDispatcherProperties.getDispatchedStateTagValue()));
+            }
+            dispatchMeter.incrementDispatched(useCase, destination);
+            dispatchMeter.recordGroupDispatchDuration(useCase, destination, Duration.ofNanos(System.nanoTime() - start));
+        });
     }
 
     /**
@@ -179,4 +328,13 @@ public class DispatchActionsHelper {
         log.info("File {} rerouted from use case {} to use case {}", file, useCase.getName(),
                 targetUseCase.getName());
     }
+
+    /**
+     * Kafka message key of an event.
+     *
+     * @param strategy The strategy the key was resolved with.
+     * @param key The key, null if sent without key.
+     */
+    private record MessageKey(MessageKeyStrategy strategy, String key) {
+    }
 }
@@ -0,0 +1,106 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pipeline for processing file groups concurrently.
+ * <p>
+ * Each group is processed in its own stage, which runs the blocking steps (e.g. presigning) and
+ * returns a future completing once the asynchronous steps (e.g. sending the event and tagging after
+ * the broker acknowledged it) are done.
+ * The number of groups in flight is limited globally via
+ * {@link SwimDispatcherProperties#getDispatchMaxInFlight()} to bound memory.
+ */
+@Component
+@Slf4j
+public class DispatchPipeline {
+    private final Semaphore inFlight;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DispatchPipeline(final SwimDispatcherProperties swimDispatcherProperties) {
+        this.inFlight = new Semaphore(swimDispatcherProperties.getDispatchMaxInFlight());
+    }
+
+    @PreDestroy
+    /* default */ void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start a new batch of stages which can be awaited together.
+     *
+     * @return The new batch.
+     */
+    public Batch start() {
+        return new Batch();
+    }
+
+    /**
+     * Stages which are awaited together, e.g. the groups of one folder.
+     */
+    public final class Batch {
+        private int pending;
+
+        private Batch() {
+        }
+
+        /**
+         * Submit a stage.
+         * Blocks while the max number of groups is in flight.
+         * Exceptions of the stage are only logged, the stage needs to handle them itself.
+         * If the stage can't be submitted, the exception is thrown and the slot is released.
+         *
+         * @param stage The stage to run, returns a future completing when the stage is done.
+         * @throws InterruptedException If interrupted while waiting for a free slot.
+         */
+        public void submit(final Supplier<CompletableFuture<?>> stage) throws InterruptedException {
+            inFlight.acquire();
+            synchronized (this) {
+                pending++;
+            }
+            final CompletableFuture<CompletableFuture<?>> submitted;
+            try {
+                submitted = CompletableFuture.supplyAsync(stage, executor);
+            } catch (final RuntimeException e) {
+                // e.g. rejected as executor is shut down
+                this.release();
+                throw e;
+            }
+            submitted
+                    .thenCompose(i -> i)
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            log.error("Unhandled error in dispatch stage", e);
+                        }
+                        this.release();
+                    });
+        }
+
+        private void release() {
+            inFlight.release();
+            synchronized (this) {
+                pending--;
+                this.notifyAll();
+            }
+        }
+
+        /**
+         * Wait until all submitted stages are done.
+         *
+         * @throws InterruptedException If interrupted while waiting.
+         */
+        public synchronized void await() throws InterruptedException {
+            while (pending > 0) {
+                this.wait();
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToIntFunction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for running dispatch tasks (e.g. processing a folder) of multiple use cases in
+ * parallel.
+ * <p>
+ * At most {@link SwimDispatcherProperties#getDispatchConcurrency()} tasks run at the same time and
+ * at most {@link UseCase#getDispatchConcurrency()} of them for the same use case.
+ * Other limits can be passed when starting a run, e.g. for processing protocols.
+ * Free workers are assigned to the use cases round-robin, so a use case with many or slow tasks
+ * can't delay the others.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchScheduler {
+    private final SwimDispatcherProperties swimDispatcherProperties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    /* default */ void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start a new run, tasks can be submitted to it until it is awaited.
+     *
+     * @return The new run.
+     */
+    public Run start() {
+        return this.start(swimDispatcherProperties.getDispatchConcurrency(), UseCase::getDispatchConcurrency);
+    }
+
+    /**
+     * Start a new run with custom limits.
+     *
+     * @param maxRunning Max number of tasks running at the same time.
+     * @param useCaseLimit Max number of tasks of a use case running at the same time.
+     * @return The new run.
+     */
+    public Run start(final int maxRunning, final ToIntFunction<UseCase> useCaseLimit) {
+        return new Run(maxRunning, useCaseLimit);
+    }
+
+    /**
+     * A set of tasks which is awaited together.
+     * Tasks can submit further tasks (e.g. for sub-folders) while the run is active.
+     */
+    public final class Run {
+        private final int maxRunning;
+        private final ToIntFunction<UseCase> useCaseLimit;
+        private final List<String> useCaseOrder = new ArrayList<>();
+        private final Map<String, Deque<Runnable>> queues = new HashMap<>();
+        private final Map<String, Integer> limits = new HashMap<>();
+        private final Map<String, Integer> running = new HashMap<>();
+        private final Map<String, List<Throwable>> failures = new HashMap<>();
+        private int totalRunning;
+        private int totalQueued;
+        private int nextUseCase;
+
+        private Run(final int maxRunning, final ToIntFunction<UseCase> useCaseLimit) {
+            this.maxRunning = maxRunning;
+            this.useCaseLimit = useCaseLimit;
+        }
+
+        /**
+         * Submit a task of a use case.
+         * Runtime exceptions thrown by the task are collected, see {@link #getFailures}.
+         *
+         * @param useCase The use case the task belongs to.
+         * @param task The task to run.
+         */
+        public synchronized void submit(final UseCase useCase, final Runnable task) {
+            final String name = useCase.getName();
+            if (!queues.containsKey(name)) {
+                useCaseOrder.add(name);
+                queues.put(name, new ArrayDeque<>());
+                limits.put(name, useCaseLimit.applyAsInt(useCase));
+                running.put(name, 0);
+            }
+            queues.get(name).add(task);
+            totalQueued++;
+            this.schedule();
+        }
+
+        /**
+         * Wait until all submitted tasks, including the ones submitted by other tasks, are finished.
+         *
+         * @throws InterruptedException If interrupted while waiting.
+         */
+        public synchronized void await() throws InterruptedException {
+            while (totalRunning > 0 || totalQueued > 0) {
+                this.wait();
+            }
+        }
+
+        /**
+         * Get the exceptions thrown by the tasks of a use case.
+         *
+         * @param useCase The use case to get the exceptions for.
+         * @return The thrown exceptions.
+         */
+        public synchronized List<Throwable> getFailures(final UseCase useCase) {
+            return List.copyOf(failures.getOrDefault(useCase.getName(), List.of()));
+        }
+
+        /**
+         * Start queued tasks while workers are free, picking the use cases round-robin.
+         */
+        private void schedule() {
+            while (totalRunning < maxRunning) {
+                final String useCase = this.nextEligibleUseCase();
+                if (useCase == null) {
+                    return;
+                }
+                final Runnable task = queues.get(useCase).poll();
+                totalQueued--;
+                totalRunning++;
+                running.merge(useCase, 1, Integer::sum);
+                executor.execute(() -> this.execute(useCase, task));
+            }
+        }
+
+        private String nextEligibleUseCase() {
+            for (int i = 0; i < useCaseOrder.size(); i++) {
+                final int index = (nextUseCase + i) % useCaseOrder.size();
+                final String useCase = useCaseOrder.get(index);
+                if (!queues.get(useCase).isEmpty() && running.get(useCase) < limits.get(useCase)) {
+                    nextUseCase = index + 1;
+                    return useCase;
+                }
+            }
+            return null;
+        }
+
+        private void execute(final String useCase, final Runnable task) {
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                log.error("Dispatch task of use case {} failed", useCase, e);
+                synchronized (this) {
+                    failures.computeIfAbsent(useCase, k -> new ArrayList<>()).add(e);
+                }
+            } finally {
+                synchronized (this) {
+                    totalRunning--;
+                    running.merge(useCase, -1, Integer::sum);
+                    this.schedule();
+                    this.notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.ConsumerLagOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.DispatchOutboxOutPort;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the files dispatched to a destination by the lag of the consumer group of the handler
+ * service, so the presigned urls of the events don't expire before they are consumed.
+ * <p>
+ * The lag is loaded in the interval of
+ * {@link SwimDispatcherProperties#getDispatchConsumerLagRefreshInterval()}. Files of events still
+ * waiting in the dispatch outbox are added to it, as they aren't part of the topic yet. Files
+ * dispatched in between are added to the loaded lag once they were sent or stored in the outbox,
+ * via {@link #recordDispatched(String, int)}. As groups are only charged after they were
+ * dispatched, concurrently dispatched groups can exceed the limit by the dispatch parallelism.
+ * Each file counts once, even though a multi file event is a single record in the lag.
+ * While the lag is refreshed, other dispatches don't wait but use the last loaded lag. If the lag
+ * can't be loaded, dispatching isn't limited.
+ * Only destinations with a consumer group in {@link SwimDispatcherProperties#getDispatchConsumerGroups()}
+ * are limited.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchThrottlingHelper {
+    private final SwimDispatcherProperties swimDispatcherProperties;
+    private final ConsumerLagOutPort consumerLagOutPort;
+    private final DispatchOutboxOutPort dispatchOutboxOutPort;
+    private final DispatchMeter dispatchMeter;
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Check if files can be dispatched to a destination.
+     * The files aren't counted until they were dispatched, see {@link #recordDispatched(String, int)}.
+     *
+     * @param destination The destination binding the files are dispatched to.
+     * @return If files can be dispatched.
+     */
+    public boolean hasCapacity(final String destination) {
+        final Budget budget = this.getBudget(destination);
+        if (budget == null) {
+            return true;
+        }
+        // only one caller refreshes the lag, the others don't wait and use the last loaded lag
+        if (budget.isOutdated(swimDispatcherProperties.getDispatchConsumerLagRefreshInterval()) && budget.refreshLock.tryLock()) {
+            try {
+                if (budget.isOutdated(swimDispatcherProperties.getDispatchConsumerLagRefreshInterval())) {
+                    this.refresh(destination, swimDispatcherProperties.getDispatchConsumerGroups().get(destination), budget);
+                }
+            } finally {
+                budget.refreshLock.unlock();
+            }
+        }
+        return budget.hasCapacity(swimDispatcherProperties.getDispatchMaxConsumerLag());
+    }
+
+    /**
+     * Count files which were sent to a destination or stored in the dispatch outbox.
+     *
+     * @param destination The destination binding the files were dispatched to.
+     * @param files The number of files.
+     */
+    public void recordDispatched(final String destination, final int files) {
+        final Budget budget = this.getBudget(destination);
+        if (budget != null) {
+            budget.dispatched.addAndGet(files);
+        }
+    }
+
+    private Budget getBudget(final String destination) {
+        if (!swimDispatcherProperties.isDispatchThrottlingEnabled() || !swimDispatcherProperties.getDispatchConsumerGroups().containsKey(destination)) {
+            return null;
+        }
+        return budgets.computeIfAbsent(destination, k -> new Budget());
+    }
+
+    private void refresh(final String destination, final String consumerGroup, final Budget budget) {
+        final Instant now = Instant.now();
+        long lag;
+        try {
+            final long consumerLag = consumerLagOutPort.getConsumerLag(destination, consumerGroup);
+            dispatchMeter.updateConsumerLag(destination, consumerLag);
+            // events in the outbox are counted until they are published and part of the consumer lag
+            final long pending = swimDispatcherProperties.isDispatchOutboxEnabled() ? dispatchOutboxOutPort.countPendingFiles(destination) : 0;
+            lag = consumerLag + pending;
+            if (lag >= swimDispatcherProperties.getDispatchMaxConsumerLag()) {
+                log.info("Throttling dispatching to {} as consumer group {} lags behind by {} events and {} files are waiting in the dispatch outbox",
+                        destination, consumerGroup, consumerLag, pending);
+            }
+        } catch (final RuntimeException e) {
+            log.warn("Loading consumer lag of group {} for destination {} failed, dispatching isn't limited", consumerGroup, destination, e);
+            lag = 0;
+        }
+        // files dispatched until the lag was loaded are contained in it
+        budget.update(lag, now);
+    }
+
+    /**
+     * Lag of a destination and the files dispatched since it was loaded.
+     */
+    private static final class Budget {
+        private final ReentrantLock refreshLock = new ReentrantLock();
+        private final AtomicLong dispatched = new AtomicLong();
+        private volatile Instant refreshedAt;
+        private volatile long lag;
+
+        private boolean isOutdated(final Duration refreshInterval) {
+            final Instant lastRefresh = refreshedAt;
+            return lastRefresh == null || Instant.now().isAfter(lastRefresh.plus(refreshInterval));
+        }
+
+        private void update(final long newLag, final Instant loadedAt) {
+            lag = newLag;
+            dispatched.set(0);
+            refreshedAt = loadedAt;
+        }
+
+        private boolean hasCapacity(final long maxLag) {
+            return lag + dispatched.get() < maxLag;
+        }
+    }
+}
@@ -3,8 +3,12 @@ package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileSystemOutPort;
 import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.exception.FileSystemAccessException;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileOperationResult;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -46,36 +50,90 @@ public class FileHandlingHelper {
 
     /**
      * Tag file and move to finished directory.
-     * The metadata file is also handled if {@link UseCase#isRequiresMetadata()} and file exists.
+     * See {@link #finishFiles}.
      *
      * @param useCase The use case of the file.
      * @param file The file to finish.
      */
     public void finishFile(final UseCase useCase, final FileReference file) {
-        // finish metadata file if required and exists
-        final FileReference metadataFile = file.getMetadataFile();
-        if (useCase.isRequiresMetadata() && this.fileSystemOutPort.fileExists(metadataFile)) {
-            this.markFileAsFinished(useCase, metadataFile);
+        this.finishFiles(useCase, List.of(file));
+    }
+
+    /**
+     * Tag files and move to finished directory.
+     * The metadata files are also handled if {@link UseCase#isRequiresMetadata()} and files exist.
+     * All files are moved together and tagged while moving, see {@link FileSystemOutPort#moveFiles}.
+     *
+     * @param useCase The use case of the files.
+     * @param files The files to finish.
+     * @throws FileSystemAccessException If a file can't be found or moved.
+     */
+    public void finishFiles(final UseCase useCase, final List<FileReference> files) {
+        final FileOperationResult result = this.moveFilesToFinished(useCase, files);
+        // fail if files couldn't be finished
+        if (!result.failed().isEmpty()) {
+            final Map.Entry<FileReference, Throwable> failure = result.failed().entrySet().iterator().next();
+            final String message = String.format("Error while finishing files %s", result.failed().keySet());
+            throw new FileSystemAccessException(message, failure.getValue());
+        }
+        final List<FileReference> missingFiles = files.stream().filter(result.missing()::contains).toList();
+        if (!missingFiles.isEmpty()) {
+            throw new FileSystemAccessException(String.format("Files %s can't be found", missingFiles));
+        }
+    }
+
+    /**
+     * Tag files and move to finished directory like {@link #finishFiles}, but collect the failures
+     * per file instead of failing, so the other files are still finished.
+     * A failure of a metadata file is reported for its file.
+     *
+     * @param useCase The use case of the files.
+     * @param files The files to finish.
+     * @return Files which couldn't be found or moved (Key: file, value: error).
+     */
+    public Map<FileReference, Throwable> finishFilesPartially(final UseCase useCase, final List<FileReference> files) {
+        final FileOperationResult result = this.moveFilesToFinished(useCase, files);
+        final Map<FileReference, Throwable> failures = new LinkedHashMap<>();
+        for (final FileReference file : files) {
+            Throwable failure = result.failed().get(file);
+            if (failure == null && useCase.isRequiresMetadata()) {
+                failure = result.failed().get(file.getMetadataFile());
+            }
+            if (failure == null && result.missing().contains(file)) {
+                failure = new FileSystemAccessException(String.format("File %s can't be found", file));
+            }
+            if (failure != null) {
+                failures.put(file, failure);
+            }
         }
-        // finish file
-        this.markFileAsFinished(useCase, file);
+        return failures;
     }
 
     /**
-     * Tag file as finished and move to finished dir.
+     * Move files and their metadata files (if required) to the finished directory and tag them.
      *
-     * @param useCase Use case of the file.
-     * @param file Reference of the file.
+     * @param useCase The use case of the files.
+     * @param files The files to move.
+     * @return The result of the move.
      */
-    private void markFileAsFinished(final UseCase useCase, final FileReference file) {
-        // move file
-        final String destPath = useCase.getFinishedPath(swimDispatcherProperties, file.path());
-        fileSystemOutPort.moveFile(file, destPath);
-        log.info("Finished file {} in use case {}", file.path(), useCase.getName());
-        // tag file in finished folder as finished
-        fileSystemOutPort.tagFile(new FileReference(file.bucket(), destPath), Map.of(
+    private FileOperationResult moveFilesToFinished(final UseCase useCase, final List<FileReference> files) {
+        final Map<FileReference, String> filesToMove = new LinkedHashMap<>();
+        for (final FileReference file : files) {
+            filesToMove.put(file, useCase.getFinishedPath(swimDispatcherProperties, file.path()));
+            // finish metadata file if required and exists
+            if (useCase.isRequiresMetadata()) {
+                final FileReference metadataFile = file.getMetadataFile();
+                filesToMove.put(metadataFile, useCase.getFinishedPath(swimDispatcherProperties, metadataFile.path()));
+            }
+        }
+        // move files and tag as finished
+        final FileOperationResult result = fileSystemOutPort.moveFiles(filesToMove, Map.of(
                 swimDispatcherProperties.getDispatchStateTagKey(), swimDispatcherProperties.getDispatchFileFinishedTagValue()));
-        // update metric
-        dispatchMeter.incrementFinished(useCase.getName());
+        for (final FileReference finishedFile : result.succeeded()) {
+            log.info("Finished file {} in use case {}", finishedFile.path(), useCase.getName());
+            // update metric
+            dispatchMeter.incrementFinished(useCase.getName());
+        }
+        return result;
     }
 }
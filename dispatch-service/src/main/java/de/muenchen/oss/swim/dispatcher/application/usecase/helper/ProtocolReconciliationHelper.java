@@ -0,0 +1,74 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolReconciliation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares the file names of a protocol with the files in the protocol folder.
+ * Both sides are indexed via hash sets, so the comparison is linear in the number of files.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProtocolReconciliationHelper {
+    private final DispatchMeter dispatchMeter;
+
+    /**
+     * Reconcile a protocol with the folder files.
+     * File names listed multiple times in the protocol are only compared once and reported as
+     * duplicates.
+     *
+     * @param useCase The use case the protocol belongs to, used for metrics.
+     * @param protocolFileNames The file names listed in the protocol.
+     * @param folderFileNames The names of the files in the folder.
+     * @return The result of the reconciliation.
+     */
+    public ProtocolReconciliation reconcile(final String useCase, final Collection<String> protocolFileNames, final Collection<String> folderFileNames) {
+        // index protocol and detect duplicates
+        final Map<String, Integer> protocolCounts = new HashMap<>((int) (protocolFileNames.size() / 0.75f) + 1);
+        for (final String fileName : protocolFileNames) {
+            protocolCounts.merge(fileName, 1, Integer::sum);
+        }
+        final Map<String, Integer> duplicates = new TreeMap<>();
+        protocolCounts.forEach((fileName, count) -> {
+            if (count > 1) {
+                duplicates.put(fileName, count);
+            }
+        });
+        // compare
+        final Set<String> folder = folderFileNames instanceof Set<String> set ? set : new HashSet<>(folderFileNames);
+        final List<String> missingInProtocol = new ArrayList<>();
+        for (final String fileName : folder) {
+            if (!protocolCounts.containsKey(fileName)) {
+                missingInProtocol.add(fileName);
+            }
+        }
+        final List<String> missingFiles = new ArrayList<>();
+        for (final String fileName : protocolCounts.keySet()) {
+            if (!folder.contains(fileName)) {
+                missingFiles.add(fileName);
+            }
+        }
+        missingInProtocol.sort(null);
+        missingFiles.sort(null);
+        final int matched = protocolCounts.size() - missingFiles.size();
+        final ProtocolReconciliation reconciliation = new ProtocolReconciliation(matched, List.copyOf(missingInProtocol), List.copyOf(missingFiles),
+                Map.copyOf(duplicates));
+        if (reconciliation.hasDuplicatesInProtocol()) {
+            log.warn("Found {} duplicate file names in protocol for use case {}: {}", duplicates.size(), useCase, duplicates.keySet());
+        }
+        dispatchMeter.recordProtocolReconciliation(useCase, reconciliation);
+        return reconciliation;
+    }
+}
@@ -0,0 +1,243 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.LeaseOutPort;
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits the use cases between multiple running instances via leases.
+ * <p>
+ * Each use case is split into {@link UseCase#getDispatchShards()} shards. The files directly in the
+ * dispatch folder and the protocols belong to the first shard, the sub-folders are assigned to the
+ * shards via the hash of their name.
+ * Each instance holds the leases of up to an equal share of all shards. Surplus leases are released
+ * when another instance joins and leases of an instance which stopped renewing are taken over by the
+ * others after they expired.
+ * The leases are renewed on an own thread in the interval of
+ * {@link SwimDispatcherProperties#getShardLeaseRenewInterval()}, so long-running dispatch runs don't
+ * delay the renewal.
+ * If {@link SwimDispatcherProperties#isShardingEnabled()} is disabled, all shards are owned.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShardingHelper {
+    private final SwimDispatcherProperties swimDispatcherProperties;
+    private final LeaseOutPort leaseOutPort;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ScheduledExecutorService renewExecutor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("shard-lease-renewal").daemon().factory());
+    private volatile Set<String> ownedShards = Set.of();
+    /**
+     * Time until the owned shards are valid without a successful renewal.
+     */
+    private volatile Instant validUntil = Instant.MIN;
+
+    @PostConstruct
+    /* default */ void startRenewal() {
+        if (!swimDispatcherProperties.isShardingEnabled()) {
+            return;
+        }
+        final long interval = swimDispatcherProperties.getShardLeaseRenewInterval().toMillis();
+        renewExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                this.renewLeases();
+            } catch (final RuntimeException e) {
+                log.error("Renewing shard leases of instance {} failed", instanceId, e);
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    /* default */ void shutdown() {
+        renewExecutor.shutdownNow();
+        if (!swimDispatcherProperties.isShardingEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            ownedShards = Set.of();
+            try {
+                leaseOutPort.unregisterInstance(instanceId);
+            } catch (final RuntimeException e) {
+                log.warn("Releasing shard leases of instance {} failed", instanceId, e);
+            }
+        }
+    }
+
+    /**
+     * Renew the leases of this instance and rebalance the shards between the active instances.
+     */
+    public synchronized void renewLeases() {
+        if (!swimDispatcherProperties.isShardingEnabled()) {
+            return;
+        }
+        final Instant renewStart = Instant.now();
+        final Duration leaseDuration = swimDispatcherProperties.getShardLeaseDuration();
+        final List<String> shards = new ArrayList<>(this.getAllShards());
+        leaseOutPort.registerInstance(instanceId, leaseDuration);
+        final Set<String> owned = new HashSet<>(leaseOutPort.renewLeases(instanceId, leaseDuration));
+        // release shards of removed use cases
+        final Set<String> unknown = new HashSet<>(owned);
+        shards.forEach(unknown::remove);
+        leaseOutPort.releaseLeases(instanceId, unknown);
+        owned.removeAll(unknown);
+        // balance shards
+        final int instances = Math.max(1, leaseOutPort.countActiveInstances());
+        final int target = Math.ceilDiv(shards.size(), instances);
+        if (owned.size() > target) {
+            final List<String> surplus = owned.stream().sorted().skip(target).toList();
+            leaseOutPort.releaseLeases(instanceId, surplus);
+            surplus.forEach(owned::remove);
+        } else {
+            // start at a different shard per instance to reduce conflicts
+            final int offset = Math.floorMod(instanceId.hashCode(), Math.max(1, shards.size()));
+            for (int i = 0; i < shards.size() && owned.size() < target; i++) {
+                final String shard = shards.get((offset + i) % shards.size());
+                if (!owned.contains(shard) && leaseOutPort.acquireLease(shard, instanceId, leaseDuration)) {
+                    owned.add(shard);
+                }
+            }
+        }
+        if (!owned.equals(ownedShards)) {
+            log.info("Instance {} owns {} of {} shards with {} active instance(s): {}", instanceId, owned.size(), shards.size(), instances,
+                    owned.stream().sorted().toList());
+        }
+        ownedShards = Set.copyOf(owned);
+        validUntil = renewStart.plus(leaseDuration);
+    }
+
+    /**
+     * Check if this instance owns the first shard of a use case, which contains the files directly in
+     * the dispatch folder and the protocols.
+     *
+     * @param useCase The use case to check.
+     * @return If the shard is owned.
+     */
+    public boolean ownsRoot(final UseCase useCase) {
+        return this.ownsShard(useCase, 0);
+    }
+
+    /**
+     * Check if this instance owns the shard of a folder or file inside the dispatch folder of a use
+     * case.
+     *
+     * @param useCase The use case of the path.
+     * @param path The full path of the folder or file.
+     * @return If the shard of the path is owned.
+     */
+    public boolean ownsPath(final UseCase useCase, final String path) {
+        return this.ownsShard(useCase, this.resolveShard(useCase, path));
+    }
+
+    /**
+     * Check if this instance owns any shard of a use case.
+     *
+     * @param useCase The use case to check.
+     * @return If any shard is owned.
+     */
+    public boolean ownsAny(final UseCase useCase) {
+        for (int i = 0; i < this.getShardCount(useCase); i++) {
+            if (this.ownsShard(useCase, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if this instance owns all shards of a use case.
+     *
+     * @param useCase The use case to check.
+     * @return If all shards are owned.
+     */
+    public boolean ownsAll(final UseCase useCase) {
+        for (int i = 0; i < this.getShardCount(useCase); i++) {
+            if (!this.ownsShard(useCase, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the shards of a use case which are owned by this instance.
+     *
+     * @param useCase The use case to get the shards of.
+     * @return The indexes of the owned shards.
+     */
+    public List<Integer> getOwnedShards(final UseCase useCase) {
+        final List<Integer> shards = new ArrayList<>();
+        for (int i = 0; i < this.getShardCount(useCase); i++) {
+            if (this.ownsShard(useCase, i)) {
+                shards.add(i);
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Resolve the shard of a folder or file via the name of the sub-folder it is located in.
+     *
+     * @param useCase The use case of the path.
+     * @param path The full path of the folder or file.
+     * @return The index of the shard.
+     */
+    protected int resolveShard(final UseCase useCase, final String path) {
+        final int shards = this.getShardCount(useCase);
+        final String dispatchPath = useCase.getDispatchPath(swimDispatcherProperties) + "/";
+        if (shards == 1 || !path.startsWith(dispatchPath)) {
+            return 0;
+        }
+        final String relativePath = path.substring(dispatchPath.length());
+        final int separator = relativePath.indexOf('/');
+        if (separator == -1) {
+            // file directly in dispatch folder
+            return 0;
+        }
+        return Math.floorMod(relativePath.substring(0, separator).hashCode(), shards);
+    }
+
+    private boolean ownsShard(final UseCase useCase, final int shard) {
+        if (!swimDispatcherProperties.isShardingEnabled()) {
+            return true;
+        }
+        if (Instant.now().isAfter(validUntil)) {
+            return false;
+        }
+        return ownedShards.contains(this.shardName(useCase, shard));
+    }
+
+    private int getShardCount(final UseCase useCase) {
+        return useCase.isRecursive() ? useCase.getDispatchShards() : 1;
+    }
+
+    private Set<String> getAllShards() {
+        final Set<String> shards = new LinkedHashSet<>();
+        for (final UseCase useCase : swimDispatcherProperties.getUseCases()) {
+            for (int i = 0; i < this.getShardCount(useCase); i++) {
+                shards.add(this.shardName(useCase, i));
+            }
+        }
+        return shards;
+    }
+
+    private String shardName(final UseCase useCase, final int shard) {
+        return useCase.getName() + "#" + shard;
+    }
+}
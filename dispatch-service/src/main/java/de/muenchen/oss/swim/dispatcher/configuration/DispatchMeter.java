@@ -1,22 +1,51 @@
 package de.muenchen.oss.swim.dispatcher.configuration;
 
+import de.muenchen.oss.swim.dispatcher.domain.model.MessageKeyStrategy;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolReconciliation;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
 public class DispatchMeter {
+    /**
+     * Number of buckets message keys are hashed into for the key distribution metric.
+     */
+    public static final int MESSAGE_KEY_BUCKETS = 16;
+
     private final MeterRegistry meterRegistry;
     private final Map<String, Counter> dispatchedCounters = new ConcurrentHashMap<>();
     private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
     private final Map<String, Counter> finishedCounters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> tagLoadingInFlightGauges = new ConcurrentHashMap<>();
+    private final Map<String, Timer> scanTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> tagCacheCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> protocolReconciliationCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> protocolProcessingTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> folderScanTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> groupDispatchTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> s3OperationTimers = new ConcurrentHashMap<>();
+    private final Map<String, ReadyFiles> readyFilesGauges = new ConcurrentHashMap<>();
+    private final Map<String, Timer> endToEndTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> messageKeyCounters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> consumerLagGauges = new ConcurrentHashMap<>();
+    private final Map<String, Counter> throttledCounters = new ConcurrentHashMap<>();
 
     /**
      * Increment counter metric of successfully dispatched files.
+     * Events are counted once they are published, events already waiting in the dispatch outbox
+     * aren't counted again.
      *
      * @param useCase The use case of the file.
      * @param actionName The action which was executed or the destination the file was dispatched to.
@@ -56,4 +85,262 @@ public class DispatchMeter {
                 .register(meterRegistry));
         counter.increment();
     }
+
+    /**
+     * Increment gauge metric of tag requests currently in flight.
+     *
+     * @param bucket The bucket the tags are loaded from.
+     */
+    public void incrementTagLoadingInFlight(final String bucket) {
+        this.getTagLoadingInFlightGauge(bucket).incrementAndGet();
+    }
+
+    /**
+     * Decrement gauge metric of tag requests currently in flight.
+     *
+     * @param bucket The bucket the tags are loaded from.
+     */
+    public void decrementTagLoadingInFlight(final String bucket) {
+        this.getTagLoadingInFlightGauge(bucket).decrementAndGet();
+    }
+
+    /**
+     * Record duration of a file lookup including loading the tags.
+     *
+     * @param bucket The bucket which was scanned.
+     * @param duration The duration of the scan.
+     */
+    public void recordScanDuration(final String bucket, final Duration duration) {
+        final Timer timer = scanTimers.computeIfAbsent(bucket, k -> Timer.builder("swim_dispatch_scan_duration")
+                .tag("bucket", bucket)
+                .register(meterRegistry));
+        timer.record(duration);
+    }
+
+    /**
+     * Increment counter metric of tag cache requests.
+     *
+     * @param bucket The bucket of the requested file.
+     * @param hit If the tags were found in the cache.
+     */
+    public void incrementTagCacheRequest(final String bucket, final boolean hit) {
+        final String result = hit ? "hit" : "miss";
+        final String key = bucket + "_" + result;
+        final Counter counter = tagCacheCounters.computeIfAbsent(key, k -> Counter.builder("swim_dispatch_tag_cache_requests")
+                .tag("bucket", bucket)
+                .tag("result", result)
+                .register(meterRegistry));
+        counter.increment();
+    }
+
+    /**
+     * Increment counter metrics of reconciled protocol files by category.
+     *
+     * @param useCase The use case of the protocol.
+     * @param reconciliation The result of the reconciliation.
+     */
+    public void recordProtocolReconciliation(final String useCase, final ProtocolReconciliation reconciliation) {
+        this.incrementProtocolReconciliation(useCase, "matched", reconciliation.matched());
+        this.incrementProtocolReconciliation(useCase, "missing-in-protocol", reconciliation.missingInProtocol().size());
+        this.incrementProtocolReconciliation(useCase, "missing-files", reconciliation.missingFiles().size());
+        this.incrementProtocolReconciliation(useCase, "duplicate-in-protocol", reconciliation.duplicatesInProtocol().size());
+    }
+
+    /**
+     * Record duration of processing a protocol.
+     *
+     * @param useCase The use case of the protocol.
+     * @param successful If the protocol was processed without error.
+     * @param duration The duration of the processing.
+     */
+    public void recordProtocolProcessingDuration(final String useCase, final boolean successful, final Duration duration) {
+        final String result = successful ? "success" : "error";
+        final String key = useCase + "_" + result;
+        final Timer timer = protocolProcessingTimers.computeIfAbsent(key, k -> Timer.builder("swim_dispatch_protocol_processing_duration")
+                .tag("use-case", useCase)
+                .tag("result", result)
+                .register(meterRegistry));
+        timer.record(duration);
+    }
+
+    private void incrementProtocolReconciliation(final String useCase, final String category, final int amount) {
+        final String key = useCase + "_" + category;
+        final Counter counter = protocolReconciliationCounters.computeIfAbsent(key, k -> Counter.builder("swim_dispatch_protocol_reconciliation_files")
+                .tag("use-case", useCase)
+                .tag("category", category)
+                .register(meterRegistry));
+        counter.increment(amount);
+    }
+
+    /**
+     * Record duration of processing a folder while dispatching, including the lookup of the files
+     * and dispatching them.
+     *
+     * @param useCase The use case of the folder.
+     * @param folderType Type of the folder, the dispatch folder itself ("root") or one of its
+     *            sub-folders ("sub-folder"). The path isn't used to keep the number of series low.
+     * @param duration The duration of the processing.
+     */
+    public void recordFolderScanDuration(final String useCase, final String folderType, final Duration duration) {
+        final String key = useCase + "_" + folderType;
+        final Timer timer = folderScanTimers.computeIfAbsent(key, k -> Timer.builder("swim_dispatch_folder_scan_duration")
+                .tag("use-case", useCase)
+                .tag("folder", folderType)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        timer.record(duration);
+    }
+
+    /**
+     * Record duration of processing a file group, from resolving the action until the action was
+     * executed. For dispatched files from presigning until the event was acknowledged and the files
+     * were tagged, also if the event is published from the dispatch outbox.
+     *
+     * @param useCase The use case of the files.
+     * @param actionName The action which was executed or the destination the files were dispatched
+     *            to.
+     * @param duration The duration of the processing.
+     */
+    public void recordGroupDispatchDuration(final String useCase, final String actionName, final Duration duration) {
+        final String key = useCase + "_" + actionName;
+        final Timer timer = groupDispatchTimers.computeIfAbsent(key, k -> Timer.builder("swim_dispatch_group_dispatch_duration")
+                .tag("use-case", useCase)
+                .tag("destination", actionName)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        timer.record(duration);
+    }
+
+    /**
+     * Record latency of a S3 request.
+     *
+     * @param operation The type of the operation (e.g. list, get-tags, copy).
+     * @param status The status class of the response (e.g. 2xx) or "io-error".
+     * @param duration The duration until the response was received.
+     */
+    public void recordS3Operation(final String operation, final String status, final Duration duration) {
+        final String key = operation + "_" + status;
+        final Timer timer = s3OperationTimers.computeIfAbsent(key, k -> Timer.builder("swim_dispatch_s3_operation_duration")
+                .tag("operation", operation)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        timer.record(duration);
+    }
+
+    /**
+     * Update gauge metrics of files which were ready for dispatching in the last scan of a use case.
+     * The age of the oldest file is computed when the gauge is read.
+     *
+     * @param useCase The scanned use case.
+     * @param count Number of files ready for dispatching.
+     * @param oldest Last modification of the oldest ready file, null if no file was ready.
+     */
+    public void updateReadyFiles(final String useCase, final long count, final Instant oldest) {
+        final ReadyFiles readyFiles = readyFilesGauges.computeIfAbsent(useCase, k -> {
+            final ReadyFiles gauges = new ReadyFiles();
+            Gauge.builder("swim_dispatch_ready_files", gauges, ReadyFiles::getCount)
+                    .tag("use-case", useCase)
+                    .register(meterRegistry);
+            Gauge.builder("swim_dispatch_oldest_ready_file_age", gauges, ReadyFiles::getOldestAgeSeconds)
+                    .tag("use-case", useCase)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            return gauges;
+        });
+        readyFiles.update(count, oldest);
+    }
+
+    /**
+     * Record end-to-end latency of a dispatched event, from sending it to a handler service until
+     * the finished event was received.
+     *
+     * @param useCase The use case of the event.
+     * @param destination The destination the event was dispatched to.
+     * @param duration The duration between dispatching and receiving the finished event.
+     */
+    public void recordEndToEndDuration(final String useCase, final String destination, final Duration duration) {
+        final String key = useCase + "_" + destination;
+        final Timer timer = endToEndTimers.computeIfAbsent(key, k -> Timer.builder("swim_dispatch_end_to_end_duration")
+                .tag("use-case", useCase)
+                .tag("destination", destination)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        timer.record(duration);
+    }
+
+    /**
+     * Increment counter metric of dispatched events by message key.
+     * The keys are hashed into {@link #MESSAGE_KEY_BUCKETS} buckets to keep the number of series low,
+     * an uneven distribution over the buckets shows keys which concentrate the events on few
+     * partitions.
+     *
+     * @param useCase The use case of the event.
+     * @param strategy The strategy the key was resolved with.
+     * @param messageKey The message key of the event.
+     */
+    public void recordMessageKey(final String useCase, final MessageKeyStrategy strategy, final String messageKey) {
+        final String bucket = String.valueOf(Math.floorMod(messageKey.hashCode(), MESSAGE_KEY_BUCKETS));
+        final String key = useCase + "_" + strategy + "_" + bucket;
+        final Counter counter = messageKeyCounters.computeIfAbsent(key, k -> Counter.builder("swim_dispatch_message_keys")
+                .tag("use-case", useCase)
+                .tag("strategy", strategy.name())
+                .tag("bucket", bucket)
+                .register(meterRegistry));
+        counter.increment();
+    }
+
+    /**
+     * Update gauge metric of the consumer lag of a destination.
+     *
+     * @param destination The destination binding.
+     * @param lag The number of events which weren't consumed yet.
+     */
+    public void updateConsumerLag(final String destination, final long lag) {
+        consumerLagGauges.computeIfAbsent(destination, k -> meterRegistry.gauge("swim_dispatch_consumer_lag",
+                Tags.of("destination", destination), new AtomicLong())).set(lag);
+    }
+
+    /**
+     * Increment counter metric of file groups which weren't dispatched as the consumer of the
+     * destination lags behind.
+     *
+     * @param useCase The use case of the files.
+     * @param destination The destination binding the files would have been dispatched to.
+     */
+    public void incrementThrottled(final String useCase, final String destination) {
+        final String key = useCase + "_" + destination;
+        final Counter counter = throttledCounters.computeIfAbsent(key, k -> Counter.builder("swim_dispatch_throttled_count")
+                .tag("use-case", useCase)
+                .tag("destination", destination)
+                .register(meterRegistry));
+        counter.increment();
+    }
+
+    private AtomicInteger getTagLoadingInFlightGauge(final String bucket) {
+        return tagLoadingInFlightGauges.computeIfAbsent(bucket, k -> meterRegistry.gauge("swim_dispatch_tag_loading_in_flight",
+                Tags.of("bucket", bucket), new AtomicInteger()));
+    }
+
+    /**
+     * State of the ready files gauges of a use case.
+     */
+    private static final class ReadyFiles {
+        private volatile long count;
+        private volatile Instant oldest;
+
+        private void update(final long count, final Instant oldest) {
+            this.count = count;
+            this.oldest = oldest;
+        }
+
+        private double getCount() {
+            return count;
+        }
+
+        private double getOldestAgeSeconds() {
+            final Instant current = oldest;
+            return current == null ? 0 : Duration.between(current, Instant.now()).toMillis() / 1000.0;
+        }
+    }
 }
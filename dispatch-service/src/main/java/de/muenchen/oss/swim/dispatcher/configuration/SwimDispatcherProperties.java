@@ -5,6 +5,7 @@ import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -123,6 +124,120 @@ public class SwimDispatcherProperties {
      */
     @NotNull
     private Duration maxFileChunkAge;
+    /**
+     * Number of files which are grouped and dispatched together while the lookup of a folder is still
+     * running.
+     * Chunked files are collected until the lookup is finished.
+     */
+    @Positive
+    private int dispatchBatchSize = 1000;
+    /**
+     * Max number of folders which are processed in parallel over all use cases while dispatching.
+     * See {@link UseCase#getDispatchConcurrency()} for the limit per use case.
+     */
+    @Positive
+    private int dispatchConcurrency = 4;
+    /**
+     * Max number of file groups which are in flight (presigned but not yet acknowledged and tagged)
+     * over all use cases while dispatching.
+     */
+    @Positive
+    private int dispatchMaxInFlight = 100;
+    /**
+     * Max number of protocols which are processed in parallel over all use cases.
+     * See {@link UseCase#getProtocolConcurrency()} for the limit per use case.
+     */
+    @Positive
+    private int protocolConcurrency = 4;
+    /**
+     * Skip files which are known to be excluded via the object index instead of loading their tags
+     * on every dispatch run.
+     * See {@link #fullScanInterval}.
+     */
+    private boolean incrementalScan = false;
+    /**
+     * Interval in which all files are looked up again and the object index is reconciled, if
+     * {@link #incrementalScan} is enabled.
+     * Required for picking up files whose tags were changed manually.
+     */
+    @NotNull
+    private Duration fullScanInterval = Duration.ofDays(1);
+    /**
+     * If the read-only REST api for querying stored protocol entries is enabled.
+     * The api has no authentication and should only be reachable internally.
+     */
+    private boolean protocolApiEnabled = false;
+    /**
+     * If the use cases are split between the running instances via leases, so multiple instances
+     * can be run in parallel.
+     * See {@link UseCase#getDispatchShards()}.
+     */
+    private boolean shardingEnabled = false;
+    /**
+     * Duration a shard lease is valid without being renewed.
+     * Shards of an instance which stopped renewing are taken over by the others after this
+     * duration.
+     */
+    @NotNull
+    private Duration shardLeaseDuration = Duration.ofSeconds(30);
+    /**
+     * Interval in which the shard leases are renewed and rebalanced.
+     * Needs to be shorter than {@link #shardLeaseDuration}.
+     */
+    @NotNull
+    private Duration shardLeaseRenewInterval = Duration.ofSeconds(10);
+    /**
+     * If dispatch events are stored in an outbox table and published asynchronously by a relay,
+     * instead of being sent directly while dispatching.
+     * Files in the outbox aren't dispatched again by following scans, even if publishing is delayed.
+     */
+    private boolean dispatchOutboxEnabled = false;
+    /**
+     * Max number of events the relay publishes together.
+     */
+    @Positive
+    private int dispatchOutboxBatchSize = 100;
+    /**
+     * Delay between the runs of the relay, if the outbox was empty.
+     */
+    @NotNull
+    private Duration dispatchOutboxRelayInterval = Duration.ofSeconds(1);
+    /**
+     * Duration events are claimed by a relay while publishing them, also used as delay before
+     * publishing a failed event again.
+     * Events of a crashed instance are published again after this duration.
+     */
+    @NotNull
+    private Duration dispatchOutboxClaimDuration = Duration.ofMinutes(1);
+    /**
+     * Max number of attempts to publish an event before its files are marked as failed.
+     */
+    @Positive
+    private int dispatchOutboxMaxAttempts = 5;
+    /**
+     * If dispatching to a destination is paused while its consumer group lags behind by more than
+     * {@link #dispatchMaxConsumerLag} events, so presigned urls don't expire before they are consumed.
+     * Only applies to destinations listed in {@link #dispatchConsumerGroups}.
+     */
+    private boolean dispatchThrottlingEnabled = false;
+    /**
+     * Consumer group of the handler service per destination binding, used for resolving the lag.
+     */
+    @NotNull
+    private Map<String, String> dispatchConsumerGroups = Map.of();
+    /**
+     * Max number of events per destination which aren't consumed yet.
+     * Should be lower than the number of events the handler service can process within the expiry
+     * of the presigned urls.
+     */
+    @Positive
+    private long dispatchMaxConsumerLag = 1000;
+    /**
+     * Interval in which the consumer lag of a destination is reloaded. Events dispatched in between
+     * are added to the last loaded lag.
+     */
+    @NotNull
+    private Duration dispatchConsumerLagRefreshInterval = Duration.ofSeconds(30);
 
     /**
      * Default tags which are excluded when looking up files for dispatching.
@@ -2,6 +2,10 @@ package de.muenchen.oss.swim.dispatcher.domain.exception;
 
 @SuppressWarnings("PMD.MissingSerialVersionUID")
 public class FileSystemAccessException extends RuntimeException {
+    public FileSystemAccessException(final String message) {
+        super(message);
+    }
+
     public FileSystemAccessException(final String message, final Throwable cause) {
         super(message, cause);
     }
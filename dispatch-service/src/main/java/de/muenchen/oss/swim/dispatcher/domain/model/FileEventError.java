@@ -0,0 +1,14 @@
+package de.muenchen.oss.swim.dispatcher.domain.model;
+
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.FileEvent;
+
+/**
+ * Error which occurred while processing a file event.
+ *
+ * @param event The event which failed.
+ * @param cause Details of the error.
+ */
+public record FileEventError(
+        FileEvent event,
+        ErrorDetails cause) {
+}
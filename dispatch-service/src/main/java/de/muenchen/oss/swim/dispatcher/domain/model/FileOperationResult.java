@@ -0,0 +1,17 @@
+package de.muenchen.oss.swim.dispatcher.domain.model;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of an operation on multiple files.
+ *
+ * @param succeeded Files the operation succeeded for.
+ * @param missing Files which were skipped as they don't exist.
+ * @param failed Files the operation failed for (Key: file, value: error).
+ */
+public record FileOperationResult(
+        Set<FileReference> succeeded,
+        Set<FileReference> missing,
+        Map<FileReference, Throwable> failed) {
+}
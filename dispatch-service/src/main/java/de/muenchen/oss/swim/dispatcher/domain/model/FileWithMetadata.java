@@ -7,5 +7,6 @@ public record FileWithMetadata(
         FileReference reference,
         long size,
         ZonedDateTime lastModified,
-        Map<String, String> tags) {
+        Map<String, String> tags,
+        String etag) {
 }
@@ -0,0 +1,28 @@
+package de.muenchen.oss.swim.dispatcher.domain.model;
+
+/**
+ * Strategies for resolving the Kafka message key of dispatched events.
+ * Events with the same key are written to the same partition, so they are consumed in order and
+ * never in parallel.
+ */
+public enum MessageKeyStrategy {
+    /**
+     * Events are sent without key and distributed over all partitions.
+     */
+    NONE,
+    /**
+     * The name of the use case is used as key, so all events of a use case are consumed in order.
+     */
+    USE_CASE,
+    /**
+     * The value of the first configured metadata index field with a value is used as key (e.g. the
+     * target COO), so events for the same target are consumed in order.
+     * Falls back to {@link #FILE_NAME} if none of the fields has a value.
+     */
+    METADATA,
+    /**
+     * A hash of the base name of the file is used as key, so chunks and re-uploads of a file are
+     * consumed in order.
+     */
+    FILE_NAME
+}
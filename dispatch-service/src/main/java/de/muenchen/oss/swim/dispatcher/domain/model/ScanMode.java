@@ -0,0 +1,22 @@
+package de.muenchen.oss.swim.dispatcher.domain.model;
+
+/**
+ * Modes for looking up files.
+ * Determines if the object index is used to skip loading the tags of files which are known to be
+ * excluded.
+ */
+public enum ScanMode {
+    /**
+     * Tags of all files are loaded, the object index isn't used.
+     */
+    UNINDEXED,
+    /**
+     * Files which are in the object index with an unchanged ETag are skipped.
+     * Newly found excluded files are added to the index.
+     */
+    INCREMENTAL,
+    /**
+     * Tags of all files are loaded and the object index is reconciled with the found files.
+     */
+    FULL
+}
@@ -0,0 +1,35 @@
+package de.muenchen.oss.swim.dispatcher.domain.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content of a file which was downloaded once and can be read multiple times.
+ * Needs to be closed to release the buffered content.
+ */
+public interface SpooledFile extends AutoCloseable {
+    /**
+     * Get the reference of the spooled file.
+     *
+     * @return The reference identifying the file.
+     */
+    FileReference reference();
+
+    /**
+     * Get the size of the content.
+     *
+     * @return The size in bytes.
+     */
+    long size();
+
+    /**
+     * Open a new stream of the content, starting from the beginning.
+     *
+     * @return The content of the file.
+     * @throws IOException If the buffered content can't be read.
+     */
+    InputStream openStream() throws IOException;
+
+    @Override
+    void close();
+}
@@ -3,6 +3,7 @@ package de.muenchen.oss.swim.dispatcher.domain.model;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import java.util.List;
 import java.util.Map;
 import lombok.Data;
@@ -29,6 +30,27 @@ public class UseCase {
      * If to look recursive for files.
      */
     private boolean recursive = false;
+    /**
+     * Max number of folders of this use case which are processed in parallel while dispatching.
+     * See {@link SwimDispatcherProperties#getDispatchConcurrency()} for the overall limit.
+     */
+    @Positive
+    private int dispatchConcurrency = 2;
+    /**
+     * Max number of protocols of this use case which are processed in parallel.
+     * See {@link SwimDispatcherProperties#getProtocolConcurrency()} for the overall limit.
+     */
+    @Positive
+    private int protocolConcurrency = 2;
+    /**
+     * Number of shards the sub-folders of this use case are split into if
+     * {@link SwimDispatcherProperties#isShardingEnabled()}.
+     * Each shard can be processed by another instance, the files directly in the dispatch folder
+     * and the protocols belong to the first shard.
+     * Only applies if {@link #recursive}.
+     */
+    @Positive
+    private int dispatchShards = 1;
     /**
      * Max size files can have that they are dispatched.
      * Default: 90MB (IEC)
@@ -54,6 +76,18 @@ public class UseCase {
      * Uses {@link #destinationBinding} as fallback.
      */
     private boolean overwriteDestinationViaMetadata = false;
+    /**
+     * Strategy for resolving the Kafka message key of dispatched events.
+     * See {@link MessageKeyStrategy}.
+     */
+    @NotNull
+    private MessageKeyStrategy messageKeyStrategy = MessageKeyStrategy.NONE;
+    /**
+     * Metadata index fields the message key is resolved from with {@link MessageKeyStrategy#METADATA}.
+     * The first field with a value is used.
+     */
+    @NotNull
+    private List<String> messageKeyMetadataFields = List.of();
     /**
      * Tags required to start processing file.
      */
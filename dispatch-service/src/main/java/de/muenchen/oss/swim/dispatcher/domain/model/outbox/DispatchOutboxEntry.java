@@ -0,0 +1,26 @@
+package de.muenchen.oss.swim.dispatcher.domain.model.outbox;
+
+import java.util.List;
+
+/**
+ * Dispatch event stored in the outbox until it is published.
+ * The files are presigned when the event is published, so the urls can't expire while the event is
+ * waiting in the outbox.
+ *
+ * @param id The id of the entry.
+ * @param useCase The name of the use case of the files.
+ * @param destination The binding the event is sent to.
+ * @param multi If the files are sent together as one multi file event.
+ * @param messageKey The Kafka message key of the event, null for sending without key.
+ * @param files The files of the event.
+ * @param attempts Number of failed attempts to publish the event.
+ */
+public record DispatchOutboxEntry(
+        long id,
+        String useCase,
+        String destination,
+        boolean multi,
+        String messageKey,
+        List<DispatchOutboxFile> files,
+        int attempts) {
+}
@@ -0,0 +1,17 @@
+package de.muenchen.oss.swim.dispatcher.domain.model.outbox;
+
+import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * File of a dispatch event stored in the outbox.
+ *
+ * @param file The file to dispatch.
+ * @param metadataFile The metadata file of the file, null if not required by the use case.
+ * @param etag The ETag of the file from the lookup, null if unknown (e.g. if loaded from the outbox).
+ */
+public record DispatchOutboxFile(
+        @NotNull FileReference file,
+        FileReference metadataFile,
+        String etag) {
+}
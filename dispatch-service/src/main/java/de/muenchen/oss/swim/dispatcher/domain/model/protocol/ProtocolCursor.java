@@ -0,0 +1,14 @@
+package de.muenchen.oss.swim.dispatcher.domain.model.protocol;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in stored protocol entries, which are ordered by creation time and id.
+ *
+ * @param createdAt Creation time of the last returned entry.
+ * @param id Id of the last returned entry.
+ */
+public record ProtocolCursor(
+        LocalDateTime createdAt,
+        String id) {
+}
@@ -0,0 +1,14 @@
+package de.muenchen.oss.swim.dispatcher.domain.model.protocol;
+
+import java.util.List;
+
+/**
+ * Page of stored protocol entries.
+ *
+ * @param entries The entries of the page.
+ * @param next Cursor for loading the next page, null if this is the last page.
+ */
+public record ProtocolPage(
+        List<StoredProtocolEntry> entries,
+        ProtocolCursor next) {
+}
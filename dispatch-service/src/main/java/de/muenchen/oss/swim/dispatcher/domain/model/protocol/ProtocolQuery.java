@@ -0,0 +1,22 @@
+package de.muenchen.oss.swim.dispatcher.domain.model.protocol;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter for stored protocol entries, all set filters need to match.
+ *
+ * @param useCase Name of the use case, optional.
+ * @param protocolName Name of the protocol, optional.
+ * @param department Department of the entries, optional.
+ * @param boxId Box id of the entries, optional.
+ * @param createdFrom Min creation time (inclusive), optional.
+ * @param createdTo Max creation time (exclusive), optional.
+ */
+public record ProtocolQuery(
+        String useCase,
+        String protocolName,
+        String department,
+        String boxId,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo) {
+}
@@ -0,0 +1,32 @@
+package de.muenchen.oss.swim.dispatcher.domain.model.protocol;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of comparing the file names of a protocol with the files of the protocol folder.
+ *
+ * @param matched Number of distinct file names which are in the protocol and the folder.
+ * @param missingInProtocol Files which are in the folder but not in the protocol, sorted by name.
+ * @param missingFiles Files which are in the protocol but not in the folder, sorted by name.
+ * @param duplicatesInProtocol File names which are listed multiple times in the protocol, with the
+ *            number of occurrences.
+ */
+public record ProtocolReconciliation(
+        int matched,
+        List<String> missingInProtocol,
+        List<String> missingFiles,
+        Map<String, Integer> duplicatesInProtocol) {
+
+    public boolean isMissingInProtocol() {
+        return !missingInProtocol.isEmpty();
+    }
+
+    public boolean isMissingFiles() {
+        return !missingFiles.isEmpty();
+    }
+
+    public boolean hasDuplicatesInProtocol() {
+        return !duplicatesInProtocol.isEmpty();
+    }
+}
@@ -0,0 +1,22 @@
+package de.muenchen.oss.swim.dispatcher.domain.model.protocol;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Protocol entry as stored in the database.
+ */
+public record StoredProtocolEntry(
+        String id,
+        String useCase,
+        String protocolName,
+        String fileName,
+        Integer pageCount,
+        String department,
+        String boxId,
+        String paginationId,
+        String documentType,
+        String cooAddress,
+        Map<String, Object> additionalProperties,
+        LocalDateTime createdAt) {
+}
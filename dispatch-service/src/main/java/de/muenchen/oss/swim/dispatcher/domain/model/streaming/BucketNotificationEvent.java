@@ -0,0 +1,53 @@
+package de.muenchen.oss.swim.dispatcher.domain.model.streaming;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * S3 bucket notification as sent by MinIO or AWS S3.
+ * Only the properties required for dispatching are mapped.
+ *
+ * @param records The records of the notification, each describing an event on one object.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BucketNotificationEvent(
+        @JsonProperty("Records") List<Record> records) {
+    public static final String EVENT_NAME_OBJECT_CREATED_PREFIX = "s3:ObjectCreated:";
+
+    /**
+     * @param eventName The name of the event (e.g. s3:ObjectCreated:Put).
+     * @param s3 The affected bucket and object.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Record(
+            String eventName,
+            S3Entity s3) {
+    }
+
+    /**
+     * @param bucket The bucket of the object.
+     * @param object The affected object.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record S3Entity(
+            S3Bucket bucket,
+            S3Object object) {
+    }
+
+    /**
+     * @param name The name of the bucket.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record S3Bucket(
+            String name) {
+    }
+
+    /**
+     * @param key The URL encoded key of the object.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record S3Object(
+            String key) {
+    }
+}
@@ -0,0 +1,26 @@
+package de.muenchen.oss.swim.dispatcher.domain.model.streaming;
+
+/**
+ * Kafka headers added to dispatched events, which are carried through to the finished event by
+ * the handler services.
+ * The values are UTF-8 encoded strings.
+ * <p>
+ * ATTENTION: The names need to match the ones in the handler-core.
+ */
+public final class DispatchHeaders {
+    /**
+     * Unique id of the dispatch, used for correlating the dispatched and finished event.
+     */
+    public static final String DISPATCH_ID = "swim-dispatch-id";
+    /**
+     * Time the event was dispatched, in milliseconds since the epoch.
+     */
+    public static final String DISPATCH_TIME = "swim-dispatch-time";
+    /**
+     * Binding the event was dispatched to.
+     */
+    public static final String DISPATCH_DESTINATION = "swim-dispatch-destination";
+
+    private DispatchHeaders() {
+    }
+}
@@ -0,0 +1,8 @@
+CREATE TABLE object_index
+(
+    bucket      VARCHAR NOT NULL,
+    object_key  VARCHAR NOT NULL,
+    etag        VARCHAR NOT NULL,
+    last_seen   TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_object_index PRIMARY KEY (bucket, object_key)
+);
@@ -0,0 +1,13 @@
+CREATE TABLE notification_outbox
+(
+    id          BIGSERIAL NOT NULL,
+    use_case    VARCHAR NOT NULL,
+    recipients  VARCHAR NOT NULL,
+    subject     VARCHAR NOT NULL,
+    body        TEXT NOT NULL,
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts    INT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_notification_outbox PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_notification_outbox_digest ON notification_outbox (use_case, recipients, created_at);
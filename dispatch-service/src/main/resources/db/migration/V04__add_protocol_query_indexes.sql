@@ -0,0 +1,5 @@
+CREATE INDEX idx_protocol_created_at ON protocol (created_at, id);
+CREATE INDEX idx_protocol_use_case_created_at ON protocol (use_case, created_at, id);
+CREATE INDEX idx_protocol_use_case_protocol_name_created_at ON protocol (use_case, protocol_name, created_at, id);
+CREATE INDEX idx_protocol_department_created_at ON protocol (department, created_at, id);
+CREATE INDEX idx_protocol_box_id_created_at ON protocol (box_id, created_at, id);
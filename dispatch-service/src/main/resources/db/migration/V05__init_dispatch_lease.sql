@@ -0,0 +1,16 @@
+CREATE TABLE dispatch_instance
+(
+    instance_id VARCHAR NOT NULL,
+    expires_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_dispatch_instance PRIMARY KEY (instance_id)
+);
+
+CREATE TABLE dispatch_lease
+(
+    shard       VARCHAR NOT NULL,
+    owner       VARCHAR NOT NULL,
+    expires_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_dispatch_lease PRIMARY KEY (shard)
+);
+
+CREATE INDEX idx_dispatch_lease_owner ON dispatch_lease (owner);
@@ -0,0 +1,27 @@
+CREATE TABLE dispatch_outbox
+(
+    id              BIGSERIAL NOT NULL,
+    use_case        VARCHAR NOT NULL,
+    destination     VARCHAR NOT NULL,
+    multi           BOOLEAN NOT NULL,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    claimed_until   TIMESTAMP WITH TIME ZONE,
+    attempts        INT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_dispatch_outbox PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_dispatch_outbox_claimed_until ON dispatch_outbox (claimed_until);
+
+-- a file can only be part of one pending event, which prevents dispatching it twice
+CREATE TABLE dispatch_outbox_file
+(
+    outbox_id       BIGINT NOT NULL,
+    position        INT NOT NULL,
+    bucket          VARCHAR NOT NULL,
+    object_key      VARCHAR NOT NULL,
+    metadata_key    VARCHAR,
+    CONSTRAINT pk_dispatch_outbox_file PRIMARY KEY (bucket, object_key),
+    CONSTRAINT fk_dispatch_outbox_file_outbox FOREIGN KEY (outbox_id) REFERENCES dispatch_outbox (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_dispatch_outbox_file_outbox_id ON dispatch_outbox_file (outbox_id);
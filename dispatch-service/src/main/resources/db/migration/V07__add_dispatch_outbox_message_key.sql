@@ -0,0 +1 @@
+ALTER TABLE dispatch_outbox ADD COLUMN message_key VARCHAR;
@@ -0,0 +1 @@
+ALTER TABLE notification_outbox ADD COLUMN claimed_until TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,7 @@
+CREATE TABLE object_index_scan
+(
+    use_case        VARCHAR NOT NULL,
+    shard           INTEGER NOT NULL,
+    last_full_scan  TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_object_index_scan PRIMARY KEY (use_case, shard)
+);
@@ -22,10 +22,11 @@ public final class TestConstants {
     public static final List<String> USE_CASE_RECIPIENTS = List.of("test-meta@example.com");
     public static final String FOLDER_PATH = "test/inProcess/path/";
     public static final Map<String, String> TAGS = Map.of("SWIM_State", "processed");
-    public static final FileWithMetadata FILE1 = new FileWithMetadata(new FileReference(BUCKET, "test/inProcess/path/test.pdf"), 0L, ZonedDateTime.now(), TAGS);
+    public static final FileWithMetadata FILE1 = new FileWithMetadata(new FileReference(BUCKET, "test/inProcess/path/test.pdf"), 0L, ZonedDateTime.now(), TAGS,
+            null);
     public static final String FILE1_BASE_NAME = "test.pdf";
     public static final FileWithMetadata FILE2 = new FileWithMetadata(new FileReference(BUCKET, "test/inProcess/path/test2.pdf"), 0L, ZonedDateTime.now(),
-            TAGS);
+            TAGS, null);
     public static final String FILE2_BASE_NAME = "test2.pdf";
     public static final String USE_CASE_PATH = "test";
     public static final String USE_CASE_DISPATCH_PATH = USE_CASE_PATH + "/inProcess";
@@ -41,10 +42,10 @@ public final class TestConstants {
             FILE2_BASE_NAME, FILE2_GROUP);
 
     public static FileWithMetadata createFileWithMeta(final String path, final Map<String, String> tags) {
-        return new FileWithMetadata(new FileReference(BUCKET, path), 0L, ZonedDateTime.now(), tags);
+        return new FileWithMetadata(new FileReference(BUCKET, path), 0L, ZonedDateTime.now(), tags, null);
     }
 
     public static FileWithMetadata createFileWithMeta(final String path, final Map<String, String> tags, final Duration duration) {
-        return new FileWithMetadata(new FileReference(BUCKET, path), 0L, ZonedDateTime.now().minus(duration), tags);
+        return new FileWithMetadata(new FileReference(BUCKET, path), 0L, ZonedDateTime.now().minus(duration), tags, null);
     }
 }
@@ -0,0 +1,138 @@
+package de.muenchen.oss.swim.dispatcher.adapter.in.streaming;
+
+import static de.muenchen.oss.swim.dispatcher.TestConstants.TEST_PRESIGNED_FILE;
+import static de.muenchen.oss.swim.dispatcher.TestConstants.TEST_PRESIGNED_URL;
+import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import de.muenchen.oss.swim.dispatcher.adapter.out.streaming.StreamingOutAdapter;
+import de.muenchen.oss.swim.dispatcher.application.port.in.DispatcherInPort;
+import de.muenchen.oss.swim.dispatcher.application.port.in.ErrorHandlerInPort;
+import de.muenchen.oss.swim.dispatcher.application.port.in.MarkFileFinishedInPort;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import de.muenchen.oss.swim.dispatcher.domain.exception.PresignedUrlException;
+import de.muenchen.oss.swim.dispatcher.domain.exception.UseCaseException;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.DispatchHeaders;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.FileEvent;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.SingleFileEvent;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@SpringBootTest(classes = { StreamingInAdapter.class, StreamingOutAdapter.class })
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+class StreamingInAdapterTest {
+    private static final String DESTINATION = "dms-out";
+    private static final SingleFileEvent EVENT = new SingleFileEvent(USE_CASE, TEST_PRESIGNED_FILE);
+
+    @MockitoBean
+    private MarkFileFinishedInPort markFileFinishedInPort;
+    @MockitoBean
+    private ErrorHandlerInPort errorHandlerInPort;
+    @MockitoBean
+    private DispatcherInPort dispatcherInPort;
+    @MockitoBean
+    private DispatchMeter dispatchMeter;
+    @MockitoBean
+    private StreamBridge streamBridge;
+    @Autowired
+    private StreamingOutAdapter streamingOutAdapter;
+    @Autowired
+    private StreamingInAdapter streamingInAdapter;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFinished_EndToEndDurationFromDispatchHeaders() throws PresignedUrlException, UseCaseException {
+        // setup
+        when(streamBridge.send(eq(DESTINATION), any(Message.class))).thenReturn(true);
+        final Instant dispatchStart = Instant.now();
+        streamingOutAdapter.dispatchFile(DESTINATION, USE_CASE, null, TEST_PRESIGNED_FILE).join();
+        final ArgumentCaptor<Message<FileEvent>> dispatched = ArgumentCaptor.forClass(Message.class);
+        verify(streamBridge).send(eq(DESTINATION), dispatched.capture());
+        final Map<String, Object> dispatchHeaders = dispatched.getValue().getHeaders();
+        assertNotNull(dispatchHeaders.get(DispatchHeaders.DISPATCH_ID));
+        assertEquals(DESTINATION, new String((byte[]) dispatchHeaders.get(DispatchHeaders.DISPATCH_DESTINATION), StandardCharsets.UTF_8));
+        final long dispatchTime = Long.parseLong(new String((byte[]) dispatchHeaders.get(DispatchHeaders.DISPATCH_TIME), StandardCharsets.UTF_8));
+        assertFalse(Instant.ofEpochMilli(dispatchTime).isBefore(dispatchStart.minusMillis(1)));
+        // handler service copies the dispatch headers onto the finished event
+        final Message<FileEvent> finished = MessageBuilder.<FileEvent> withPayload(EVENT)
+                .setHeader(DispatchHeaders.DISPATCH_ID, dispatchHeaders.get(DispatchHeaders.DISPATCH_ID))
+                .setHeader(DispatchHeaders.DISPATCH_TIME, dispatchHeaders.get(DispatchHeaders.DISPATCH_TIME))
+                .setHeader(DispatchHeaders.DISPATCH_DESTINATION, dispatchHeaders.get(DispatchHeaders.DISPATCH_DESTINATION))
+                .build();
+        // call
+        streamingInAdapter.finished().accept(finished);
+        // test
+        verify(markFileFinishedInPort).markFilesFinished(eq(USE_CASE), eq(List.of(TEST_PRESIGNED_URL)));
+        final ArgumentCaptor<Duration> duration = ArgumentCaptor.forClass(Duration.class);
+        verify(dispatchMeter).recordEndToEndDuration(eq(USE_CASE), eq(DESTINATION), duration.capture());
+        assertFalse(duration.getValue().isNegative());
+        assertTrue(duration.getValue().compareTo(Duration.between(dispatchStart, Instant.now()).plusMillis(1)) <= 0);
+    }
+
+    @Test
+    void testFinished_WithoutDispatchHeaders() {
+        // setup
+        final Message<FileEvent> finished = MessageBuilder.<FileEvent> withPayload(EVENT).build();
+        // call
+        streamingInAdapter.finished().accept(finished);
+        // test
+        verify(dispatchMeter, never()).recordEndToEndDuration(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testFinished_InvalidDispatchTime() {
+        // setup
+        final Message<FileEvent> finished = MessageBuilder.<FileEvent> withPayload(EVENT)
+                .setHeader(DispatchHeaders.DISPATCH_TIME, "invalid".getBytes(StandardCharsets.UTF_8))
+                .build();
+        // call
+        streamingInAdapter.finished().accept(finished);
+        // test
+        verify(dispatchMeter, never()).recordEndToEndDuration(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testFinishedBatch_SkipsFailedEvents() {
+        // setup
+        final String dispatchTime = String.valueOf(Instant.now().minusSeconds(5).toEpochMilli());
+        final List<Map<String, Object>> headers = List.of(
+                Map.of(DispatchHeaders.DISPATCH_TIME, dispatchTime.getBytes(StandardCharsets.UTF_8)),
+                Map.of(DispatchHeaders.DISPATCH_TIME, dispatchTime, DispatchHeaders.DISPATCH_DESTINATION, DESTINATION),
+                Map.of(DispatchHeaders.DISPATCH_TIME, dispatchTime, DispatchHeaders.DISPATCH_DESTINATION, DESTINATION));
+        final List<FileEvent> events = List.of(EVENT, EVENT, EVENT);
+        when(markFileFinishedInPort.markEventsFinished(eq(events))).thenReturn(Map.of(2, new RuntimeException("Finishing failed")));
+        final Message<List<FileEvent>> finished = MessageBuilder.withPayload(events)
+                .setHeader(KafkaHeaders.BATCH_CONVERTED_HEADERS, headers)
+                .build();
+        // call
+        streamingInAdapter.finishedBatch().accept(finished);
+        // test
+        verify(dispatchMeter, times(1)).recordEndToEndDuration(eq(USE_CASE), eq("unknown"), any());
+        verify(dispatchMeter, times(1)).recordEndToEndDuration(eq(USE_CASE), eq(DESTINATION), any());
+        verify(errorHandlerInPort, times(1)).handleErrors(any());
+    }
+}
@@ -0,0 +1,116 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.mail;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@SpringBootTest(classes = { MailOutboxSender.class })
+@EnableConfigurationProperties(MailProperties.class)
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+class MailOutboxSenderTest {
+    private static final MailOutbox.Digest DIGEST1 = new MailOutbox.Digest("test-meta", "a@example.com,b@example.com");
+    private static final MailOutbox.Digest DIGEST2 = new MailOutbox.Digest("test2", "c@example.com");
+    private static final MailOutbox.Entry ENTRY1 = new MailOutbox.Entry(1L, "Subject 1", "Body 1", 0);
+    private static final MailOutbox.Entry ENTRY2 = new MailOutbox.Entry(2L, "Subject 2", "Body 2", 0);
+    private static final MailOutbox.Entry ENTRY3 = new MailOutbox.Entry(3L, "Subject 3", "Body 3", 0);
+
+    @MockitoBean
+    private MailOutbox mailOutbox;
+    @MockitoBean
+    private MailAdapter mailAdapter;
+    @Autowired
+    private MailProperties mailProperties;
+    @Autowired
+    private MailOutboxSender mailOutboxSender;
+
+    @Test
+    void testSendDueDigests_GroupedByUseCaseAndRecipients() {
+        // setup
+        when(mailOutbox.findDueDigests(any(), anyInt())).thenReturn(List.of(DIGEST1, DIGEST2));
+        when(mailOutbox.claimEntries(eq(DIGEST1), any())).thenReturn(List.of(ENTRY1, ENTRY2));
+        when(mailOutbox.claimEntries(eq(DIGEST2), any())).thenReturn(List.of(ENTRY3));
+        // call
+        mailOutboxSender.sendDueDigests();
+        // test
+        verify(mailAdapter).sendDigest(eq(List.of("a@example.com", "b@example.com")), eq("test-meta"), eq(List.of(ENTRY1, ENTRY2)));
+        verify(mailAdapter).sendDigest(eq(List.of("c@example.com")), eq("test2"), eq(List.of(ENTRY3)));
+        verify(mailOutbox).remove(eq(List.of(1L, 2L)));
+        verify(mailOutbox).remove(eq(List.of(3L)));
+        verify(mailOutbox, times(0)).releaseFailed(any());
+    }
+
+    @Test
+    void testSendDueDigests_DigestWindow() {
+        // setup
+        final ArgumentCaptor<Instant> dueBefore = ArgumentCaptor.forClass(Instant.class);
+        when(mailOutbox.findDueDigests(dueBefore.capture(), anyInt())).thenReturn(List.of());
+        final Instant start = Instant.now();
+        // call
+        mailOutboxSender.sendDueDigests();
+        // test
+        final Instant end = Instant.now();
+        // only digests whose oldest entry is older than the window are due
+        assertFalse(dueBefore.getValue().isBefore(start.minus(mailProperties.getDigestWindow())));
+        assertFalse(dueBefore.getValue().isAfter(end.minus(mailProperties.getDigestWindow())));
+        verify(mailOutbox).findDueDigests(any(), eq(mailProperties.getMaxMailsPerRun()));
+        verify(mailAdapter, times(0)).sendDigest(any(), any(), any());
+    }
+
+    @Test
+    void testSendDueDigests_AlreadyClaimed() {
+        // setup
+        when(mailOutbox.findDueDigests(any(), anyInt())).thenReturn(List.of(DIGEST1));
+        when(mailOutbox.claimEntries(eq(DIGEST1), eq(mailProperties.getOutboxClaimDuration()))).thenReturn(List.of());
+        // call
+        mailOutboxSender.sendDueDigests();
+        // test
+        verify(mailAdapter, times(0)).sendDigest(any(), any(), any());
+        verify(mailOutbox, times(0)).remove(any());
+    }
+
+    @Test
+    void testSendDueDigests_MaxSendAttempts() {
+        // setup
+        final MailOutbox.Entry lastAttempt = new MailOutbox.Entry(4L, "Subject 4", "Body 4", mailProperties.getMaxSendAttempts() - 1);
+        when(mailOutbox.findDueDigests(any(), anyInt())).thenReturn(List.of(DIGEST1));
+        when(mailOutbox.claimEntries(eq(DIGEST1), any())).thenReturn(List.of(ENTRY1, lastAttempt));
+        doThrow(new MailSendException("Error")).when(mailAdapter).sendDigest(any(), any(), any());
+        // call
+        mailOutboxSender.sendDueDigests();
+        // test
+        verify(mailOutbox).remove(eq(List.of(4L)));
+        verify(mailOutbox).releaseFailed(eq(List.of(1L)));
+    }
+
+    @Test
+    void testSendDueDigests_Disabled() {
+        // setup
+        final boolean outboxEnabled = mailProperties.isOutboxEnabled();
+        mailProperties.setOutboxEnabled(false);
+        try {
+            // call
+            mailOutboxSender.sendDueDigests();
+        } finally {
+            mailProperties.setOutboxEnabled(outboxEnabled);
+        }
+        // test
+        verify(mailOutbox, times(0)).findDueDigests(any(), anyInt());
+    }
+}
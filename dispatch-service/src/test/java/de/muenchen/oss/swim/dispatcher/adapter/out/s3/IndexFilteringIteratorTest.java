@@ -0,0 +1,81 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import static de.muenchen.oss.swim.dispatcher.TestConstants.BUCKET;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.ObjectIndexOutPort;
+import io.minio.messages.Item;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+class IndexFilteringIteratorTest {
+    private static final String ETAG = "etag-1";
+
+    private final ObjectIndexOutPort objectIndexOutPort = mock(ObjectIndexOutPort.class);
+
+    @Test
+    void testFiltersIndexedObjects() {
+        // setup
+        final Item indexed = createItem("test/a.pdf", ETAG);
+        final Item changed = createItem("test/b.pdf", ETAG);
+        final Item unknown = createItem("test/c.pdf", ETAG);
+        when(objectIndexOutPort.findIndexedObjects(eq(BUCKET), eq(List.of("test/a.pdf", "test/b.pdf", "test/c.pdf"))))
+                .thenReturn(Map.of("test/a.pdf", ETAG, "test/b.pdf", "etag-2"));
+        final IndexFilteringIterator iterator = new IndexFilteringIterator(List.of(indexed, changed, unknown).iterator(), objectIndexOutPort, BUCKET, 10);
+        // call
+        final List<Item> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        // test
+        assertEquals(List.of(changed, unknown), result);
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void testQueriesInBatches() {
+        // setup
+        final Item item1 = createItem("test/a.pdf", ETAG);
+        final Item item2 = createItem("test/b.pdf", ETAG);
+        final Item item3 = createItem("test/c.pdf", ETAG);
+        when(objectIndexOutPort.findIndexedObjects(eq(BUCKET), eq(List.of("test/a.pdf", "test/b.pdf"))))
+                .thenReturn(Map.of("test/a.pdf", ETAG, "test/b.pdf", ETAG));
+        when(objectIndexOutPort.findIndexedObjects(eq(BUCKET), eq(List.of("test/c.pdf")))).thenReturn(Map.of());
+        final IndexFilteringIterator iterator = new IndexFilteringIterator(List.of(item1, item2, item3).iterator(), objectIndexOutPort, BUCKET, 2);
+        // call
+        final List<Item> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        // test
+        // first batch is skipped completely, so the next batch is loaded within the same call
+        assertEquals(List.of(item3), result);
+        verify(objectIndexOutPort, times(2)).findIndexedObjects(eq(BUCKET), any());
+    }
+
+    @Test
+    void testAllIndexed() {
+        // setup
+        final Item item = createItem("test/a.pdf", ETAG);
+        when(objectIndexOutPort.findIndexedObjects(eq(BUCKET), any())).thenReturn(Map.of("test/a.pdf", ETAG));
+        final IndexFilteringIterator iterator = new IndexFilteringIterator(List.of(item).iterator(), objectIndexOutPort, BUCKET, 10);
+        // call
+        final boolean hasNext = iterator.hasNext();
+        // test
+        assertFalse(hasNext);
+    }
+
+    private static Item createItem(final String objectName, final String etag) {
+        final Item item = mock(Item.class);
+        when(item.objectName()).thenReturn(objectName);
+        when(item.etag()).thenReturn(etag);
+        return item;
+    }
+}
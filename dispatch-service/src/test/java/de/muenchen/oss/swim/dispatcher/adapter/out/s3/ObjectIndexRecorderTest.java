@@ -0,0 +1,84 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import static de.muenchen.oss.swim.dispatcher.TestConstants.BUCKET;
+import static de.muenchen.oss.swim.dispatcher.TestConstants.TAGS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import de.muenchen.oss.swim.dispatcher.application.port.out.ObjectIndexOutPort;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ObjectIndexRecorderTest {
+    private static final Instant SEEN_AT = Instant.now();
+    private static final FileWithMetadata FILE_A = createFile("test/a.pdf", "etag-a");
+    private static final FileWithMetadata FILE_B = createFile("test/b.pdf", "etag-b");
+    private static final FileWithMetadata FILE_C = createFile("test/c.pdf", "etag-c");
+
+    private final ObjectIndexOutPort objectIndexOutPort = mock(ObjectIndexOutPort.class);
+
+    @Test
+    void testRecord_Full() {
+        // setup
+        final ObjectIndexRecorder recorder = new ObjectIndexRecorder(objectIndexOutPort, BUCKET, SEEN_AT, true, 10);
+        // call
+        recorder.record(FILE_A, true);
+        recorder.record(FILE_B, false);
+        recorder.flush();
+        // test
+        verify(objectIndexOutPort).storeObjects(eq(BUCKET), eq(Map.of("test/a.pdf", "etag-a")), eq(SEEN_AT));
+        verify(objectIndexOutPort).removeObjects(eq(BUCKET), eq(List.of("test/b.pdf")));
+    }
+
+    @Test
+    void testRecord_Incremental() {
+        // setup
+        final ObjectIndexRecorder recorder = new ObjectIndexRecorder(objectIndexOutPort, BUCKET, SEEN_AT, false, 10);
+        // call
+        recorder.record(FILE_A, true);
+        recorder.record(FILE_B, false);
+        recorder.flush();
+        // test
+        verify(objectIndexOutPort).storeObjects(eq(BUCKET), eq(Map.of("test/a.pdf", "etag-a")), eq(SEEN_AT));
+        verify(objectIndexOutPort, times(0)).removeObjects(any(), any());
+    }
+
+    @Test
+    void testRecord_FlushesBatches() {
+        // setup
+        final ObjectIndexRecorder recorder = new ObjectIndexRecorder(objectIndexOutPort, BUCKET, SEEN_AT, true, 2);
+        // call
+        recorder.record(FILE_A, true);
+        recorder.record(FILE_B, true);
+        recorder.record(FILE_C, true);
+        // test
+        verify(objectIndexOutPort).storeObjects(eq(BUCKET), eq(Map.of("test/a.pdf", "etag-a", "test/b.pdf", "etag-b")), eq(SEEN_AT));
+        verify(objectIndexOutPort, times(1)).storeObjects(any(), anyMap(), any());
+        recorder.flush();
+        verify(objectIndexOutPort).storeObjects(eq(BUCKET), eq(Map.of("test/c.pdf", "etag-c")), eq(SEEN_AT));
+    }
+
+    @Test
+    void testFlush_Empty() {
+        // setup
+        final ObjectIndexRecorder recorder = new ObjectIndexRecorder(objectIndexOutPort, BUCKET, SEEN_AT, true, 10);
+        // call
+        recorder.flush();
+        // test
+        verify(objectIndexOutPort, times(0)).storeObjects(any(), anyMap(), any());
+        verify(objectIndexOutPort, times(0)).removeObjects(any(), any());
+    }
+
+    private static FileWithMetadata createFile(final String path, final String etag) {
+        return new FileWithMetadata(new FileReference(BUCKET, path), 0L, ZonedDateTime.now(), TAGS, etag);
+    }
+}
@@ -0,0 +1,140 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.http.Method;
+import java.net.URI;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PresignedUrlVerifierTest {
+    private static final String ACCESS_KEY = "swim-access";
+    private static final String SECRET_KEY = "swim-secret";
+    private static final int EXPIRY_SECONDS = 600;
+
+    private final PresignedUrlVerifier presignedUrlVerifier = new PresignedUrlVerifier(ACCESS_KEY, SECRET_KEY);
+
+    @Test
+    void testVerify_Valid() throws Exception {
+        // setup
+        final URI url = presign("http://localhost:9000");
+        // call
+        final boolean valid = presignedUrlVerifier.verify(url, Instant.now());
+        // test
+        assertTrue(valid);
+    }
+
+    @Test
+    void testVerify_ValidWithPort() throws Exception {
+        // setup
+        final URI url = presign("https://s3.example.com:8443");
+        // call
+        final boolean valid = presignedUrlVerifier.verify(url, Instant.now());
+        // test
+        assertTrue(valid);
+    }
+
+    @Test
+    void testVerify_TamperedSignature() throws Exception {
+        // setup
+        final String url = presign("http://localhost:9000").toString();
+        final int signatureEnd = url.indexOf("X-Amz-Signature=") + "X-Amz-Signature=".length() + 1;
+        final char replacement = url.charAt(signatureEnd - 1) == '0' ? '1' : '0';
+        final URI tampered = URI.create(url.substring(0, signatureEnd - 1) + replacement + url.substring(signatureEnd));
+        // call
+        final boolean valid = presignedUrlVerifier.verify(tampered, Instant.now());
+        // test
+        assertFalse(valid);
+    }
+
+    @Test
+    void testVerify_TamperedPath() throws Exception {
+        // setup
+        final URI url = URI.create(presign("http://localhost:9000").toString().replace("/test/path/", "/test/other/"));
+        // call
+        final boolean valid = presignedUrlVerifier.verify(url, Instant.now());
+        // test
+        assertFalse(valid);
+    }
+
+    @Test
+    void testVerify_WrongAccessKey() throws Exception {
+        // setup
+        final URI url = presign("http://localhost:9000");
+        final PresignedUrlVerifier otherVerifier = new PresignedUrlVerifier("other-access", SECRET_KEY);
+        // call
+        final boolean valid = otherVerifier.verify(url, Instant.now());
+        // test
+        assertFalse(valid);
+    }
+
+    @Test
+    void testVerify_WrongSecretKey() throws Exception {
+        // setup
+        final URI url = presign("http://localhost:9000");
+        final PresignedUrlVerifier otherVerifier = new PresignedUrlVerifier(ACCESS_KEY, "other-secret");
+        // call
+        final boolean valid = otherVerifier.verify(url, Instant.now());
+        // test
+        assertFalse(valid);
+    }
+
+    @Test
+    void testVerify_WrongCredentialScope() throws Exception {
+        // setup
+        final URI url = URI.create(presign("http://localhost:9000").toString().replace("%2Fs3%2Faws4_request", "%2Fsts%2Faws4_request"));
+        // call
+        final boolean valid = presignedUrlVerifier.verify(url, Instant.now());
+        // test
+        assertFalse(valid);
+    }
+
+    @Test
+    void testVerify_Expired() throws Exception {
+        // setup
+        final URI url = presign("http://localhost:9000");
+        // call
+        final boolean valid = presignedUrlVerifier.verify(url, Instant.now().plusSeconds(EXPIRY_SECONDS + 60));
+        // test
+        assertFalse(valid);
+    }
+
+    @Test
+    void testVerify_DateInFuture() throws Exception {
+        // setup
+        final URI url = presign("http://localhost:9000");
+        // call
+        final boolean valid = presignedUrlVerifier.verify(url, Instant.now().minusSeconds(3600));
+        // test
+        assertFalse(valid);
+    }
+
+    @Test
+    void testVerify_NotPresigned() {
+        // call
+        final boolean valid = presignedUrlVerifier.verify(URI.create("http://localhost:9000/test-bucket/test/path/file.pdf"), Instant.now());
+        // test
+        assertFalse(valid);
+    }
+
+    /**
+     * Presign a url with the MinIO client, the region is set so no request to S3 is required.
+     */
+    private static URI presign(final String endpoint) throws Exception {
+        final MinioClient minioClient = MinioClient.builder()
+                .endpoint(endpoint)
+                .region("eu-central-1")
+                .credentials(ACCESS_KEY, SECRET_KEY)
+                .build();
+        return URI.create(minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                .method(Method.GET)
+                .bucket("test-bucket")
+                .object("test/path/file name.pdf")
+                .expiry(EXPIRY_SECONDS, TimeUnit.SECONDS)
+                .build()));
+    }
+}
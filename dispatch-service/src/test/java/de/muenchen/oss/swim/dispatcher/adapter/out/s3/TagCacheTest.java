@@ -0,0 +1,110 @@
+package de.muenchen.oss.swim.dispatcher.adapter.out.s3;
+
+import static de.muenchen.oss.swim.dispatcher.TestConstants.BUCKET;
+import static de.muenchen.oss.swim.dispatcher.TestConstants.FILE1;
+import static de.muenchen.oss.swim.dispatcher.TestConstants.FILE2;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TagCacheTest {
+    private static final String ETAG = "etag-1";
+    private static final Map<String, String> TAGS = Map.of("SWIM_State", "processed");
+    private static final FileReference FILE1_REFERENCE = FILE1.reference();
+    private static final FileReference FILE2_REFERENCE = FILE2.reference();
+
+    private final DispatchMeter dispatchMeter = mock(DispatchMeter.class);
+
+    @Test
+    void testGet_Hit() {
+        // setup
+        final TagCache tagCache = new TagCache(true, 10, Duration.ofMinutes(5), dispatchMeter);
+        tagCache.put(FILE1_REFERENCE, ETAG, TAGS);
+        // call
+        final Map<String, String> tags = tagCache.get(FILE1_REFERENCE, ETAG);
+        // test
+        assertEquals(TAGS, tags);
+        assertEquals(ETAG, tagCache.getEtag(FILE1_REFERENCE));
+        verify(dispatchMeter, times(1)).incrementTagCacheRequest(BUCKET, true);
+    }
+
+    @Test
+    void testGet_EtagMismatch() {
+        // setup
+        final TagCache tagCache = new TagCache(true, 10, Duration.ofMinutes(5), dispatchMeter);
+        tagCache.put(FILE1_REFERENCE, ETAG, TAGS);
+        tagCache.put(FILE2_REFERENCE, null, TAGS);
+        // call
+        final Map<String, String> replacedTags = tagCache.get(FILE1_REFERENCE, "etag-2");
+        final Map<String, String> unknownTags = tagCache.get(FILE1_REFERENCE, null);
+        final Map<String, String> withoutEtagTags = tagCache.get(FILE2_REFERENCE, ETAG);
+        // test
+        assertNull(replacedTags);
+        assertNull(unknownTags);
+        assertNull(withoutEtagTags);
+        verify(dispatchMeter, times(3)).incrementTagCacheRequest(BUCKET, false);
+    }
+
+    @Test
+    void testGet_Expired() {
+        // setup
+        final TagCache tagCache = new TagCache(true, 10, Duration.ZERO, dispatchMeter);
+        tagCache.put(FILE1_REFERENCE, ETAG, TAGS);
+        // call
+        final Map<String, String> tags = tagCache.get(FILE1_REFERENCE, ETAG);
+        // test
+        assertNull(tags);
+        verify(dispatchMeter, times(1)).incrementTagCacheRequest(BUCKET, false);
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        // setup
+        final FileReference file3Reference = new FileReference(BUCKET, "test/inProcess/path/test3.pdf");
+        final TagCache tagCache = new TagCache(true, 2, Duration.ofMinutes(5), dispatchMeter);
+        tagCache.put(FILE1_REFERENCE, ETAG, TAGS);
+        tagCache.put(FILE2_REFERENCE, ETAG, TAGS);
+        // access file1 so file2 is the least recently used
+        tagCache.get(FILE1_REFERENCE, ETAG);
+        // call
+        tagCache.put(file3Reference, ETAG, TAGS);
+        // test
+        assertEquals(TAGS, tagCache.get(FILE1_REFERENCE, ETAG));
+        assertNull(tagCache.get(FILE2_REFERENCE, ETAG));
+        assertEquals(TAGS, tagCache.get(file3Reference, ETAG));
+    }
+
+    @Test
+    void testInvalidate() {
+        // setup
+        final TagCache tagCache = new TagCache(true, 10, Duration.ofMinutes(5), dispatchMeter);
+        tagCache.put(FILE1_REFERENCE, ETAG, TAGS);
+        // call
+        tagCache.invalidate(FILE1_REFERENCE);
+        // test
+        assertNull(tagCache.get(FILE1_REFERENCE, ETAG));
+        assertNull(tagCache.getEtag(FILE1_REFERENCE));
+    }
+
+    @Test
+    void testDisabled() {
+        // setup
+        final TagCache tagCache = new TagCache(false, 10, Duration.ofMinutes(5), dispatchMeter);
+        // call
+        tagCache.put(FILE1_REFERENCE, ETAG, TAGS);
+        // test
+        assertNull(tagCache.get(FILE1_REFERENCE, ETAG));
+        assertNull(tagCache.getEtag(FILE1_REFERENCE));
+        verify(dispatchMeter, times(0)).incrementTagCacheRequest(anyString(), anyBoolean());
+    }
+}
@@ -0,0 +1,137 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase;
+
+import static de.muenchen.oss.swim.dispatcher.TestConstants.FILE1;
+import static de.muenchen.oss.swim.dispatcher.TestConstants.FILE2;
+import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE;
+import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE_RECIPIENTS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import de.muenchen.oss.swim.dispatcher.application.port.out.DispatchOutboxOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.NotificationOutPort;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchActionsHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.FileHandlingHelper;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.exception.StreamingException;
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxEntry;
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxFile;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@SpringBootTest(classes = { SwimDispatcherProperties.class, DispatchOutboxUseCase.class })
+@EnableConfigurationProperties
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+class DispatchOutboxUseCaseTest {
+    private static final String DESTINATION = "dms-out";
+    private static final String MESSAGE_KEY = "coo-1";
+    private static final List<DispatchOutboxFile> FILES1 = List.of(new DispatchOutboxFile(FILE1.reference(), null, null));
+    private static final List<DispatchOutboxFile> FILES2 = List.of(new DispatchOutboxFile(FILE2.reference(), null, null));
+
+    @MockitoBean
+    private DispatchOutboxOutPort dispatchOutboxOutPort;
+    @MockitoBean
+    private DispatchActionsHelper dispatchActionsHelper;
+    @MockitoBean
+    private FileHandlingHelper fileHandlingHelper;
+    @MockitoBean
+    private NotificationOutPort notificationOutPort;
+    @MockitoBean
+    private DispatchMeter dispatchMeter;
+    @Autowired
+    private SwimDispatcherProperties swimDispatcherProperties;
+    @Autowired
+    private DispatchOutboxUseCase dispatchOutboxUseCase;
+
+    @Test
+    void testRelayDispatchEvents_PublishAndRetry() {
+        // setup
+        final Duration claimDuration = swimDispatcherProperties.getDispatchOutboxClaimDuration();
+        when(dispatchOutboxOutPort.claimEntries(anyInt(), eq(claimDuration))).thenReturn(List.of(
+                new DispatchOutboxEntry(1, USE_CASE, DESTINATION, false, MESSAGE_KEY, FILES1, 0),
+                new DispatchOutboxEntry(2, USE_CASE, DESTINATION, false, null, FILES2, 0)));
+        when(dispatchActionsHelper.publishFiles(USE_CASE, DESTINATION, false, MESSAGE_KEY, FILES1)).thenReturn(CompletableFuture.completedFuture(null));
+        when(dispatchActionsHelper.publishFiles(USE_CASE, DESTINATION, false, null, FILES2))
+                .thenReturn(CompletableFuture.failedFuture(new StreamingException("Event couldn't be sent")));
+        // call
+        dispatchOutboxUseCase.relayDispatchEvents();
+        // test
+        verify(dispatchOutboxOutPort, times(1)).removeEntries(eq(List.of(1L)));
+        verify(dispatchOutboxOutPort, times(1)).retryEntry(eq(2L), eq(claimDuration));
+        verify(fileHandlingHelper, never()).markFileError(any(), any(), any());
+    }
+
+    @Test
+    void testRelayDispatchEvents_SkipAlreadyDispatched() {
+        // setup
+        when(dispatchOutboxOutPort.claimEntries(anyInt(), any())).thenReturn(List.of(
+                new DispatchOutboxEntry(1, USE_CASE, DESTINATION, false, null, FILES1, 0),
+                new DispatchOutboxEntry(2, USE_CASE, DESTINATION, false, null, FILES2, 0)));
+        when(dispatchActionsHelper.isAlreadyDispatched(eq(FILES1))).thenReturn(true);
+        when(dispatchActionsHelper.publishFiles(USE_CASE, DESTINATION, false, null, FILES2)).thenReturn(CompletableFuture.completedFuture(null));
+        // call
+        dispatchOutboxUseCase.relayDispatchEvents();
+        // test
+        verify(dispatchActionsHelper, never()).publishFiles(any(), any(), anyBoolean(), any(), eq(FILES1));
+        verify(dispatchOutboxOutPort, times(1)).removeEntries(eq(List.of(2L, 1L)));
+        verify(dispatchOutboxOutPort, never()).retryEntry(anyLong(), any());
+    }
+
+    @Test
+    void testRelayDispatchEvents_MaxAttempts() {
+        // setup
+        final int maxAttempts = swimDispatcherProperties.getDispatchOutboxMaxAttempts();
+        final StreamingException exception = new StreamingException("Event couldn't be sent");
+        when(dispatchOutboxOutPort.claimEntries(anyInt(), any())).thenReturn(List.of(
+                new DispatchOutboxEntry(1, USE_CASE, DESTINATION, false, null, FILES1, maxAttempts - 1)));
+        when(dispatchActionsHelper.publishFiles(USE_CASE, DESTINATION, false, null, FILES1)).thenReturn(CompletableFuture.failedFuture(exception));
+        // call
+        dispatchOutboxUseCase.relayDispatchEvents();
+        // test
+        verify(fileHandlingHelper, times(1)).markFileError(eq(FILE1.reference()), eq(swimDispatcherProperties.getDispatchStateTagKey()), eq(exception));
+        verify(dispatchOutboxOutPort, times(1)).removeEntries(eq(List.of(1L)));
+        verify(dispatchOutboxOutPort, never()).retryEntry(anyLong(), any());
+        verify(dispatchMeter, times(1)).incrementError(eq(USE_CASE), eq("dispatch-outbox"));
+        verify(notificationOutPort, times(1)).sendDispatchErrors(eq(USE_CASE_RECIPIENTS), eq(USE_CASE), eq(Map.of(FILE1.reference(), exception)));
+    }
+
+    @Test
+    void testRelayDispatchEvents_ExtendClaimWhileSending() {
+        // setup
+        final Duration claimDuration = swimDispatcherProperties.getDispatchOutboxClaimDuration();
+        swimDispatcherProperties.setDispatchOutboxClaimDuration(Duration.ofMillis(100));
+        final CompletableFuture<Void> slowSend = CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+        when(dispatchOutboxOutPort.claimEntries(anyInt(), any())).thenReturn(List.of(
+                new DispatchOutboxEntry(1, USE_CASE, DESTINATION, false, null, FILES1, 0)));
+        when(dispatchActionsHelper.publishFiles(USE_CASE, DESTINATION, false, null, FILES1)).thenReturn(slowSend);
+        try {
+            // call
+            dispatchOutboxUseCase.relayDispatchEvents();
+        } finally {
+            swimDispatcherProperties.setDispatchOutboxClaimDuration(claimDuration);
+        }
+        // test
+        verify(dispatchOutboxOutPort, atLeastOnce()).extendClaims(eq(List.of(1L)), eq(Duration.ofMillis(100)));
+        verify(dispatchOutboxOutPort, times(1)).removeEntries(eq(List.of(1L)));
+        verify(dispatchOutboxOutPort, never()).retryEntry(anyLong(), any());
+    }
+}
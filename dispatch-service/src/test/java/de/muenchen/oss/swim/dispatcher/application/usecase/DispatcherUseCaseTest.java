@@ -10,43 +10,68 @@ import static de.muenchen.oss.swim.dispatcher.TestConstants.FILE2_GROUP;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.FILE_LIST;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.FOLDER_PATH;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.GROUPED_FILE_LIST;
+import static de.muenchen.oss.swim.dispatcher.TestConstants.TAGS;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE_DISPATCH_PATH;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE_RECIPIENTS;
 import static de.muenchen.oss.swim.dispatcher.domain.model.DispatchAction.IGNORE;
 import static de.muenchen.oss.swim.dispatcher.domain.model.DispatchAction.REROUTE;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import de.muenchen.oss.swim.dispatcher.TestConstants;
+import de.muenchen.oss.swim.dispatcher.application.port.out.ConsumerLagOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.DispatchOutboxOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileDispatchingOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileSystemOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.LeaseOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.NotificationOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.ObjectIndexOutPort;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchActionsHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchPipeline;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchScheduler;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchThrottlingHelper;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.FileHandlingHelper;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.GroupingHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.ShardingHelper;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.ValidationHelper;
 import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
 import de.muenchen.oss.swim.dispatcher.domain.exception.FileChunkException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.FileSizeException;
+import de.muenchen.oss.swim.dispatcher.domain.exception.FileSystemAccessException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.MetadataException;
+import de.muenchen.oss.swim.dispatcher.domain.exception.StreamingException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.UseCaseException;
 import de.muenchen.oss.swim.dispatcher.domain.helper.MetadataHelper;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileGroup;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileOperationResult;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import de.muenchen.oss.swim.dispatcher.domain.model.MessageKeyStrategy;
 import de.muenchen.oss.swim.dispatcher.domain.model.PresignedFile;
+import de.muenchen.oss.swim.dispatcher.domain.model.ScanMode;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import de.muenchen.oss.swim.dispatcher.domain.model.outbox.DispatchOutboxFile;
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -60,7 +85,8 @@ import tools.jackson.databind.json.JsonMapper;
 
 @SpringBootTest(
         classes = { SwimDispatcherProperties.class, DispatcherUseCase.class, FileHandlingHelper.class, JsonMapper.class, MetadataHelper.class,
-                GroupingHelper.class, DispatchActionsHelper.class, ValidationHelper.class }
+                GroupingHelper.class, DispatchActionsHelper.class, ValidationHelper.class, DispatchScheduler.class,
+                DispatchPipeline.class, ShardingHelper.class, DispatchThrottlingHelper.class }
 )
 @EnableConfigurationProperties
 @ExtendWith(MockitoExtension.class)
@@ -72,6 +98,12 @@ class DispatcherUseCaseTest {
     public static final String METADATA_PATH = "test/inProcess/path/test.json";
     public static final FileReference METADATA_FILE = new FileReference(BUCKET, METADATA_PATH);
 
+    @MockitoBean
+    private LeaseOutPort leaseOutPort;
+    @MockitoBean
+    private ConsumerLagOutPort consumerLagOutPort;
+    @MockitoBean
+    private DispatchOutboxOutPort dispatchOutboxOutPort;
     @MockitoBean
     private DispatchMeter dispatchMeter;
     @MockitoBean
@@ -80,6 +112,8 @@ class DispatcherUseCaseTest {
     private FileDispatchingOutPort fileDispatchingOutPort;
     @MockitoBean
     private NotificationOutPort notificationOutPort;
+    @MockitoBean
+    private ObjectIndexOutPort objectIndexOutPort;
     @MockitoSpyBean
     @Autowired
     private FileHandlingHelper fileHandlingHelper;
@@ -94,6 +128,12 @@ class DispatcherUseCaseTest {
     private ValidationHelper validationHelper;
     @MockitoSpyBean
     @Autowired
+    private DispatchThrottlingHelper dispatchThrottlingHelper;
+    @MockitoSpyBean
+    @Autowired
+    private ShardingHelper shardingHelper;
+    @MockitoSpyBean
+    @Autowired
     private DispatcherUseCase dispatcherUseCase;
     @Autowired
     private SwimDispatcherProperties swimDispatcherProperties;
@@ -103,8 +143,9 @@ class DispatcherUseCaseTest {
         // setup
         final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
         when(fileSystemOutPort.getSubDirectories(eq(BUCKET), eq(USE_CASE_DISPATCH_PATH))).thenReturn(List.of(FOLDER_PATH));
-        when(fileSystemOutPort.getMatchingFilesWithTags(eq(BUCKET), eq(FOLDER_PATH), eq(true), eq("pdf"), anyMap(), anyMap())).thenReturn(FILE_LIST);
-        doNothing().when(dispatcherUseCase).processFileGroup(any(), any(), any());
+        when(fileSystemOutPort.streamMatchingFilesWithTags(eq(BUCKET), eq(FOLDER_PATH), eq(true), eq("pdf"), anyMap(), anyMap(), any()))
+                .thenReturn(FILE_LIST.stream());
+        doReturn(CompletableFuture.completedFuture(null)).when(dispatcherUseCase).processFileGroup(any(), any(), any());
         // call
         dispatcherUseCase.triggerDispatching();
         // test
@@ -115,6 +156,24 @@ class DispatcherUseCaseTest {
         verify(dispatcherUseCase).processFileGroup(eq(useCase), eq(FILE2_BASE_NAME), eq(GROUPED_FILE_LIST.get(FILE2_BASE_NAME)));
         verify(fileHandlingHelper, times(0)).markFileError(any(), any(), any());
         verify(notificationOutPort, times(0)).sendDispatchErrors(any(), any(), any());
+        verify(dispatchMeter).recordFolderScanDuration(eq(USE_CASE), eq("root"), any());
+        verify(dispatchMeter).recordFolderScanDuration(eq(USE_CASE), eq("sub-folder"), any());
+        final Instant oldest = FILE_LIST.stream().map(i -> i.lastModified().toInstant()).min(Comparator.naturalOrder()).orElseThrow();
+        verify(dispatchMeter).updateReadyFiles(eq(USE_CASE), eq((long) FILE_LIST.size()), eq(oldest));
+    }
+
+    @Test
+    void testTriggerDispatching_UseCaseFailure() throws MetadataException, UseCaseException {
+        // setup
+        when(fileSystemOutPort.getSubDirectories(eq(BUCKET), eq(USE_CASE_DISPATCH_PATH))).thenThrow(new FileSystemAccessException("Error"));
+        when(fileSystemOutPort.streamMatchingFilesWithTags(eq(BUCKET), eq(USE_CASE_DISPATCH_PATH), eq(false), eq("pdf"), anyMap(), anyMap(), any()))
+                .thenReturn(List.of(FILE1).stream());
+        doReturn(CompletableFuture.completedFuture(null)).when(dispatcherUseCase).processFileGroup(any(), any(), any());
+        // call
+        dispatcherUseCase.triggerDispatching();
+        // test
+        verify(notificationOutPort).sendDispatchErrors(any(), eq(USE_CASE), any(), any());
+        verify(dispatchMeter).updateReadyFiles(eq(USE_CASE), eq(1L), eq(FILE1.lastModified().toInstant()));
     }
 
     @Test
@@ -122,7 +181,8 @@ class DispatcherUseCaseTest {
         // setup
         final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
         when(fileSystemOutPort.getSubDirectories(eq(BUCKET), eq(USE_CASE_DISPATCH_PATH))).thenReturn(List.of(FOLDER_PATH));
-        when(fileSystemOutPort.getMatchingFilesWithTags(eq(BUCKET), eq(FOLDER_PATH), eq(true), eq("pdf"), anyMap(), anyMap())).thenReturn(FILE_LIST);
+        when(fileSystemOutPort.streamMatchingFilesWithTags(eq(BUCKET), eq(FOLDER_PATH), eq(true), eq("pdf"), anyMap(), anyMap(), any()))
+                .thenReturn(FILE_LIST.stream());
         final MetadataException e = new MetadataException("Error");
         doThrow(e).when(dispatcherUseCase).processFileGroup(any(), any(), any());
         // call
@@ -138,6 +198,151 @@ class DispatcherUseCaseTest {
                 FILE2.reference(), e)));
     }
 
+    @Test
+    void testTriggerDispatching_ChunksInMultipleBatches() throws MetadataException, UseCaseException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        final FileWithMetadata chunk1 = TestConstants.createFileWithMeta("test/inProcess/path/test-1v2.pdf", TestConstants.TAGS);
+        final FileWithMetadata chunk2 = TestConstants.createFileWithMeta("test/inProcess/path/test-2v2.pdf", TestConstants.TAGS);
+        when(fileSystemOutPort.getSubDirectories(eq(BUCKET), eq(USE_CASE_DISPATCH_PATH))).thenReturn(List.of(FOLDER_PATH));
+        when(fileSystemOutPort.streamMatchingFilesWithTags(eq(BUCKET), eq(FOLDER_PATH), eq(true), eq("pdf"), anyMap(), anyMap(), any()))
+                .thenReturn(List.of(chunk1, FILE1, chunk2).stream());
+        doReturn(CompletableFuture.completedFuture(null)).when(dispatcherUseCase).processFileGroup(any(), any(), any());
+        final int batchSize = swimDispatcherProperties.getDispatchBatchSize();
+        swimDispatcherProperties.setDispatchBatchSize(1);
+        try {
+            // call
+            dispatcherUseCase.triggerDispatching();
+        } finally {
+            swimDispatcherProperties.setDispatchBatchSize(batchSize);
+        }
+        // test
+        verify(groupingHelper, times(3)).groupFiles(any());
+        verify(dispatcherUseCase).processFileGroup(eq(useCase), eq(FILE1_BASE_NAME), eq(FILE1_GROUP));
+        verify(dispatcherUseCase).processFileGroup(eq(useCase), eq("test"), eq(new FileGroup(true, List.of(chunk1, chunk2))));
+        verify(notificationOutPort, times(0)).sendDispatchErrors(any(), any(), any());
+    }
+
+    @Test
+    void testTriggerDispatching_ShardLostBetweenBatches() throws MetadataException, UseCaseException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        when(fileSystemOutPort.getSubDirectories(eq(BUCKET), eq(USE_CASE_DISPATCH_PATH))).thenReturn(List.of(FOLDER_PATH));
+        when(fileSystemOutPort.streamMatchingFilesWithTags(eq(BUCKET), eq(FOLDER_PATH), eq(true), eq("pdf"), anyMap(), anyMap(), any()))
+                .thenReturn(List.of(FILE1, FILE2).stream());
+        doReturn(CompletableFuture.completedFuture(null)).when(dispatcherUseCase).processFileGroup(any(), any(), any());
+        // owned while submitting the folder and for the first batch
+        doReturn(true, true, false).when(shardingHelper).ownsPath(eq(useCase), eq(FOLDER_PATH));
+        final int batchSize = swimDispatcherProperties.getDispatchBatchSize();
+        swimDispatcherProperties.setDispatchBatchSize(1);
+        try {
+            // call
+            dispatcherUseCase.triggerDispatching();
+        } finally {
+            swimDispatcherProperties.setDispatchBatchSize(batchSize);
+        }
+        // test
+        verify(dispatcherUseCase).processFileGroup(eq(useCase), eq(FILE1_BASE_NAME), eq(FILE1_GROUP));
+        verify(dispatcherUseCase, times(0)).processFileGroup(eq(useCase), eq(FILE2_BASE_NAME), any());
+    }
+
+    @Test
+    void testTriggerDispatching_IncrementalScan() {
+        // setup
+        when(fileSystemOutPort.getSubDirectories(eq(BUCKET), eq(USE_CASE_DISPATCH_PATH))).thenReturn(List.of(FOLDER_PATH));
+        when(objectIndexOutPort.findLastFullScans(eq(USE_CASE))).thenReturn(Map.of(), Map.of(0, Instant.now()));
+        swimDispatcherProperties.setIncrementalScan(true);
+        try {
+            // call
+            dispatcherUseCase.triggerDispatching();
+            dispatcherUseCase.triggerDispatching();
+        } finally {
+            swimDispatcherProperties.setIncrementalScan(false);
+        }
+        // test
+        verify(fileSystemOutPort).streamMatchingFilesWithTags(eq(BUCKET), eq(FOLDER_PATH), eq(true), eq("pdf"), anyMap(), anyMap(), eq(ScanMode.FULL));
+        verify(fileSystemOutPort).streamMatchingFilesWithTags(eq(BUCKET), eq(FOLDER_PATH), eq(true), eq("pdf"), anyMap(), anyMap(),
+                eq(ScanMode.INCREMENTAL));
+        verify(objectIndexOutPort).removeObjectsNotSeenSince(eq(BUCKET), eq(USE_CASE_DISPATCH_PATH + "/"), any());
+        verify(objectIndexOutPort).storeLastFullScan(eq(USE_CASE), eq(List.of(0)), any());
+    }
+
+    @Test
+    void testTriggerDispatching_IncrementalScanOutdated() {
+        // setup
+        final Instant outdated = Instant.now().minus(swimDispatcherProperties.getFullScanInterval()).minusSeconds(1);
+        when(fileSystemOutPort.getSubDirectories(eq(BUCKET), eq(USE_CASE_DISPATCH_PATH))).thenReturn(List.of(FOLDER_PATH));
+        when(objectIndexOutPort.findLastFullScans(eq(USE_CASE))).thenReturn(Map.of(0, outdated));
+        swimDispatcherProperties.setIncrementalScan(true);
+        try {
+            // call
+            dispatcherUseCase.triggerDispatching();
+        } finally {
+            swimDispatcherProperties.setIncrementalScan(false);
+        }
+        // test
+        verify(fileSystemOutPort).streamMatchingFilesWithTags(eq(BUCKET), eq(FOLDER_PATH), eq(true), eq("pdf"), anyMap(), anyMap(), eq(ScanMode.FULL));
+        verify(objectIndexOutPort).storeLastFullScan(eq(USE_CASE), eq(List.of(0)), any());
+    }
+
+    @Test
+    void testTriggerFileDispatching_Success() throws MetadataException, UseCaseException, FileChunkException, FileSizeException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        when(fileSystemOutPort.getMatchingFileWithTags(eq(FILE1.reference()), anyMap(), anyMap())).thenReturn(Optional.of(FILE1));
+        doReturn(CompletableFuture.completedFuture(null)).when(dispatcherUseCase).processFileGroup(any(), any(), any());
+        // call
+        dispatcherUseCase.triggerFileDispatching(BUCKET, FILE1.reference().path());
+        // test
+        verify(validationHelper).validateFileGroup(eq(useCase), eq(FILE1_BASE_NAME), eq(FILE1_GROUP));
+        verify(dispatcherUseCase).processFileGroup(eq(useCase), eq(FILE1_BASE_NAME), eq(FILE1_GROUP));
+        verify(notificationOutPort, times(0)).sendDispatchErrors(any(), any(), any());
+    }
+
+    @Test
+    void testTriggerFileDispatching_ChunksIncomplete() throws MetadataException, UseCaseException {
+        // setup
+        final String chunkPath = FOLDER_PATH + "report-1v2.pdf";
+        when(fileSystemOutPort.getFilePathsWithPrefix(eq(BUCKET), eq(FOLDER_PATH + "report-")))
+                .thenReturn(List.of(chunkPath, FOLDER_PATH + "report-2v2.json"));
+        // call
+        dispatcherUseCase.triggerFileDispatching(BUCKET, chunkPath);
+        // test
+        verify(fileSystemOutPort, times(0)).getMatchingFileWithTags(any(), any(), any());
+        verify(fileSystemOutPort, times(0)).streamMatchingFilesWithTags(any(), any(), anyBoolean(), any(), any(), any(), any());
+        verify(dispatcherUseCase, times(0)).processFileGroup(any(), any(), any());
+    }
+
+    @Test
+    void testTriggerFileDispatching_ChunksComplete() throws MetadataException, UseCaseException, FileChunkException, FileSizeException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        final FileWithMetadata chunk1 = TestConstants.createFileWithMeta(FOLDER_PATH + "report-1v2.pdf", TAGS);
+        final FileWithMetadata chunk2 = TestConstants.createFileWithMeta(FOLDER_PATH + "report-2v2.pdf", TAGS);
+        when(fileSystemOutPort.getFilePathsWithPrefix(eq(BUCKET), eq(FOLDER_PATH + "report-")))
+                .thenReturn(List.of(chunk1.reference().path(), chunk2.reference().path(), FOLDER_PATH + "report-other-1v1.pdf"));
+        when(fileSystemOutPort.getMatchingFileWithTags(eq(chunk1.reference()), anyMap(), anyMap())).thenReturn(Optional.of(chunk1));
+        when(fileSystemOutPort.getMatchingFileWithTags(eq(chunk2.reference()), anyMap(), anyMap())).thenReturn(Optional.of(chunk2));
+        doReturn(CompletableFuture.completedFuture(null)).when(dispatcherUseCase).processFileGroup(any(), any(), any());
+        // call
+        dispatcherUseCase.triggerFileDispatching(BUCKET, chunk2.reference().path());
+        // test
+        final FileGroup group = new FileGroup(true, List.of(chunk1, chunk2));
+        verify(validationHelper).validateFileGroup(eq(useCase), eq("report"), eq(group));
+        verify(dispatcherUseCase).processFileGroup(eq(useCase), eq("report"), eq(group));
+        verify(fileSystemOutPort, times(2)).getMatchingFileWithTags(any(), any(), any());
+        verify(fileSystemOutPort, times(0)).streamMatchingFilesWithTags(any(), any(), anyBoolean(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testTriggerFileDispatching_NotInDispatchFolder() {
+        // call
+        dispatcherUseCase.triggerFileDispatching(BUCKET, "test/finished/path/test.pdf");
+        dispatcherUseCase.triggerFileDispatching("other-bucket", FILE1.reference().path());
+        // test
+        verify(fileSystemOutPort, times(0)).getMatchingFileWithTags(any(), any(), any());
+    }
+
     @Test
     void testProcessFile_Group_Success() throws MetadataException, UseCaseException {
         // setup
@@ -145,14 +350,17 @@ class DispatcherUseCaseTest {
         when(fileSystemOutPort.fileExists(eq(METADATA_FILE))).thenReturn(true);
         when(fileSystemOutPort.getPresignedUrl(eq(METADATA_FILE))).thenReturn(PRESIGNED_URL_METADATA_FILE);
         when(fileSystemOutPort.getPresignedUrl(eq(FILE1.reference()))).thenReturn(PRESIGNED_URL_FILE);
+        when(fileDispatchingOutPort.dispatchFile(any(), any(), any(), any(PresignedFile.class))).thenReturn(CompletableFuture.completedFuture(null));
         // call
-        dispatcherUseCase.processFileGroup(useCase, FILE1.reference().getFileNameWithoutExtension(), FILE1_GROUP);
+        dispatcherUseCase.processFileGroup(useCase, FILE1.reference().getFileNameWithoutExtension(), FILE1_GROUP).join();
         // test
-        verify(fileDispatchingOutPort).dispatchFile(eq(useCase.getDestinationBinding()), eq(USE_CASE), eq(PRESIGNED_FILE));
+        verify(fileDispatchingOutPort).dispatchFile(eq(useCase.getDestinationBinding()), eq(USE_CASE), isNull(), eq(PRESIGNED_FILE));
         verify(dispatchActionsHelper, times(0)).rerouteFileToUseCase(any(), any(), any());
-        verify(fileSystemOutPort).tagFile(eq(FILE1.reference()), eq(Map.of(
+        verify(fileSystemOutPort).tagFile(eq(FILE1.reference()), eq(FILE1.etag()), eq(Map.of(
                 swimDispatcherProperties.getDispatchStateTagKey(), swimDispatcherProperties.getDispatchedStateTagValue())));
         verify(dispatchMeter).incrementDispatched(eq(USE_CASE), eq(useCase.getDestinationBinding()));
+        verify(dispatchMeter).recordGroupDispatchDuration(eq(USE_CASE), eq(useCase.getDestinationBinding()), any());
+        verify(dispatchThrottlingHelper).recordDispatched(eq(useCase.getDestinationBinding()), eq(1));
     }
 
     @Test
@@ -165,16 +373,161 @@ class DispatcherUseCaseTest {
         when(fileSystemOutPort.getPresignedUrl(eq(FILE1.reference()))).thenReturn(PRESIGNED_URL_FILE);
         when(fileSystemOutPort.readFile(eq(METADATA_FILE)))
                 .thenReturn(getClass().getResourceAsStream("/files/example-metadata-destination.json"));
+        when(fileDispatchingOutPort.dispatchFile(any(), any(), any(), any(PresignedFile.class))).thenReturn(CompletableFuture.completedFuture(null));
         // call
-        dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP);
+        dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP).join();
         // test
-        verify(fileDispatchingOutPort).dispatchFile(eq("invoice-out"), eq(useCaseName), eq(PRESIGNED_FILE));
+        verify(fileDispatchingOutPort).dispatchFile(eq("invoice-out"), eq(useCaseName), isNull(), eq(PRESIGNED_FILE));
         verify(dispatchActionsHelper, times(0)).rerouteFileToUseCase(any(), any(), any());
-        verify(fileSystemOutPort).tagFile(eq(FILE1.reference()), eq(Map.of(
+        verify(fileSystemOutPort).tagFile(eq(FILE1.reference()), eq(FILE1.etag()), eq(Map.of(
                 swimDispatcherProperties.getDispatchStateTagKey(), swimDispatcherProperties.getDispatchedStateTagValue())));
         verify(dispatchMeter).incrementDispatched(eq(useCaseName), eq("invoice-out"));
     }
 
+    @Test
+    void testProcessFile_Group_MessageKeyFileName() throws MetadataException, UseCaseException {
+        // setup
+        final String useCaseName = "test-key-file-name";
+        final UseCase useCase = swimDispatcherProperties.findUseCase(useCaseName);
+        when(fileSystemOutPort.fileExists(eq(METADATA_FILE))).thenReturn(true);
+        when(fileSystemOutPort.getPresignedUrl(eq(METADATA_FILE))).thenReturn(PRESIGNED_URL_METADATA_FILE);
+        when(fileSystemOutPort.getPresignedUrl(eq(FILE1.reference()))).thenReturn(PRESIGNED_URL_FILE);
+        when(fileDispatchingOutPort.dispatchFile(any(), any(), any(), any(PresignedFile.class))).thenReturn(CompletableFuture.completedFuture(null));
+        // call
+        dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP).join();
+        // test
+        final String messageKey = Integer.toHexString("test".hashCode());
+        verify(fileDispatchingOutPort).dispatchFile(eq(useCase.getDestinationBinding()), eq(useCaseName), eq(messageKey), eq(PRESIGNED_FILE));
+        verify(dispatchMeter).recordMessageKey(eq(useCaseName), eq(MessageKeyStrategy.FILE_NAME), eq(messageKey));
+        verify(fileSystemOutPort, times(0)).readFile(any());
+    }
+
+    @Test
+    void testProcessFile_Group_MessageKeyMetadata() throws MetadataException, UseCaseException {
+        // setup
+        final String useCaseName = "test-key-meta";
+        final UseCase useCase = swimDispatcherProperties.findUseCase(useCaseName);
+        when(fileSystemOutPort.fileExists(eq(METADATA_FILE))).thenReturn(true);
+        when(fileSystemOutPort.getPresignedUrl(eq(METADATA_FILE))).thenReturn(PRESIGNED_URL_METADATA_FILE);
+        when(fileSystemOutPort.getPresignedUrl(eq(FILE1.reference()))).thenReturn(PRESIGNED_URL_FILE);
+        when(fileSystemOutPort.readFile(eq(METADATA_FILE)))
+                .thenReturn(getClass().getResourceAsStream("/files/example-metadata-destination.json"));
+        when(fileDispatchingOutPort.dispatchFile(any(), any(), any(), any(PresignedFile.class))).thenReturn(CompletableFuture.completedFuture(null));
+        // call
+        dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP).join();
+        // test
+        verify(fileDispatchingOutPort).dispatchFile(eq("invoice-out"), eq(useCaseName), eq("invoice-out"), eq(PRESIGNED_FILE));
+        verify(dispatchMeter).recordMessageKey(eq(useCaseName), eq(MessageKeyStrategy.METADATA), eq("invoice-out"));
+        // metadata is loaded once for destination and message key
+        verify(fileSystemOutPort, times(1)).readFile(eq(METADATA_FILE));
+    }
+
+    @Test
+    void testProcessFile_Group_MessageKeyNotRecordedIfSkipped() throws MetadataException, UseCaseException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.findUseCase("test-key-file-name");
+        when(fileSystemOutPort.fileExists(eq(METADATA_FILE))).thenReturn(true);
+        when(dispatchOutboxOutPort.enqueue(any(), any(), anyBoolean(), any(), any())).thenReturn(false);
+        swimDispatcherProperties.setDispatchOutboxEnabled(true);
+        try {
+            // call
+            dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP).join();
+        } finally {
+            swimDispatcherProperties.setDispatchOutboxEnabled(false);
+        }
+        // test
+        verify(dispatchOutboxOutPort).enqueue(any(), any(), anyBoolean(), eq(Integer.toHexString("test".hashCode())), any());
+        verify(dispatchMeter, times(0)).recordMessageKey(any(), any(), any());
+    }
+
+    @Test
+    void testProcessFile_Group_OutboxNotCounted() throws MetadataException, UseCaseException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        when(fileSystemOutPort.fileExists(eq(METADATA_FILE))).thenReturn(true);
+        when(dispatchOutboxOutPort.enqueue(any(), any(), anyBoolean(), any(), any())).thenReturn(false);
+        swimDispatcherProperties.setDispatchOutboxEnabled(true);
+        try {
+            // call
+            dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP).join();
+        } finally {
+            swimDispatcherProperties.setDispatchOutboxEnabled(false);
+        }
+        // test
+        verify(dispatchOutboxOutPort).enqueue(eq(USE_CASE), eq(useCase.getDestinationBinding()), eq(false), any(), any());
+        verify(fileDispatchingOutPort, times(0)).dispatchFile(any(), any(), any(), any(PresignedFile.class));
+        verify(dispatchMeter, times(0)).incrementDispatched(any(), any());
+        verify(dispatchMeter, times(0)).recordGroupDispatchDuration(any(), any(), any());
+        // duplicates aren't charged for throttling
+        verify(dispatchThrottlingHelper, times(0)).recordDispatched(any(), anyInt());
+    }
+
+    @Test
+    void testProcessFile_Group_OutboxCharged() throws MetadataException, UseCaseException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        when(fileSystemOutPort.fileExists(eq(METADATA_FILE))).thenReturn(true);
+        when(dispatchOutboxOutPort.enqueue(any(), any(), anyBoolean(), any(), any())).thenReturn(true);
+        swimDispatcherProperties.setDispatchOutboxEnabled(true);
+        try {
+            // call
+            dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP).join();
+        } finally {
+            swimDispatcherProperties.setDispatchOutboxEnabled(false);
+        }
+        // test
+        verify(dispatchThrottlingHelper).recordDispatched(eq(useCase.getDestinationBinding()), eq(1));
+    }
+
+    @Test
+    void testIsAlreadyDispatched() {
+        // setup
+        final List<DispatchOutboxFile> files = List.of(new DispatchOutboxFile(FILE1.reference(), null, FILE1.etag()),
+                new DispatchOutboxFile(FILE2.reference(), null, FILE2.etag()));
+        when(fileSystemOutPort.getMatchingFileWithTags(eq(FILE1.reference()), eq(Map.of()), eq(swimDispatcherProperties.getDispatchExcludeTags())))
+                .thenReturn(Optional.of(FILE1));
+        when(fileSystemOutPort.getMatchingFileWithTags(eq(FILE2.reference()), eq(Map.of()), eq(swimDispatcherProperties.getDispatchExcludeTags())))
+                .thenReturn(Optional.of(FILE2), Optional.empty());
+        // call
+        final boolean pending = dispatchActionsHelper.isAlreadyDispatched(files);
+        final boolean dispatched = dispatchActionsHelper.isAlreadyDispatched(files);
+        // test
+        assertFalse(pending);
+        assertTrue(dispatched);
+    }
+
+    @Test
+    void testProcessFile_Group_Throttled() throws MetadataException, UseCaseException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        doReturn(false).when(dispatchThrottlingHelper).hasCapacity(eq(useCase.getDestinationBinding()));
+        // call
+        dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP).join();
+        // test
+        verify(dispatchActionsHelper, times(0)).dispatchFileGroup(any(), any(), any(), any());
+        verify(fileSystemOutPort, times(0)).tagFile(any(), any(), any());
+        verify(dispatchMeter).incrementThrottled(eq(USE_CASE), eq(useCase.getDestinationBinding()));
+        verify(dispatchMeter, times(0)).incrementDispatched(any(), any());
+    }
+
+    @Test
+    void testProcessFile_Group_SendFailed() throws MetadataException, UseCaseException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        when(fileSystemOutPort.fileExists(eq(METADATA_FILE))).thenReturn(true);
+        when(fileSystemOutPort.getPresignedUrl(eq(METADATA_FILE))).thenReturn(PRESIGNED_URL_METADATA_FILE);
+        when(fileSystemOutPort.getPresignedUrl(eq(FILE1.reference()))).thenReturn(PRESIGNED_URL_FILE);
+        when(fileDispatchingOutPort.dispatchFile(any(), any(), any(), any(PresignedFile.class)))
+                .thenReturn(CompletableFuture.failedFuture(new StreamingException("Error")));
+        // call
+        final CompletableFuture<Void> result = dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP);
+        // test
+        assertTrue(result.isCompletedExceptionally());
+        verify(fileSystemOutPort, times(0)).tagFile(any(), any(), any());
+        verify(dispatchMeter, times(0)).incrementDispatched(any(), any());
+        verify(dispatchThrottlingHelper, times(0)).recordDispatched(any(), anyInt());
+    }
+
     @Test
     void testProcessFile_Group_MetadataException() {
         // setup
@@ -182,6 +535,7 @@ class DispatcherUseCaseTest {
         when(fileSystemOutPort.fileExists(eq(METADATA_FILE))).thenReturn(false);
         // call and test
         assertThrows(MetadataException.class, () -> dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, FILE1_GROUP));
+        verify(dispatchThrottlingHelper, times(0)).recordDispatched(any(), anyInt());
     }
 
     @Test
@@ -191,12 +545,13 @@ class DispatcherUseCaseTest {
         final Map<String, String> tags = Map.of(
                 swimDispatcherProperties.getDispatchStateTagKey(), swimDispatcherProperties.getDispatchedStateTagValue(),
                 swimDispatcherProperties.getDispatchActionTagKey(), "ignore");
-        final FileWithMetadata file = new FileWithMetadata(FILE1.reference(), 0, null, tags);
+        final FileWithMetadata file = new FileWithMetadata(FILE1.reference(), 0, null, tags, null);
+        when(fileSystemOutPort.moveFiles(any(), any())).thenReturn(new FileOperationResult(Set.of(FILE1.reference()), Set.of(), Map.of()));
         // call
-        dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, new FileGroup(false, file));
+        dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, new FileGroup(false, file)).join();
         // test
-        verify(fileDispatchingOutPort, times(0)).dispatchFile(any(), any(), (PresignedFile) any());
-        verify(dispatchActionsHelper, times(0)).dispatchFileGroup(any(), any(), any());
+        verify(fileDispatchingOutPort, times(0)).dispatchFile(any(), any(), any(), (PresignedFile) any());
+        verify(dispatchActionsHelper, times(0)).dispatchFileGroup(any(), any(), any(), any());
         verify(dispatchActionsHelper, times(0)).rerouteFileToUseCase(any(), any(), any());
         verify(fileHandlingHelper).finishFile(eq(useCase), eq(FILE1.reference()));
         verify(dispatchMeter).incrementDispatched(eq(USE_CASE), eq(IGNORE.name()));
@@ -210,12 +565,13 @@ class DispatcherUseCaseTest {
                 swimDispatcherProperties.getDispatchStateTagKey(), swimDispatcherProperties.getDispatchedStateTagValue(),
                 swimDispatcherProperties.getDispatchActionTagKey(), "reroute",
                 "SWIM_Reroute_Destination", "test2");
-        final FileWithMetadata file = new FileWithMetadata(FILE1.reference(), 0, null, tags);
+        final FileWithMetadata file = new FileWithMetadata(FILE1.reference(), 0, null, tags, null);
+        when(fileSystemOutPort.moveFiles(any(), any())).thenReturn(new FileOperationResult(Set.of(FILE1.reference()), Set.of(), Map.of()));
         // call
-        dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, new FileGroup(false, file));
+        dispatcherUseCase.processFileGroup(useCase, FILE1_BASE_NAME, new FileGroup(false, file)).join();
         // test
         final FileReference destFile = new FileReference("test-bucket-2", "path/test2/inProcess/from_test-meta/path/test.pdf");
-        verify(fileDispatchingOutPort, times(0)).dispatchFile(any(), any(), (PresignedFile) any());
+        verify(fileDispatchingOutPort, times(0)).dispatchFile(any(), any(), any(), (PresignedFile) any());
         verify(dispatchActionsHelper).rerouteFileToUseCase(eq(useCase), eq(FILE1.reference()), eq(tags));
         verify(fileSystemOutPort).copyFile(eq(FILE1.reference()), eq(destFile), eq(true));
         verify(fileSystemOutPort).tagFile(eq(destFile), eq(Map.of(
@@ -1,5 +1,6 @@
 package de.muenchen.oss.swim.dispatcher.application.usecase;
 
+import static de.muenchen.oss.swim.dispatcher.TestConstants.BUCKET;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.TEST_PRESIGNED_FILE;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.TEST_PRESIGNED_URL_FILE;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.TEST_PRESIGNED_URL_PATH;
@@ -15,8 +16,12 @@ import de.muenchen.oss.swim.dispatcher.application.port.out.NotificationOutPort;
 import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
 import de.muenchen.oss.swim.dispatcher.domain.model.ErrorDetails;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileEventError;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.PresignedFile;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.SingleFileEvent;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -75,4 +80,17 @@ class ErrorHandlerUseCaseTest {
         verify(notificationOutPort, times(0)).sendFileError(eq(useCase.getMailAddresses()), eq(USE_CASE), eq(TEST_PRESIGNED_URL_PATH),
                 eq(TEST_ERROR_DETAILS), any());
     }
+
+    @Test
+    void handleErrors_Success() {
+        final PresignedFile file2 = new PresignedFile("https://s3.muenchen.de/test-bucket/test/inProcess/path/example2.pdf", null);
+        // call
+        errorHandlerUseCase.handleErrors(List.of(
+                new FileEventError(new SingleFileEvent(USE_CASE, TEST_PRESIGNED_FILE), TEST_ERROR_DETAILS),
+                new FileEventError(new SingleFileEvent(USE_CASE, file2), TEST_ERROR_DETAILS)));
+        // test
+        verify(fileSystemOutPort).tagFile(eq(TEST_PRESIGNED_URL_FILE), any());
+        verify(fileSystemOutPort).tagFile(eq(new FileReference(BUCKET, "test/inProcess/path/example2.pdf")), any());
+        verify(dispatchMeter, times(2)).incrementError(eq(USE_CASE), eq(TEST_ERROR_DETAILS.source()));
+    }
 }
@@ -2,6 +2,8 @@ package de.muenchen.oss.swim.dispatcher.application.usecase;
 
 import static de.muenchen.oss.swim.dispatcher.TestConstants.TEST_PRESIGNED_URL;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -13,10 +15,16 @@ import de.muenchen.oss.swim.dispatcher.application.port.out.FileSystemOutPort;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.FileHandlingHelper;
 import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.exception.FileSystemAccessException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.PresignedUrlException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.UseCaseException;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileOperationResult;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
+import de.muenchen.oss.swim.dispatcher.domain.model.PresignedFile;
+import de.muenchen.oss.swim.dispatcher.domain.model.streaming.SingleFileEvent;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -42,13 +50,15 @@ class MarkFileFinishedUseCaseTest {
 
     @Test
     void testMarkFileFinished_Success() throws PresignedUrlException, UseCaseException {
+        final FileReference file = new FileReference("test-bucket", "test/inProcess/path/example.pdf");
         when(fileSystemOutPort.verifyPresignedUrl(any())).thenReturn(true);
+        when(fileSystemOutPort.moveFiles(any(), any())).thenReturn(new FileOperationResult(Set.of(file), Set.of(), Map.of()));
         markFileFinishedUseCase.markFileFinished(USE_CASE, TEST_PRESIGNED_URL);
         verify(fileSystemOutPort).verifyPresignedUrl(TEST_PRESIGNED_URL);
-        verify(fileSystemOutPort).moveFile(eq(new FileReference("test-bucket", "test/inProcess/path/example.pdf")),
-                eq("test/finished/path/example.pdf"));
-        verify(fileSystemOutPort).tagFile(eq(new FileReference("test-bucket", "test/finished/path/example.pdf")), eq(Map.of(
-                "SWIM_State", "finished")));
+        verify(fileSystemOutPort).moveFiles(eq(Map.of(
+                file, "test/finished/path/example.pdf",
+                file.getMetadataFile(), "test/finished/path/example.json")), eq(Map.of(
+                        "SWIM_State", "finished")));
         verify(dispatchMeter).incrementFinished(eq(USE_CASE));
     }
 
@@ -62,4 +72,28 @@ class MarkFileFinishedUseCaseTest {
     void testMarkFileFinished_UseCaseException() {
         assertThrows(UseCaseException.class, () -> markFileFinishedUseCase.markFileFinished("unknown-usecase", TEST_PRESIGNED_URL));
     }
+
+    @Test
+    void testMarkEventsFinished_PartialFailure() throws PresignedUrlException {
+        final FileReference file = new FileReference("test-bucket", "test/inProcess/path/example.pdf");
+        final FileReference missingFile = new FileReference("test-bucket", "test/inProcess/path/missing.pdf");
+        when(fileSystemOutPort.verifyPresignedUrl(any())).thenReturn(true);
+        when(fileSystemOutPort.moveFiles(any(), any())).thenReturn(new FileOperationResult(
+                Set.of(file, file.getMetadataFile()), Set.of(missingFile, missingFile.getMetadataFile()), Map.of()));
+        // call
+        final Map<Integer, Throwable> failures = markFileFinishedUseCase.markEventsFinished(List.of(
+                new SingleFileEvent(USE_CASE, new PresignedFile(TEST_PRESIGNED_URL, null)),
+                new SingleFileEvent("unknown-usecase", new PresignedFile(TEST_PRESIGNED_URL, null)),
+                new SingleFileEvent(USE_CASE, new PresignedFile("https://s3.muenchen.de/test-bucket/test/inProcess/path/missing.pdf", null))));
+        // test
+        assertEquals(Set.of(1, 2), failures.keySet());
+        assertInstanceOf(UseCaseException.class, failures.get(1));
+        assertInstanceOf(FileSystemAccessException.class, failures.get(2));
+        verify(fileSystemOutPort).moveFiles(eq(Map.of(
+                file, "test/finished/path/example.pdf",
+                file.getMetadataFile(), "test/finished/path/example.json",
+                missingFile, "test/finished/path/missing.pdf",
+                missingFile.getMetadataFile(), "test/finished/path/missing.json")), eq(Map.of(
+                        "SWIM_State", "finished")));
+    }
 }
@@ -7,10 +7,13 @@ import static de.muenchen.oss.swim.dispatcher.TestConstants.TAGS;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE_DISPATCH_PATH;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE_RECIPIENTS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -18,20 +21,30 @@ import static org.mockito.Mockito.when;
 
 import de.muenchen.oss.swim.dispatcher.TestConstants;
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileSystemOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.LeaseOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.NotificationOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.ReadProtocolOutPort;
 import de.muenchen.oss.swim.dispatcher.application.port.out.StoreProtocolOutPort;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.DispatchScheduler;
 import de.muenchen.oss.swim.dispatcher.application.usecase.helper.FileHandlingHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.ProtocolReconciliationHelper;
+import de.muenchen.oss.swim.dispatcher.application.usecase.helper.ShardingHelper;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
 import de.muenchen.oss.swim.dispatcher.domain.exception.ProtocolException;
 import de.muenchen.oss.swim.dispatcher.domain.exception.UseCaseException;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileWithMetadata;
+import de.muenchen.oss.swim.dispatcher.domain.model.SpooledFile;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
 import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolEntry;
+import jakarta.validation.ConstraintViolationException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -41,8 +54,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
-@SpringBootTest(classes = { SwimDispatcherProperties.class, ProtocolProcessingUseCase.class })
+@SpringBootTest(classes = { SwimDispatcherProperties.class, ProtocolProcessingUseCase.class, ProtocolReconciliationHelper.class, DispatchScheduler.class,
+        ShardingHelper.class, LocalValidatorFactoryBean.class })
 @EnableConfigurationProperties
 @ExtendWith(MockitoExtension.class)
 @ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
@@ -50,6 +65,8 @@ import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 class ProtocolProcessingUseCaseTest {
     public static final String EXAMPLE_PROTOCOL_RESOURCE_PATH = "files/protocol.csv";
 
+    @MockitoBean
+    private LeaseOutPort leaseOutPort;
     @MockitoBean
     private FileSystemOutPort fileSystemOutPort;
     @MockitoBean
@@ -60,19 +77,57 @@ class ProtocolProcessingUseCaseTest {
     private NotificationOutPort notificationOutPort;
     @MockitoBean
     private FileHandlingHelper fileHandlingHelper;
+    @MockitoBean
+    private DispatchMeter dispatchMeter;
     @MockitoSpyBean
     @Autowired
     private ProtocolProcessingUseCase protocolProcessingUseCase;
     @Autowired
     private SwimDispatcherProperties swimDispatcherProperties;
 
-    private static final FileWithMetadata PROTOCOL_FILE = new FileWithMetadata(new FileReference(BUCKET, "test/inProcess/path/path.csv"), 0L, null, TAGS);
+    private static final FileWithMetadata PROTOCOL_FILE = new FileWithMetadata(new FileReference(BUCKET, "test/inProcess/path/path.csv"), 0L, null, TAGS, null);
     private static final FileWithMetadata NO_PROTOCOL_FILE = new FileWithMetadata(new FileReference(BUCKET, "test/inProcess/path/path2.csv"), 0L, null,
-            TAGS);
+            TAGS, null);
     private static final String PROTOCOL_RAW_PATH = "path/path.csv";
     private static final ProtocolEntry PROTOCOL_ENTRY1 = new ProtocolEntry("test.pdf", 1, null, null, null, null, null, Map.of());
     private static final ProtocolEntry PROTOCOL_ENTRY2 = new ProtocolEntry("test2.pdf", 2, null, null, null, null, null, Map.of());
 
+    private final List<ProtocolEntry> storedEntries = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        // spooled protocol reads from the file system mock
+        when(fileSystemOutPort.spoolFile(any())).thenAnswer(i -> {
+            final FileReference reference = i.getArgument(0);
+            return new SpooledFile() {
+                @Override
+                public FileReference reference() {
+                    return reference;
+                }
+
+                @Override
+                public long size() {
+                    return 0;
+                }
+
+                @Override
+                public InputStream openStream() {
+                    return fileSystemOutPort.readFile(reference);
+                }
+
+                @Override
+                public void close() {
+                    // nothing to release
+                }
+            };
+        });
+        // consume streamed entries like the db adapter
+        when(storeProtocolOutPort.storeProtocol(any(), any(), any())).thenAnswer(i -> {
+            storedEntries.addAll(i.<Stream<ProtocolEntry>>getArgument(2).toList());
+            return (long) storedEntries.size();
+        });
+    }
+
     @Test
     void testTriggerProtocolProcessing_Successful() {
         // setup
@@ -92,8 +147,7 @@ class ProtocolProcessingUseCaseTest {
     void testProcessProtocolFile_Successful() {
         final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
         // setup
-        when(readProtocolOutPort.loadProtocol(eq(PROTOCOL_FILE.reference())))
-                .thenReturn(List.of(PROTOCOL_ENTRY1, PROTOCOL_ENTRY2));
+        when(readProtocolOutPort.streamProtocol(spooledFile(PROTOCOL_FILE.reference()))).thenReturn(Stream.of(PROTOCOL_ENTRY1, PROTOCOL_ENTRY2));
         final String protocolDir = PROTOCOL_FILE.reference().getParentPath();
         when(fileSystemOutPort.getMatchingFilesWithTags(eq(BUCKET), eq(protocolDir), eq(false), any(), any(), anyMap())).thenReturn(List.of(FILE1));
         final String protocolDirFinished = useCase.getFinishedPath(swimDispatcherProperties, protocolDir);
@@ -106,12 +160,13 @@ class ProtocolProcessingUseCaseTest {
         // test
         verify(notificationOutPort).sendProtocol(eq(USE_CASE_RECIPIENTS), eq(USE_CASE), eq(PROTOCOL_RAW_PATH), eq(protocolStream), eq(List.of()),
                 eq(List.of()));
-        verify(storeProtocolOutPort).deleteProtocol(eq(USE_CASE), eq(PROTOCOL_RAW_PATH));
-        verify(storeProtocolOutPort).storeProtocol(eq(USE_CASE), eq(PROTOCOL_RAW_PATH), eq(List.of(PROTOCOL_ENTRY1, PROTOCOL_ENTRY2)));
+        verify(storeProtocolOutPort).storeProtocol(eq(USE_CASE), eq(PROTOCOL_RAW_PATH), any());
+        assertEquals(List.of(PROTOCOL_ENTRY1, PROTOCOL_ENTRY2), storedEntries);
         verify(fileSystemOutPort).tagFile(eq(PROTOCOL_FILE.reference()), eq(Map.of(
                 swimDispatcherProperties.getProtocolStateTagKey(), swimDispatcherProperties.getProtocolProcessedStateTagValue(),
                 swimDispatcherProperties.getProtocolMatchTagKey(), "correct")));
         verify(fileSystemOutPort).moveFile(eq(PROTOCOL_FILE.reference()), eq("test/finishedProtocols/path/path.csv"));
+        verify(dispatchMeter).recordProtocolProcessingDuration(eq(USE_CASE), eq(true), any());
         verify(fileHandlingHelper, times(0)).markFileError(any(), any(), any());
         verify(notificationOutPort, times(0)).sendProtocolError(any(), any(), any(), any());
     }
@@ -119,14 +174,14 @@ class ProtocolProcessingUseCaseTest {
     @Test
     void testProcessProtocolFile_Missmatch() {
         // setup
-        when(readProtocolOutPort.loadProtocol(eq(PROTOCOL_FILE.reference()))).thenReturn(List.of(
+        when(readProtocolOutPort.streamProtocol(spooledFile(PROTOCOL_FILE.reference()))).thenReturn(Stream.of(
                 PROTOCOL_ENTRY1,
                 PROTOCOL_ENTRY2,
                 new ProtocolEntry("test4.pdf", 1, null, null, null, null, null, Map.of())));
         when(fileSystemOutPort.getMatchingFilesWithTags(any(), any(), anyBoolean(), any(), any(), anyMap())).thenReturn(List.of(
                 FILE1,
                 FILE2,
-                new FileWithMetadata(new FileReference(BUCKET, "test/inProcess/path/test3.pdf"), 0L, null, TAGS)));
+                new FileWithMetadata(new FileReference(BUCKET, "test/inProcess/path/test3.pdf"), 0L, null, TAGS, null)));
         final InputStream protocolStream = getClass().getResourceAsStream(EXAMPLE_PROTOCOL_RESOURCE_PATH);
         when(fileSystemOutPort.readFile(eq(PROTOCOL_FILE.reference()))).thenReturn(protocolStream);
         // call
@@ -145,25 +200,42 @@ class ProtocolProcessingUseCaseTest {
     void testProcessProtocolFile_ProtocolException() {
         // setup
         final ProtocolException e = new ProtocolException("Error", new Exception());
-        when(readProtocolOutPort.loadProtocol(eq(PROTOCOL_FILE.reference()))).thenThrow(e);
+        when(readProtocolOutPort.streamProtocol(spooledFile(PROTOCOL_FILE.reference()))).thenThrow(e);
         // call
         protocolProcessingUseCase.processProtocolFile(swimDispatcherProperties.getUseCases().getFirst(), PROTOCOL_FILE.reference());
         // test
         verify(fileHandlingHelper).markFileError(eq(PROTOCOL_FILE.reference()), eq(swimDispatcherProperties.getProtocolStateTagKey()), eq(e));
         verify(notificationOutPort).sendProtocolError(eq(USE_CASE_RECIPIENTS), eq(USE_CASE), eq(PROTOCOL_FILE.reference().path()), eq(e));
+        verify(dispatchMeter).recordProtocolProcessingDuration(eq(USE_CASE), eq(false), any());
+    }
+
+    @Test
+    void testProcessProtocolFile_InvalidEntry() {
+        // setup
+        final ProtocolEntry invalidEntry = new ProtocolEntry("test2.pdf", null, null, null, null, null, null, Map.of());
+        when(readProtocolOutPort.streamProtocol(spooledFile(PROTOCOL_FILE.reference()))).thenReturn(Stream.of(PROTOCOL_ENTRY1, invalidEntry));
+        // call
+        protocolProcessingUseCase.processProtocolFile(swimDispatcherProperties.getUseCases().getFirst(), PROTOCOL_FILE.reference());
+        // test
+        verify(fileHandlingHelper).markFileError(eq(PROTOCOL_FILE.reference()), eq(swimDispatcherProperties.getProtocolStateTagKey()),
+                any(ConstraintViolationException.class));
+        verify(notificationOutPort).sendProtocolError(eq(USE_CASE_RECIPIENTS), eq(USE_CASE), eq(PROTOCOL_FILE.reference().path()),
+                any(ConstraintViolationException.class));
+        verify(notificationOutPort, times(0)).sendProtocol(any(), any(), any(), any(), any(), any());
+        verify(dispatchMeter).recordProtocolProcessingDuration(eq(USE_CASE), eq(false), any());
     }
 
     @Test
     void testProcessProtocolFile_IgnorePattern() throws UseCaseException {
         final UseCase useCase = swimDispatcherProperties.findUseCase("test-meta-dest");
-        final FileWithMetadata protocolFile = new FileWithMetadata(new FileReference(BUCKET, "test3/inProcess/path/path.csv"), 0L, null, TAGS);
+        final FileWithMetadata protocolFile = new FileWithMetadata(new FileReference(BUCKET, "test3/inProcess/path/path.csv"), 0L, null, TAGS, null);
         // setup
-        when(readProtocolOutPort.loadProtocol(eq(protocolFile.reference()))).thenReturn(List.of(
+        when(readProtocolOutPort.streamProtocol(spooledFile(protocolFile.reference()))).thenReturn(Stream.of(
                 new ProtocolEntry("test.pdf", 1, null, null, null, null, null, Map.of())));
         when(fileSystemOutPort.getMatchingFilesWithTags(any(), any(), anyBoolean(), any(), any(), anyMap())).thenReturn(List.of(
-                new FileWithMetadata(new FileReference(BUCKET, "test3/inProcess/path/test.pdf"), 0L, null, TAGS),
-                new FileWithMetadata(new FileReference(BUCKET, "test3/inProcess/path/test-1v1.pdf"), 0L, null, TAGS),
-                new FileWithMetadata(new FileReference(BUCKET, "test3/inProcess/path/test-1v1-wrong.pdf"), 0L, null, TAGS)));
+                new FileWithMetadata(new FileReference(BUCKET, "test3/inProcess/path/test.pdf"), 0L, null, TAGS, null),
+                new FileWithMetadata(new FileReference(BUCKET, "test3/inProcess/path/test-1v1.pdf"), 0L, null, TAGS, null),
+                new FileWithMetadata(new FileReference(BUCKET, "test3/inProcess/path/test-1v1-wrong.pdf"), 0L, null, TAGS, null)));
         final InputStream protocolStream = getClass().getResourceAsStream(EXAMPLE_PROTOCOL_RESOURCE_PATH);
         when(fileSystemOutPort.readFile(eq(protocolFile.reference()))).thenReturn(protocolStream);
         // call
@@ -182,11 +254,14 @@ class ProtocolProcessingUseCaseTest {
     void testProcessProtocolFile_TagProcessedFiles() throws UseCaseException {
         // use case with tag-protocol-processed enabled
         final UseCase useCase = swimDispatcherProperties.findUseCase("test2");
-        final FileWithMetadata protocolFile = new FileWithMetadata(new FileReference("test-bucket-2", "path/test2/inProcess/path/path.csv"), 0L, null, TAGS);
-        final FileWithMetadata inProcessFile1 = new FileWithMetadata(new FileReference("test-bucket-2", "path/test2/inProcess/path/test.pdf"), 0L, null, TAGS);
-        final FileWithMetadata inProcessFile2 = new FileWithMetadata(new FileReference("test-bucket-2", "path/test2/inProcess/path/test2.pdf"), 0L, null, TAGS);
+        final FileWithMetadata protocolFile = new FileWithMetadata(new FileReference("test-bucket-2", "path/test2/inProcess/path/path.csv"), 0L, null, TAGS,
+                null);
+        final FileWithMetadata inProcessFile1 = new FileWithMetadata(new FileReference("test-bucket-2", "path/test2/inProcess/path/test.pdf"), 0L, null, TAGS,
+                null);
+        final FileWithMetadata inProcessFile2 = new FileWithMetadata(new FileReference("test-bucket-2", "path/test2/inProcess/path/test2.pdf"), 0L, null, TAGS,
+                null);
         // setup
-        when(readProtocolOutPort.loadProtocol(eq(protocolFile.reference()))).thenReturn(List.of(
+        when(readProtocolOutPort.streamProtocol(spooledFile(protocolFile.reference()))).thenReturn(Stream.of(
                 new ProtocolEntry("test.pdf", 1, null, null, null, null, null, Map.of()),
                 new ProtocolEntry("test2.pdf", 2, null, null, null, null, null, Map.of())));
         final String protocolDir = protocolFile.reference().getParentPath();
@@ -203,9 +278,13 @@ class ProtocolProcessingUseCaseTest {
         // call
         protocolProcessingUseCase.processProtocolFile(useCase, protocolFile.reference());
         // test: both in-process files should be tagged as protocol processed
-        verify(fileSystemOutPort).tagFile(eq(inProcessFile1.reference()), eq(Map.of(
+        verify(fileSystemOutPort).tagFile(eq(inProcessFile1.reference()), isNull(), eq(Map.of(
                 "SWIM_State", "protocolProcessingSuccessful")));
-        verify(fileSystemOutPort).tagFile(eq(inProcessFile2.reference()), eq(Map.of(
+        verify(fileSystemOutPort).tagFile(eq(inProcessFile2.reference()), isNull(), eq(Map.of(
                 "SWIM_State", "protocolProcessingSuccessful")));
     }
+
+    private static SpooledFile spooledFile(final FileReference reference) {
+        return argThat(i -> i != null && reference.equals(i.reference()));
+    }
 }
@@ -0,0 +1,66 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase;
+
+import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import de.muenchen.oss.swim.dispatcher.application.port.out.QueryProtocolOutPort;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolCursor;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolPage;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolQuery;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.StoredProtocolEntry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@SpringBootTest(classes = { ProtocolQueryUseCase.class })
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+class ProtocolQueryUseCaseTest {
+    private static final ProtocolQuery QUERY = new ProtocolQuery(USE_CASE, null, null, null, null, null);
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final StoredProtocolEntry ENTRY1 = createEntry("1");
+    private static final StoredProtocolEntry ENTRY2 = createEntry("2");
+    private static final StoredProtocolEntry ENTRY3 = createEntry("3");
+
+    @MockitoBean
+    private QueryProtocolOutPort queryProtocolOutPort;
+    @Autowired
+    private ProtocolQueryUseCase protocolQueryUseCase;
+
+    @Test
+    void findProtocolEntries_NextPage() {
+        // setup
+        final ProtocolCursor after = new ProtocolCursor(CREATED_AT, "0");
+        when(queryProtocolOutPort.findProtocolEntries(eq(QUERY), eq(after), eq(3))).thenReturn(List.of(ENTRY1, ENTRY2, ENTRY3));
+        // call
+        final ProtocolPage page = protocolQueryUseCase.findProtocolEntries(QUERY, after, 2);
+        // test
+        assertEquals(List.of(ENTRY1, ENTRY2), page.entries());
+        assertEquals(new ProtocolCursor(CREATED_AT, "2"), page.next());
+    }
+
+    @Test
+    void findProtocolEntries_LastPage() {
+        // setup
+        when(queryProtocolOutPort.findProtocolEntries(eq(QUERY), eq(null), eq(3))).thenReturn(List.of(ENTRY1, ENTRY2));
+        // call
+        final ProtocolPage page = protocolQueryUseCase.findProtocolEntries(QUERY, null, 2);
+        // test
+        verify(queryProtocolOutPort).findProtocolEntries(eq(QUERY), eq(null), eq(3));
+        assertEquals(List.of(ENTRY1, ENTRY2), page.entries());
+        assertNull(page.next());
+    }
+
+    private static StoredProtocolEntry createEntry(final String id) {
+        return new StoredProtocolEntry(id, USE_CASE, "path/path.csv", "test" + id + ".pdf", 1, null, null, null, null, null, Map.of(), CREATED_AT);
+    }
+}
@@ -0,0 +1,63 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = { SwimDispatcherProperties.class, DispatchPipeline.class })
+@EnableConfigurationProperties
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+class DispatchPipelineTest {
+    @Autowired
+    private SwimDispatcherProperties swimDispatcherProperties;
+    @Autowired
+    private DispatchPipeline dispatchPipeline;
+
+    @Test
+    void testBatch_AwaitAsyncCompletion() throws InterruptedException {
+        // setup
+        final AtomicInteger completed = new AtomicInteger();
+        final DispatchPipeline.Batch batch = dispatchPipeline.start();
+        // call
+        for (int i = 0; i < 5; i++) {
+            batch.submit(() -> CompletableFuture.runAsync(completed::incrementAndGet,
+                    CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)));
+        }
+        batch.submit(() -> CompletableFuture.failedFuture(new IllegalStateException("Error")));
+        batch.submit(() -> {
+            throw new IllegalStateException("Error");
+        });
+        batch.await();
+        // test
+        assertEquals(5, completed.get());
+    }
+
+    @Test
+    @DirtiesContext
+    void testBatch_SubmitRejected() throws InterruptedException {
+        // setup
+        final DispatchPipeline.Batch batch = dispatchPipeline.start();
+        dispatchPipeline.shutdown();
+        // call
+        // submit more stages than slots, slots of rejected stages are released
+        for (int i = 0; i <= swimDispatcherProperties.getDispatchMaxInFlight(); i++) {
+            assertThrows(RejectedExecutionException.class, () -> batch.submit(() -> CompletableFuture.completedFuture(null)));
+        }
+        // test
+        assertTimeoutPreemptively(Duration.ofSeconds(5), batch::await);
+    }
+}
@@ -0,0 +1,88 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = { SwimDispatcherProperties.class, DispatchScheduler.class })
+@EnableConfigurationProperties
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+class DispatchSchedulerTest {
+    @Autowired
+    private SwimDispatcherProperties swimDispatcherProperties;
+    @Autowired
+    private DispatchScheduler dispatchScheduler;
+
+    @Test
+    void testRun_RoundRobin() throws InterruptedException {
+        // setup
+        final UseCase useCase1 = swimDispatcherProperties.getUseCases().get(0);
+        final UseCase useCase2 = swimDispatcherProperties.getUseCases().get(1);
+        final List<String> executed = new CopyOnWriteArrayList<>();
+        final int concurrency = swimDispatcherProperties.getDispatchConcurrency();
+        swimDispatcherProperties.setDispatchConcurrency(1);
+        final DispatchScheduler.Run run;
+        try {
+            run = dispatchScheduler.start();
+        } finally {
+            swimDispatcherProperties.setDispatchConcurrency(concurrency);
+        }
+        final CountDownLatch submitted = new CountDownLatch(1);
+        // call
+        run.submit(useCase1, () -> {
+            try {
+                submitted.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executed.add("a1");
+            run.submit(useCase1, () -> executed.add("a3"));
+        });
+        run.submit(useCase1, () -> executed.add("a2"));
+        run.submit(useCase2, () -> executed.add("b1"));
+        submitted.countDown();
+        run.await();
+        // test
+        assertEquals(List.of("a1", "b1", "a2", "a3"), executed);
+    }
+
+    @Test
+    void testRun_ConcurrencyLimitAndFailures() throws InterruptedException {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final DispatchScheduler.Run run = dispatchScheduler.start();
+        // call
+        for (int i = 0; i < 10; i++) {
+            run.submit(useCase, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            });
+        }
+        run.submit(useCase, () -> {
+            throw new IllegalStateException("Error");
+        });
+        run.await();
+        // test
+        assertTrue(maxRunning.get() <= useCase.getDispatchConcurrency());
+        assertEquals(1, run.getFailures(useCase).size());
+    }
+}
@@ -0,0 +1,187 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import de.muenchen.oss.swim.dispatcher.application.port.out.ConsumerLagOutPort;
+import de.muenchen.oss.swim.dispatcher.application.port.out.DispatchOutboxOutPort;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.exception.StreamingException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+@SpringBootTest(classes = { SwimDispatcherProperties.class, DispatchThrottlingHelper.class })
+@EnableConfigurationProperties
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DispatchThrottlingHelperTest {
+    private static final String DESTINATION = "dms-out";
+    private static final String CONSUMER_GROUP = "swim-dms-service";
+
+    @MockitoBean
+    private ConsumerLagOutPort consumerLagOutPort;
+    @MockitoBean
+    private DispatchOutboxOutPort dispatchOutboxOutPort;
+    @MockitoBean
+    private DispatchMeter dispatchMeter;
+    @Autowired
+    private SwimDispatcherProperties swimDispatcherProperties;
+    @MockitoSpyBean
+    @Autowired
+    private DispatchThrottlingHelper dispatchThrottlingHelper;
+
+    @BeforeEach
+    void setup() {
+        swimDispatcherProperties.setDispatchThrottlingEnabled(true);
+        swimDispatcherProperties.setDispatchConsumerGroups(Map.of(DESTINATION, CONSUMER_GROUP));
+        swimDispatcherProperties.setDispatchMaxConsumerLag(10);
+        swimDispatcherProperties.setDispatchConsumerLagRefreshInterval(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testHasCapacity_Disabled() {
+        // setup
+        swimDispatcherProperties.setDispatchThrottlingEnabled(false);
+        // call
+        dispatchThrottlingHelper.recordDispatched(DESTINATION, 20);
+        final boolean capacity = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        // test
+        assertTrue(capacity);
+        verify(consumerLagOutPort, never()).getConsumerLag(anyString(), anyString());
+    }
+
+    @Test
+    void testHasCapacity_UnknownDestination() {
+        // call
+        dispatchThrottlingHelper.recordDispatched("other-out", 20);
+        final boolean capacity = dispatchThrottlingHelper.hasCapacity("other-out");
+        // test
+        assertTrue(capacity);
+        verify(consumerLagOutPort, never()).getConsumerLag(anyString(), anyString());
+    }
+
+    @Test
+    void testHasCapacity_LimitsByLagAndDispatchedFiles() {
+        // setup
+        when(consumerLagOutPort.getConsumerLag(eq(DESTINATION), eq(CONSUMER_GROUP))).thenReturn(6L);
+        // call
+        final boolean capacity1 = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        final boolean capacity2 = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        dispatchThrottlingHelper.recordDispatched(DESTINATION, 3);
+        final boolean capacity3 = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        dispatchThrottlingHelper.recordDispatched(DESTINATION, 1);
+        final boolean capacity4 = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        // test
+        assertTrue(capacity1);
+        // checking capacity doesn't use up the budget
+        assertTrue(capacity2);
+        assertTrue(capacity3);
+        assertFalse(capacity4);
+        // lag is only loaded once per refresh interval
+        verify(consumerLagOutPort, times(1)).getConsumerLag(eq(DESTINATION), eq(CONSUMER_GROUP));
+        verify(dispatchMeter).updateConsumerLag(eq(DESTINATION), eq(6L));
+        verify(dispatchOutboxOutPort, never()).countPendingFiles(anyString());
+    }
+
+    @Test
+    void testHasCapacity_CountsPendingOutboxFiles() {
+        // setup
+        swimDispatcherProperties.setDispatchOutboxEnabled(true);
+        when(consumerLagOutPort.getConsumerLag(eq(DESTINATION), eq(CONSUMER_GROUP))).thenReturn(4L);
+        when(dispatchOutboxOutPort.countPendingFiles(eq(DESTINATION))).thenReturn(6L);
+        // call
+        final boolean capacity = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        // test
+        assertFalse(capacity);
+        verify(dispatchMeter).updateConsumerLag(eq(DESTINATION), eq(4L));
+    }
+
+    @Test
+    void testHasCapacity_RefreshResetsDispatched() {
+        // setup
+        swimDispatcherProperties.setDispatchConsumerLagRefreshInterval(Duration.ZERO);
+        when(consumerLagOutPort.getConsumerLag(eq(DESTINATION), eq(CONSUMER_GROUP))).thenReturn(9L, 9L, 10L);
+        // call
+        final boolean capacity1 = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        dispatchThrottlingHelper.recordDispatched(DESTINATION, 1);
+        final boolean capacity2 = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        final boolean capacity3 = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        // test
+        assertTrue(capacity1);
+        assertTrue(capacity2);
+        assertFalse(capacity3);
+    }
+
+    @Test
+    void testHasCapacity_AdminClientFailure() {
+        // setup
+        when(consumerLagOutPort.getConsumerLag(eq(DESTINATION), eq(CONSUMER_GROUP)))
+                .thenThrow(new StreamingException("Loading consumer lag failed", new RuntimeException("Broker not available")));
+        // call
+        final boolean capacity = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        // test
+        assertTrue(capacity);
+        verify(dispatchMeter, never()).updateConsumerLag(anyString(), anyLong());
+    }
+
+    @Test
+    void testHasCapacity_RefreshTimeout() {
+        // setup
+        when(consumerLagOutPort.getConsumerLag(eq(DESTINATION), eq(CONSUMER_GROUP)))
+                .thenThrow(new StreamingException("Loading consumer lag timed out", new TimeoutException()));
+        // call
+        final boolean capacity1 = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        final boolean capacity2 = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        // test
+        assertTrue(capacity1);
+        assertTrue(capacity2);
+        // failed refresh isn't retried before the refresh interval passed
+        verify(consumerLagOutPort, times(1)).getConsumerLag(eq(DESTINATION), eq(CONSUMER_GROUP));
+    }
+
+    @Test
+    void testHasCapacity_SlowRefreshDoesNotBlock() throws Exception {
+        // setup
+        final CountDownLatch refreshStarted = new CountDownLatch(1);
+        final CountDownLatch refreshReleased = new CountDownLatch(1);
+        when(consumerLagOutPort.getConsumerLag(eq(DESTINATION), eq(CONSUMER_GROUP))).thenAnswer(i -> {
+            refreshStarted.countDown();
+            refreshReleased.await();
+            return 10L;
+        });
+        final CompletableFuture<Boolean> refreshing = CompletableFuture.supplyAsync(() -> dispatchThrottlingHelper.hasCapacity(DESTINATION));
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+        // call
+        final boolean capacityDuringRefresh = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        refreshReleased.countDown();
+        final boolean capacityByRefresh = refreshing.get(5, TimeUnit.SECONDS);
+        final boolean capacityAfterRefresh = dispatchThrottlingHelper.hasCapacity(DESTINATION);
+        // test
+        assertTrue(capacityDuringRefresh);
+        assertFalse(capacityByRefresh);
+        assertFalse(capacityAfterRefresh);
+        verify(consumerLagOutPort, times(1)).getConsumerLag(eq(DESTINATION), eq(CONSUMER_GROUP));
+    }
+}
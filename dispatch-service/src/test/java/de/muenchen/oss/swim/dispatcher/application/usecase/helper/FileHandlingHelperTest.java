@@ -2,16 +2,24 @@ package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
 
 import static de.muenchen.oss.swim.dispatcher.TestConstants.BUCKET;
 import static de.muenchen.oss.swim.dispatcher.TestConstants.FILE1;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import de.muenchen.oss.swim.dispatcher.TestConstants;
 import de.muenchen.oss.swim.dispatcher.application.port.out.FileSystemOutPort;
 import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
 import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.exception.FileSystemAccessException;
+import de.muenchen.oss.swim.dispatcher.domain.model.FileOperationResult;
 import de.muenchen.oss.swim.dispatcher.domain.model.FileReference;
 import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -55,11 +63,42 @@ class FileHandlingHelperTest {
     void testFinishFile() {
         // setup
         final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        final FileReference metadataFile = new FileReference(BUCKET, "test/inProcess/path/test.json");
+        when(fileSystemOutPort.moveFiles(any(), any())).thenReturn(new FileOperationResult(Set.of(FILE1.reference(), metadataFile), Set.of(), Map.of()));
         // call
         fileHandlingHelper.finishFile(useCase, FILE1.reference());
         // test
-        verify(fileSystemOutPort).moveFile(eq(FILE1.reference()), eq("test/finished/path/test.pdf"));
-        verify(fileSystemOutPort).tagFile(eq(new FileReference(BUCKET, "test/finished/path/test.pdf")), eq(Map.of(
-                "SWIM_State", "finished")));
+        verify(fileSystemOutPort).moveFiles(eq(Map.of(
+                FILE1.reference(), "test/finished/path/test.pdf",
+                metadataFile, "test/finished/path/test.json")), eq(Map.of(
+                        "SWIM_State", "finished")));
+        verify(dispatchMeter, times(2)).incrementFinished(eq(useCase.getName()));
+    }
+
+    @Test
+    void testFinishFile_FileMissing() {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
+        when(fileSystemOutPort.moveFiles(any(), any())).thenReturn(new FileOperationResult(Set.of(), Set.of(FILE1.reference()), Map.of()));
+        // call and test
+        assertThrows(FileSystemAccessException.class, () -> fileHandlingHelper.finishFile(useCase, FILE1.reference()));
+    }
+
+    @Test
+    void testFinishFiles_PartialFailure() {
+        // setup
+        final UseCase useCase = swimDispatcherProperties.getUseCases().get(2);
+        final FileReference file2 = new FileReference(BUCKET, "path/test2/inProcess/test2.pdf");
+        final FileReference file3 = new FileReference(BUCKET, "path/test2/inProcess/test3.pdf");
+        when(fileSystemOutPort.moveFiles(any(), any())).thenReturn(new FileOperationResult(Set.of(file2), Set.of(), Map.of(
+                file3, new FileSystemAccessException("Error"))));
+        // call
+        assertThrows(FileSystemAccessException.class, () -> fileHandlingHelper.finishFiles(useCase, List.of(file2, file3)));
+        // test
+        verify(fileSystemOutPort).moveFiles(eq(Map.of(
+                file2, "path/test2/finished/test2.pdf",
+                file3, "path/test2/finished/test3.pdf")), eq(Map.of(
+                        "SWIM_State", "finished")));
+        verify(dispatchMeter).incrementFinished(eq(useCase.getName()));
     }
 }
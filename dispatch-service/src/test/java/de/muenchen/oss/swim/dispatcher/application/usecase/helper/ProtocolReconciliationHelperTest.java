@@ -0,0 +1,60 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import de.muenchen.oss.swim.dispatcher.configuration.DispatchMeter;
+import de.muenchen.oss.swim.dispatcher.domain.model.protocol.ProtocolReconciliation;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@SpringBootTest(classes = { ProtocolReconciliationHelper.class })
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+class ProtocolReconciliationHelperTest {
+    private static final String USE_CASE = "test";
+
+    @MockitoBean
+    private DispatchMeter dispatchMeter;
+    @Autowired
+    private ProtocolReconciliationHelper helper;
+
+    @Test
+    void reconcile_Matching() {
+        // when
+        final ProtocolReconciliation result = helper.reconcile(USE_CASE, List.of("a.pdf", "b.pdf"), Set.of("b.pdf", "a.pdf"));
+
+        // then
+        assertEquals(2, result.matched());
+        assertFalse(result.isMissingInProtocol());
+        assertFalse(result.isMissingFiles());
+        assertFalse(result.hasDuplicatesInProtocol());
+        verify(dispatchMeter).recordProtocolReconciliation(eq(USE_CASE), eq(result));
+    }
+
+    @Test
+    void reconcile_MissingAndDuplicates() {
+        // when
+        final ProtocolReconciliation result = helper.reconcile(USE_CASE,
+                List.of("d.pdf", "a.pdf", "c.pdf", "a.pdf", "a.pdf", "b.pdf", "b.pdf"),
+                List.of("a.pdf", "f.pdf", "e.pdf"));
+
+        // then
+        assertEquals(1, result.matched());
+        assertEquals(List.of("e.pdf", "f.pdf"), result.missingInProtocol());
+        assertEquals(List.of("b.pdf", "c.pdf", "d.pdf"), result.missingFiles());
+        assertEquals(Map.of("a.pdf", 3, "b.pdf", 2), result.duplicatesInProtocol());
+        assertTrue(result.isMissingInProtocol());
+        assertTrue(result.isMissingFiles());
+        assertTrue(result.hasDuplicatesInProtocol());
+    }
+}
@@ -0,0 +1,141 @@
+package de.muenchen.oss.swim.dispatcher.application.usecase.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import de.muenchen.oss.swim.dispatcher.application.port.out.LeaseOutPort;
+import de.muenchen.oss.swim.dispatcher.configuration.SwimDispatcherProperties;
+import de.muenchen.oss.swim.dispatcher.domain.model.UseCase;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+@SpringBootTest(classes = { SwimDispatcherProperties.class, ShardingHelper.class })
+@EnableConfigurationProperties
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ShardingHelperTest {
+    private static final Duration LEASE_DURATION = Duration.ofSeconds(30);
+
+    @MockitoBean
+    private LeaseOutPort leaseOutPort;
+    @Autowired
+    private SwimDispatcherProperties swimDispatcherProperties;
+    @MockitoSpyBean
+    @Autowired
+    private ShardingHelper shardingHelper;
+
+    private final UseCase recursiveUseCase = new UseCase();
+    private final UseCase flatUseCase = new UseCase();
+
+    @BeforeEach
+    void setup() {
+        recursiveUseCase.setName("recursive");
+        recursiveUseCase.setPath("test/recursive");
+        recursiveUseCase.setRecursive(true);
+        recursiveUseCase.setDispatchShards(3);
+        flatUseCase.setName("flat");
+        flatUseCase.setPath("test/flat");
+        flatUseCase.setDispatchShards(3);
+        swimDispatcherProperties.setDispatchFolder("inProcess");
+        swimDispatcherProperties.setUseCases(List.of(recursiveUseCase, flatUseCase));
+        swimDispatcherProperties.setShardingEnabled(true);
+        swimDispatcherProperties.setShardLeaseDuration(LEASE_DURATION);
+    }
+
+    @Test
+    void testOwnsAll_ShardingDisabled() {
+        // setup
+        swimDispatcherProperties.setShardingEnabled(false);
+        // call
+        shardingHelper.renewLeases();
+        // test
+        assertTrue(shardingHelper.ownsAll(recursiveUseCase));
+        assertTrue(shardingHelper.ownsPath(recursiveUseCase, "test/recursive/inProcess/a/test.pdf"));
+        verify(leaseOutPort, never()).registerInstance(anyString(), any());
+    }
+
+    @Test
+    void testOwnsNothing_BeforeRenewal() {
+        // call
+        final boolean ownsAny = shardingHelper.ownsAny(recursiveUseCase);
+        final boolean ownsRoot = shardingHelper.ownsRoot(flatUseCase);
+        // test
+        assertFalse(ownsAny);
+        assertFalse(ownsRoot);
+    }
+
+    @Test
+    void testRenewLeases_SingleInstanceAcquiresAll() {
+        // setup
+        when(leaseOutPort.countActiveInstances()).thenReturn(1);
+        when(leaseOutPort.acquireLease(anyString(), anyString(), eq(LEASE_DURATION))).thenReturn(true);
+        // call
+        shardingHelper.renewLeases();
+        // test
+        // flat use case only has a single shard
+        verify(leaseOutPort).acquireLease(eq("flat#0"), anyString(), eq(LEASE_DURATION));
+        verify(leaseOutPort, never()).acquireLease(eq("flat#1"), anyString(), any());
+        assertTrue(shardingHelper.ownsAll(recursiveUseCase));
+        assertTrue(shardingHelper.ownsAll(flatUseCase));
+    }
+
+    @Test
+    void testRenewLeases_ReleasesSurplus() {
+        // setup
+        when(leaseOutPort.renewLeases(anyString(), eq(LEASE_DURATION))).thenReturn(Set.of("recursive#0", "recursive#1", "recursive#2", "flat#0"));
+        when(leaseOutPort.countActiveInstances()).thenReturn(2);
+        // call
+        shardingHelper.renewLeases();
+        // test
+        verify(leaseOutPort).releaseLeases(anyString(), eq(List.of("recursive#1", "recursive#2")));
+        verify(leaseOutPort, never()).acquireLease(anyString(), anyString(), any());
+        assertTrue(shardingHelper.ownsRoot(flatUseCase));
+        assertTrue(shardingHelper.ownsRoot(recursiveUseCase));
+        assertFalse(shardingHelper.ownsAll(recursiveUseCase));
+        assertEquals(List.of(0), shardingHelper.getOwnedShards(recursiveUseCase));
+    }
+
+    @Test
+    void testRenewLeases_ReleasesRemovedUseCases() {
+        // setup
+        when(leaseOutPort.renewLeases(anyString(), eq(LEASE_DURATION))).thenReturn(Set.of("removed#0", "flat#0"));
+        when(leaseOutPort.countActiveInstances()).thenReturn(4);
+        // call
+        shardingHelper.renewLeases();
+        // test
+        verify(leaseOutPort).releaseLeases(anyString(), eq(Set.of("removed#0")));
+        assertTrue(shardingHelper.ownsRoot(flatUseCase));
+    }
+
+    @Test
+    void testResolveShard() {
+        // call
+        final int rootShard = shardingHelper.resolveShard(recursiveUseCase, "test/recursive/inProcess/test.pdf");
+        final int folderShard = shardingHelper.resolveShard(recursiveUseCase, "test/recursive/inProcess/folder/");
+        final int nestedShard = shardingHelper.resolveShard(recursiveUseCase, "test/recursive/inProcess/folder/nested/test.pdf");
+        final int flatShard = shardingHelper.resolveShard(flatUseCase, "test/flat/inProcess/folder/test.pdf");
+        // test
+        assertEquals(0, rootShard);
+        assertEquals(folderShard, nestedShard);
+        assertEquals(Math.floorMod("folder".hashCode(), 3), folderShard);
+        assertEquals(0, flatShard);
+    }
+}
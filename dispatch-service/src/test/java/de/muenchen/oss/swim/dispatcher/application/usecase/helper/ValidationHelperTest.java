@@ -125,7 +125,7 @@ class ValidationHelperTest {
         final UseCase useCase = swimDispatcherProperties.getUseCases().getFirst();
         assertThrows(FileSizeException.class,
                 () -> helper.validateFile(useCase,
-                        new FileWithMetadata(new FileReference(BUCKET, "test.pdf"), useCase.getMaxFileSize().toBytes() + 1, null, TAGS)));
+                        new FileWithMetadata(new FileReference(BUCKET, "test.pdf"), useCase.getMaxFileSize().toBytes() + 1, null, TAGS, null)));
     }
 
     @Test
@@ -0,0 +1,44 @@
+package de.muenchen.oss.swim.dispatcher.configuration;
+
+import static de.muenchen.oss.swim.dispatcher.TestConstants.USE_CASE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.muenchen.oss.swim.dispatcher.TestConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = { DispatchMeter.class, SimpleMeterRegistry.class })
+@ActiveProfiles(TestConstants.SPRING_TEST_PROFILE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DispatchMeterTest {
+    private static final String END_TO_END_DURATION = "swim_dispatch_end_to_end_duration";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private DispatchMeter dispatchMeter;
+
+    @Test
+    void testRecordEndToEndDuration() {
+        // call
+        dispatchMeter.recordEndToEndDuration(USE_CASE, "dms-out", Duration.ofSeconds(2));
+        dispatchMeter.recordEndToEndDuration(USE_CASE, "dms-out", Duration.ofSeconds(4));
+        dispatchMeter.recordEndToEndDuration(USE_CASE, "invoice-out", Duration.ofSeconds(1));
+        // test
+        final Timer timer = meterRegistry.get(END_TO_END_DURATION).tag("use-case", USE_CASE).tag("destination", "dms-out").timer();
+        assertEquals(2, timer.count());
+        assertEquals(6, timer.totalTime(TimeUnit.SECONDS));
+        assertEquals(4, timer.max(TimeUnit.SECONDS));
+        final Timer otherTimer = meterRegistry.get(END_TO_END_DURATION).tag("use-case", USE_CASE).tag("destination", "invoice-out").timer();
+        assertEquals(1, otherTimer.count());
+        assertEquals(2, meterRegistry.get(END_TO_END_DURATION).timers().size());
+    }
+}
@@ -1,9 +1,12 @@
 package de.muenchen.oss.swim.libs.handlercore;
 
+import de.muenchen.oss.swim.libs.handlercore.adapter.out.s3.PresignedDownloadProperties;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.ComponentScan;
 
 @AutoConfiguration
 @ComponentScan
+@EnableConfigurationProperties(PresignedDownloadProperties.class)
 public class HandlerCoreAutoConfiguration {
 }
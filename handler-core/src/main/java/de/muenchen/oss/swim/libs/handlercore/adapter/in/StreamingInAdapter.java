@@ -1,5 +1,6 @@
 package de.muenchen.oss.swim.libs.handlercore.adapter.in;
 
+import de.muenchen.oss.swim.libs.handlercore.adapter.out.streaming.DispatchContext;
 import de.muenchen.oss.swim.libs.handlercore.application.port.in.ProcessFileInPort;
 import de.muenchen.oss.swim.libs.handlercore.domain.exception.MetadataException;
 import de.muenchen.oss.swim.libs.handlercore.domain.exception.PresignedUrlException;
@@ -22,6 +23,8 @@ public class StreamingInAdapter {
 
     /**
      * Consumer for dispatch events sent via Kafka from the dispatch-service.
+     * The dispatch headers of the event are kept in the {@link DispatchContext} while processing, so
+     * they are carried through to the finished event.
      *
      * @return The consumer.
      */
@@ -29,6 +32,7 @@ public class StreamingInAdapter {
     public Consumer<Message<FileEvent>> event() {
         return message -> {
             final FileEvent fileEvent = message.getPayload();
+            DispatchContext.set(message.getHeaders());
             try {
                 if (fileEvent instanceof SingleFileEvent single) {
                     processFileInPort.processEvent(single);
@@ -40,6 +44,8 @@ public class StreamingInAdapter {
             } catch (final PresignedUrlException | UnknownUseCaseException | MetadataException e) {
                 log.warn("Error while processing event in use case {}: {}", fileEvent.useCase(), fileEvent, e);
                 throw new FileProcessingException(e);
+            } finally {
+                DispatchContext.clear();
             }
         };
     }
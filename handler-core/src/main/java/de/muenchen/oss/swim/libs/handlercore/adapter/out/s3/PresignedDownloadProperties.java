@@ -0,0 +1,55 @@
+package de.muenchen.oss.swim.libs.handlercore.adapter.out.s3;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@ConfigurationProperties("swim.presigned-download")
+@Validated
+public class PresignedDownloadProperties {
+    /**
+     * Max number of idle connections kept open for reuse.
+     * Default: 10
+     */
+    @Positive
+    private int maxIdleConnections = 10;
+    /**
+     * Time after which idle connections are closed.
+     * Default: 5m
+     */
+    @NotNull
+    private Duration keepAlive = Duration.ofMinutes(5);
+    /**
+     * Timeout for connecting to S3.
+     * Default: 5s
+     */
+    @NotNull
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+    /**
+     * Timeout between two reads while downloading.
+     * Default: 60s
+     */
+    @NotNull
+    private Duration readTimeout = Duration.ofSeconds(60);
+    /**
+     * HTTP version used for downloading.
+     * Default: HTTP_1_1
+     */
+    @NotNull
+    private HttpVersion httpVersion = HttpVersion.HTTP_1_1;
+
+    public enum HttpVersion {
+        /**
+         * Only HTTP/1.1 is used.
+         */
+        HTTP_1_1,
+        /**
+         * HTTP/2 is used if the server supports it via TLS (ALPN), otherwise HTTP/1.1.
+         */
+        HTTP_2
+    }
+}
@@ -2,44 +2,143 @@ package de.muenchen.oss.swim.libs.handlercore.adapter.out.s3;
 
 import de.muenchen.oss.swim.libs.handlercore.application.port.out.FileSystemOutPort;
 import de.muenchen.oss.swim.libs.handlercore.domain.exception.PresignedUrlException;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+/**
+ * Downloads files via presigned urls.
+ * Connections are kept alive and reused for following downloads, see
+ * {@link PresignedDownloadProperties}.
+ * If a {@link MeterRegistry} is available, the state of the connection pool is published as metrics.
+ */
 @Service
 public class S3Adapter implements FileSystemOutPort {
-    private static final int CONNECTION_TIMEOUT = 5 * 1000;
-    private static final int READ_TIMEOUT = 60 * 1000;
+    private final OkHttpClient httpClient;
+    /**
+     * Number of downloads waiting for a connection from the pool.
+     */
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+
+    /* default */ S3Adapter(final PresignedDownloadProperties properties, final ObjectProvider<MeterRegistry> meterRegistry) {
+        final ConnectionPool connectionPool = new ConnectionPool(properties.getMaxIdleConnections(), properties.getKeepAlive().toMillis(),
+                TimeUnit.MILLISECONDS);
+        this.httpClient = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .connectTimeout(properties.getConnectionTimeout())
+                .readTimeout(properties.getReadTimeout())
+                .protocols(resolveProtocols(properties.getHttpVersion()))
+                .eventListenerFactory(call -> new PendingConnectionListener(pendingRequests))
+                .build();
+        meterRegistry.ifAvailable(registry -> this.registerMetrics(registry, connectionPool));
+    }
+
+    @PreDestroy
+    /* default */ void shutdown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
 
     @Override
-    @SuppressFBWarnings(
-            value = "URLCONNECTION_SSRF_FD",
-            justification = "The presigned URL is generated by trusted S3 service"
-    )
     public InputStream getPresignedUrlFile(final String presignedUrl) throws PresignedUrlException {
-        HttpURLConnection connection = null;
-        int responseCode = -1;
+        final Request request;
         try {
-            final URI uri = new URI(presignedUrl);
-            connection = (HttpURLConnection) uri.toURL().openConnection();
-            connection.setConnectTimeout(CONNECTION_TIMEOUT);
-            connection.setReadTimeout(READ_TIMEOUT);
-            connection.setRequestMethod("GET");
-            responseCode = connection.getResponseCode();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                return connection.getInputStream();
-            } else {
-                throw new PresignedUrlException("Failed to download file: " + responseCode);
-            }
-        } catch (URISyntaxException | IOException e) {
+            request = new Request.Builder().url(presignedUrl).get().build();
+        } catch (final IllegalArgumentException e) {
+            throw new PresignedUrlException("Error while downloading with presigned url", e);
+        }
+        final Response response;
+        try {
+            response = httpClient.newCall(request).execute();
+        } catch (final IOException e) {
             throw new PresignedUrlException("Error while downloading with presigned url", e);
-        } finally {
-            if (connection != null && responseCode != HttpURLConnection.HTTP_OK) {
-                connection.disconnect();
+        }
+        if (response.code() != HttpURLConnection.HTTP_OK) {
+            response.close();
+            throw new PresignedUrlException("Failed to download file: " + response.code());
+        }
+        // closing the stream releases the connection to the pool
+        return response.body().byteStream();
+    }
+
+    /**
+     * Resolve the protocols the client may negotiate for a HTTP version.
+     *
+     * @param httpVersion The configured HTTP version.
+     * @return The allowed protocols, ordered by preference.
+     */
+    private static List<Protocol> resolveProtocols(final PresignedDownloadProperties.HttpVersion httpVersion) {
+        return switch (httpVersion) {
+        case HTTP_1_1 -> List.of(Protocol.HTTP_1_1);
+        case HTTP_2 -> List.of(Protocol.HTTP_2, Protocol.HTTP_1_1);
+        };
+    }
+
+    private void registerMetrics(final MeterRegistry meterRegistry, final ConnectionPool connectionPool) {
+        Gauge.builder("swim_handler_download_pool_connections", connectionPool, i -> i.connectionCount() - i.idleConnectionCount())
+                .tag("state", "active")
+                .register(meterRegistry);
+        Gauge.builder("swim_handler_download_pool_connections", connectionPool, ConnectionPool::idleConnectionCount)
+                .tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("swim_handler_download_pool_pending", pendingRequests, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a call as pending from its start until a connection was acquired from the pool or
+     * newly connected, or the call ended without one.
+     */
+    private static final class PendingConnectionListener extends EventListener {
+        private final AtomicInteger pendingRequests;
+        private final AtomicBoolean pending = new AtomicBoolean();
+
+        private PendingConnectionListener(final AtomicInteger pendingRequests) {
+            this.pendingRequests = pendingRequests;
+        }
+
+        @Override
+        public void callStart(final Call call) {
+            if (pending.compareAndSet(false, true)) {
+                pendingRequests.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void connectionAcquired(final Call call, final Connection connection) {
+            this.release();
+        }
+
+        @Override
+        public void callEnd(final Call call) {
+            this.release();
+        }
+
+        @Override
+        public void callFailed(final Call call, final IOException ioe) {
+            this.release();
+        }
+
+        private void release() {
+            if (pending.compareAndSet(true, false)) {
+                pendingRequests.decrementAndGet();
             }
         }
     }
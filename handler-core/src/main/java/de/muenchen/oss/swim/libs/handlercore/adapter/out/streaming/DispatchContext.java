@@ -0,0 +1,55 @@
+package de.muenchen.oss.swim.libs.handlercore.adapter.out.streaming;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the dispatch headers of the event currently processed by a consumer thread, so they can be
+ * carried through to the finished event.
+ * They are used by the dispatch-service for measuring the end-to-end latency of a file.
+ * <p>
+ * ATTENTION: The header names need to match the ones in the dispatch-service.
+ */
+public final class DispatchContext {
+    public static final String DISPATCH_ID = "swim-dispatch-id";
+    public static final String DISPATCH_TIME = "swim-dispatch-time";
+    public static final String DISPATCH_DESTINATION = "swim-dispatch-destination";
+    private static final String[] HEADERS = { DISPATCH_ID, DISPATCH_TIME, DISPATCH_DESTINATION };
+    private static final ThreadLocal<Map<String, Object>> CURRENT = new ThreadLocal<>();
+
+    private DispatchContext() {
+    }
+
+    /**
+     * Set the dispatch headers of the event processed by the current thread.
+     *
+     * @param headers The headers of the received event, other headers are ignored.
+     */
+    public static void set(final Map<String, Object> headers) {
+        final Map<String, Object> dispatchHeaders = new HashMap<>();
+        for (final String header : HEADERS) {
+            final Object value = headers.get(header);
+            if (value != null) {
+                dispatchHeaders.put(header, value);
+            }
+        }
+        CURRENT.set(dispatchHeaders);
+    }
+
+    /**
+     * Get the dispatch headers of the event processed by the current thread.
+     *
+     * @return The headers, empty if not set.
+     */
+    public static Map<String, Object> current() {
+        final Map<String, Object> headers = CURRENT.get();
+        return headers == null ? Map.of() : headers;
+    }
+
+    /**
+     * Clear the dispatch headers of the current thread after the event was processed.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
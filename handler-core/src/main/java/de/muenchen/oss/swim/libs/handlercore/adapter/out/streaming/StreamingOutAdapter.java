@@ -5,6 +5,7 @@ import de.muenchen.oss.swim.libs.handlercore.domain.model.FileEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,7 +16,9 @@ public class StreamingOutAdapter implements FileEventOutPort {
 
     @Override
     public void fileFinished(final FileEvent event) {
-        final boolean sent = streamBridge.send("finished-out", event);
+        final boolean sent = streamBridge.send("finished-out", MessageBuilder.withPayload(event)
+                .copyHeaders(DispatchContext.current())
+                .build());
         if (!sent) {
             throw new MessagingException("Failed to send file finished event");
         }
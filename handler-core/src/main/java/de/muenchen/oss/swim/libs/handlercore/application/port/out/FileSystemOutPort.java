@@ -9,6 +9,7 @@ import org.springframework.validation.annotation.Validated;
 public interface FileSystemOutPort {
     /**
      * Get file via presigned url.
+     * The returned stream needs to be closed to release the underlying connection.
      *
      * @param presignedUrl The presigned url for the file.
      * @return The file.
@@ -0,0 +1,78 @@
+package de.muenchen.oss.swim.libs.handlercore.adapter.in;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+import de.muenchen.oss.swim.libs.handlercore.adapter.out.streaming.DispatchContext;
+import de.muenchen.oss.swim.libs.handlercore.application.port.in.ProcessFileInPort;
+import de.muenchen.oss.swim.libs.handlercore.domain.exception.MetadataException;
+import de.muenchen.oss.swim.libs.handlercore.domain.exception.PresignedUrlException;
+import de.muenchen.oss.swim.libs.handlercore.domain.exception.UnknownUseCaseException;
+import de.muenchen.oss.swim.libs.handlercore.domain.model.FileEvent;
+import de.muenchen.oss.swim.libs.handlercore.domain.model.PresignedFile;
+import de.muenchen.oss.swim.libs.handlercore.domain.model.SingleFileEvent;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@SpringBootTest(classes = { StreamingInAdapter.class })
+class StreamingInAdapterTest {
+    private static final byte[] DISPATCH_ID = "dispatch-1".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DISPATCH_TIME = "1700000000000".getBytes(StandardCharsets.UTF_8);
+    private static final Message<FileEvent> MESSAGE = MessageBuilder.<FileEvent> withPayload(
+            new SingleFileEvent("test", new PresignedFile("https://s3.muenchen.de/test-bucket/test/inProcess/test.pdf", null)))
+            .setHeader(DispatchContext.DISPATCH_ID, DISPATCH_ID)
+            .setHeader(DispatchContext.DISPATCH_TIME, DISPATCH_TIME)
+            .setHeader("other", "value")
+            .build();
+
+    @MockitoBean
+    private ProcessFileInPort processFileInPort;
+    @Autowired
+    private StreamingInAdapter streamingInAdapter;
+
+    @Test
+    void testEvent_DispatchContextSetWhileProcessing() throws PresignedUrlException, UnknownUseCaseException, MetadataException {
+        // setup
+        final Map<String, Object> processingContext = new HashMap<>();
+        doAnswer(i -> {
+            processingContext.putAll(DispatchContext.current());
+            return null;
+        }).when(processFileInPort).processEvent(any(SingleFileEvent.class));
+        // call
+        streamingInAdapter.event().accept(MESSAGE);
+        // test
+        assertEquals(Map.of(DispatchContext.DISPATCH_ID, DISPATCH_ID, DispatchContext.DISPATCH_TIME, DISPATCH_TIME), processingContext);
+        assertTrue(DispatchContext.current().isEmpty());
+    }
+
+    @Test
+    void testEvent_DispatchContextClearedOnError() throws PresignedUrlException, UnknownUseCaseException, MetadataException {
+        // setup
+        doThrow(new PresignedUrlException("Invalid presigned url")).when(processFileInPort).processEvent(any(SingleFileEvent.class));
+        // call
+        assertThrows(FileProcessingException.class, () -> streamingInAdapter.event().accept(MESSAGE));
+        // test
+        assertTrue(DispatchContext.current().isEmpty());
+    }
+
+    @Test
+    void testEvent_DispatchContextClearedOnRuntimeException() throws PresignedUrlException, UnknownUseCaseException, MetadataException {
+        // setup
+        doThrow(new IllegalStateException("Processing failed")).when(processFileInPort).processEvent(any(SingleFileEvent.class));
+        // call
+        assertThrows(IllegalStateException.class, () -> streamingInAdapter.event().accept(MESSAGE));
+        // test
+        assertTrue(DispatchContext.current().isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package de.muenchen.oss.swim.libs.handlercore.adapter.out.s3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import de.muenchen.oss.swim.libs.handlercore.domain.exception.PresignedUrlException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+class S3AdapterTest {
+    private static final byte[] CONTENT = "file content".getBytes(StandardCharsets.UTF_8);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private S3Adapter s3Adapter;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bucket/file.pdf", exchange -> {
+            exchange.sendResponseHeaders(200, CONTENT.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(CONTENT);
+            }
+        });
+        server.createContext("/bucket/expired.pdf", exchange -> {
+            final byte[] error = "<Error><Code>AccessDenied</Code></Error>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(403, error.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(error);
+            }
+        });
+        server.start();
+        s3Adapter = new S3Adapter(new PresignedDownloadProperties(),
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class));
+    }
+
+    @AfterEach
+    void teardown() {
+        s3Adapter.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void testGetPresignedUrlFile_Success() throws PresignedUrlException, IOException {
+        // call
+        try (InputStream file = s3Adapter.getPresignedUrlFile(url("/bucket/file.pdf"))) {
+            // test
+            assertEquals(1, gauge("swim_handler_download_pool_connections", "active"));
+            assertEquals(0, gauge("swim_handler_download_pool_pending", null));
+            assertEquals(new String(CONTENT, StandardCharsets.UTF_8), new String(file.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        // connection is released to the pool after the stream was closed
+        assertEquals(0, gauge("swim_handler_download_pool_connections", "active"));
+        assertEquals(1, gauge("swim_handler_download_pool_connections", "idle"));
+    }
+
+    @Test
+    void testGetPresignedUrlFile_NotOk() {
+        // call
+        final PresignedUrlException exception = assertThrows(PresignedUrlException.class, () -> s3Adapter.getPresignedUrlFile(url("/bucket/expired.pdf")));
+        // test
+        assertEquals("Failed to download file: 403", exception.getMessage());
+        // response is closed, so the connection isn't leaked
+        assertEquals(0, gauge("swim_handler_download_pool_connections", "active"));
+        assertEquals(0, gauge("swim_handler_download_pool_pending", null));
+    }
+
+    @Test
+    void testGetPresignedUrlFile_ConnectionFailed() {
+        // setup
+        final String url = url("/bucket/file.pdf");
+        server.stop(0);
+        // call
+        assertThrows(PresignedUrlException.class, () -> s3Adapter.getPresignedUrlFile(url));
+        // test
+        assertEquals(0, gauge("swim_handler_download_pool_pending", null));
+    }
+
+    @Test
+    void testGetPresignedUrlFile_InvalidUrl() {
+        // call
+        assertThrows(PresignedUrlException.class, () -> s3Adapter.getPresignedUrlFile("not a url"));
+    }
+
+    private String url(final String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path + "?X-Amz-Signature=test";
+    }
+
+    private double gauge(final String name, final String state) {
+        return state == null ? meterRegistry.get(name).gauge().value() : meterRegistry.get(name).tag("state", state).gauge().value();
+    }
+}